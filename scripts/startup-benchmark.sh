@@ -0,0 +1,119 @@
+#!/usr/bin/env bash
+# Time to first request and resident memory of the application, per startup mode.
+#
+#   ./gradlew bootJar cdsArchive -Paot     jar, aot, aot-cds (build/cds/aot)
+#   ./gradlew cdsArchive                   cds (build/cds/plain); leaves the AOT archive alone
+#   ./gradlew nativeCompile -Pnative       native
+#   scripts/startup-benchmark.sh [runs] [mode...]
+#
+# Modes: jar, aot, cds, aot-cds, native (default: all whose artifacts exist). Each run starts the application
+# on a free port and polls /actuator/health until anything answers; that is the time to first request. RSS is
+# read right after. Medians over the runs are printed. The application starts with its usual configuration,
+# so the database has to be reachable; extra arguments can be passed in APP_ARGS.
+# The aot modes need jars built with -Paot, and the cds modes run with -Xshare:on, so that a stale or
+# mismatched archive fails the run instead of silently starting without it.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+shift || true
+MODES=("$@")
+JAVA=${JAVA:-java}
+APP_ARGS=${APP_ARGS:-}
+TIMEOUT_SECONDS=${TIMEOUT_SECONDS:-120}
+
+JAR=$(ls build/libs/*.jar 2>/dev/null | grep -v -- '-plain.jar' | head -n 1 || true)
+CDS_JAR=build/cds/plain/$(basename "${JAR:-none}")
+AOT_CDS_JAR=build/cds/aot/$(basename "${JAR:-none}")
+NATIVE=build/native/nativeCompile/deathLineServer
+
+# Jars built with -Paot carry the generated context initializer; without it AOT mode fails to start
+has_aot() {
+    python3 -c 'import sys, zipfile
+names = zipfile.ZipFile(sys.argv[1]).namelist()
+sys.exit(0 if any(name.endswith("__ApplicationContextInitializer.class") for name in names) else 1)' "$1"
+}
+
+available() {
+    case $1 in
+        jar) [[ -n $JAR ]] ;;
+        aot) [[ -n $JAR ]] && has_aot "$JAR" ;;
+        cds) [[ -f $CDS_JAR && -f build/cds/plain/application.jsa ]] ;;
+        aot-cds) [[ -f $AOT_CDS_JAR && -f build/cds/aot/application.jsa ]] && has_aot "$AOT_CDS_JAR" ;;
+        native) [[ -x $NATIVE ]] ;;
+        *) echo "Unknown mode $1" >&2; exit 2 ;;
+    esac
+}
+
+command_for() {
+    case $1 in
+        jar) echo "$JAVA -jar $JAR" ;;
+        aot) echo "$JAVA -Dspring.aot.enabled=true -jar $JAR" ;;
+        cds) echo "$JAVA -Xshare:on -XX:SharedArchiveFile=build/cds/plain/application.jsa -jar $CDS_JAR" ;;
+        aot-cds) echo "$JAVA -Xshare:on -XX:SharedArchiveFile=build/cds/aot/application.jsa -Dspring.aot.enabled=true -jar $AOT_CDS_JAR" ;;
+        native) echo "$NATIVE" ;;
+    esac
+}
+
+free_port() {
+    python3 -c 'import socket; s = socket.socket(); s.bind(("", 0)); print(s.getsockname()[1]); s.close()'
+}
+
+rss_kb() {
+    if [[ -r /proc/$1/status ]]; then
+        awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+    else
+        ps -o rss= -p "$1" | tr -d ' '
+    fi
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2 ? values[(NR + 1) / 2] : (values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+# Prints "<milliseconds to first request> <rss in KB>" for one start
+measure() {
+    local port pid start now code
+    port=$(free_port)
+    start=$(date +%s%N)
+    # shellcheck disable=SC2086
+    $(command_for "$1") --server.port="$port" $APP_ARGS > "build/startup-$1.log" 2>&1 &
+    pid=$!
+    while true; do
+        code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$port/actuator/health" || true)
+        now=$(date +%s%N)
+        if [[ $code != 000 ]]; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null || (( (now - start) / 1000000000 > TIMEOUT_SECONDS )); then
+            kill "$pid" 2>/dev/null || true
+            echo "$1 did not answer, see build/startup-$1.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    echo "$(( (now - start) / 1000000 )) $(rss_kb "$pid")"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+if [[ ${#MODES[@]} -eq 0 ]]; then
+    for mode in jar aot cds aot-cds native; do
+        if available "$mode"; then
+            MODES+=("$mode")
+        fi
+    done
+fi
+
+printf '%-8s %12s %10s\n' mode first_req_ms rss_mb
+for mode in "${MODES[@]}"; do
+    available "$mode" || { echo "No artifacts for $mode, see the top of this script" >&2; exit 1; }
+    results=()
+    for ((run = 0; run < RUNS; run++)); do
+        results+=("$(measure "$mode")")
+    done
+    millis=$(printf '%s\n' "${results[@]}" | cut -d' ' -f1 | median)
+    rss=$(printf '%s\n' "${results[@]}" | cut -d' ' -f2 | median)
+    printf '%-8s %12s %10s\n' "$mode" "$millis" "$(( ${rss%.*} / 1024 ))"
+done
@@ -1,7 +1,8 @@
 CREATE TABLE users (
                        user_id SERIAL PRIMARY KEY,
                        email VARCHAR(255) UNIQUE NOT NULL,
-                       password VARCHAR(255) NOT NULL
+                       password VARCHAR(255) NOT NULL,
+                       deadlines_version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE deadlines (
@@ -11,6 +12,16 @@ CREATE TABLE deadlines (
                            deadline_description TEXT,
                            deadline TIMESTAMP NOT NULL,
                            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                           external_uid VARCHAR(255),
+                           reminded_at TIMESTAMP,
+                           claimed_by VARCHAR(100),
+                           lease_until TIMESTAMP,
+                           recurrence VARCHAR(255),
+                           recurrence_end TIMESTAMP,
+                           next_occurrence TIMESTAMP,
+                           change_seq BIGINT NOT NULL DEFAULT 0,
+                           updated_at TIMESTAMP,
+                           deleted BOOLEAN NOT NULL DEFAULT FALSE,
 
                            CONSTRAINT fk_deadlines_user
                                FOREIGN KEY (user_id)
@@ -18,4 +29,28 @@ CREATE TABLE deadlines (
                                    ON DELETE CASCADE
 );
 
-CREATE INDEX idx_deadlines_user_id ON deadlines(user_id);
\ No newline at end of file
+-- Hibernate takes deadline ids in blocks of 50 (pooled optimizer), see DeadlineEntity
+ALTER SEQUENCE deadlines_deadline_id_seq INCREMENT BY 50;
+
+CREATE INDEX idx_deadlines_user_id ON deadlines(user_id);
+CREATE INDEX idx_deadlines_user_id_deadline ON deadlines(user_id, deadline, deadline_id);
+CREATE INDEX idx_deadlines_deadline ON deadlines(deadline);
+CREATE UNIQUE INDEX idx_deadlines_user_id_external_uid ON deadlines(user_id, external_uid);
+CREATE INDEX idx_deadlines_unreminded ON deadlines(deadline) WHERE reminded_at IS NULL;
+CREATE INDEX idx_deadlines_user_id_change_seq ON deadlines(user_id, change_seq, deadline_id);
+CREATE INDEX idx_deadlines_deleted_updated_at ON deadlines(deleted, updated_at);
+CREATE INDEX idx_deadlines_next_occurrence ON deadlines(next_occurrence);
+-- Wheel-mode window loads read every live series; this keeps them off the one-off rows
+CREATE INDEX idx_deadlines_recurring ON deadlines(deadline) WHERE recurrence IS NOT NULL;
+
+CREATE TABLE notification_dead_letters (
+                           dead_letter_id BIGSERIAL PRIMARY KEY,
+                           channel VARCHAR(50) NOT NULL,
+                           user_id INT,
+                           deadline_id INT,
+                           deadline_name VARCHAR(200),
+                           deadline TIMESTAMP,
+                           attempts INT NOT NULL,
+                           error TEXT,
+                           failed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.elgupo.deathlineserver;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Application context and generated data shared by the JMH benchmarks.
+ * Data is generated from a fixed seed, so runs of the same size can be compared.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+    // Deadlines are spread evenly over this much time on both sides of "now"
+    public static final Duration SPREAD = Duration.ofDays(365);
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Starts the application without a web server on its own in-memory H2 database.
+     */
+    public static ConfigurableApplicationContext startContext(String database) {
+        return new SpringApplicationBuilder(DeathLineServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.docker.compose.enabled=false",
+                        "logging.level.root=WARN",
+                        // Keep background reminder polling out of the measurements
+                        "deadlines.reminders.load-interval=1h",
+                        "deadlines.reminders.tick=1h",
+                        // Minimal bcrypt cost, PasswordHasherBenchmark measures the real ones
+                        "auth.password.bcrypt-strength=4")
+                .run();
+    }
+
+    /**
+     * Inserts {@code rows} deadlines spread over {@code users} users and returns the generated deadline times.
+     */
+    public static List<Instant> insertDeadlines(JdbcTemplate jdbcTemplate, int users, int rows, Instant now) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        long spreadMillis = SPREAD.toMillis();
+        List<Instant> deadlines = new ArrayList<>(rows);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        Timestamp createdAt = Timestamp.from(now);
+        for (int i = 0; i < rows; i++) {
+            Instant deadline = now.plusMillis(random.nextLong(-spreadMillis, spreadMillis));
+            deadlines.add(deadline);
+            batch.add(new Object[]{(long) (i % users) + 1, "Deadline " + i, "Description " + i, Timestamp.from(deadline), createdAt, createdAt});
+            if (batch.size() == INSERT_BATCH_SIZE || i == rows - 1) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO deadlines (deadline_id, user_id, deadline_name, deadline_description, deadline, created_at, "
+                                + "updated_at, change_seq, deleted) "
+                                + "VALUES (NEXT VALUE FOR deadlines_deadline_id_seq, ?, ?, ?, ?, ?, ?, 1, FALSE)",
+                        batch);
+                batch.clear();
+            }
+        }
+        return deadlines;
+    }
+
+    /**
+     * Deadline DTOs as returned by the API, without touching the database.
+     */
+    public static List<DeadlineDto> deadlineDtos(int size, Instant now) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<DeadlineDto> deadlines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            deadlines.add(new DeadlineDto((long) i + 1, "Deadline " + i, "Description of deadline " + i,
+                    now.plusMillis(random.nextLong(SPREAD.toMillis()))));
+        }
+        return deadlines;
+    }
+}
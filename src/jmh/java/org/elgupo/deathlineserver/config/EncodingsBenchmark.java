@@ -0,0 +1,90 @@
+package org.elgupo.deathlineserver.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoding a {@code GET /deadlines} list of {@code rows} deadlines in each format {@link EncodingsConfig} offers,
+ * as is and gzipped the way Tomcat compresses responses. Payload sizes are reported as the secondary
+ * {@code bytes} result of each benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EncodingsBenchmark {
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    @Param({"json", "epoch-millis-json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private List<DeadlineDto> deadlines;
+
+    // Set rather than added up, so that the single benchmark thread reports the size of one payload
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper mapper = switch (format) {
+            case "json" -> json;
+            case "epoch-millis-json" -> EncodingsConfig.epochMillis(json.copy());
+            case "cbor" -> EncodingsConfig.epochMillis(json.copyWith(new CBORFactory()));
+            case "smile" -> EncodingsConfig.epochMillis(json.copyWith(new SmileFactory()));
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, DeadlineDto.class));
+        deadlines = BenchmarkData.deadlineDtos(rows, Instant.now());
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) throws IOException {
+        byte[] payload = writer.writeValueAsBytes(deadlines);
+        size.bytes = payload.length;
+        return payload;
+    }
+
+    @Benchmark
+    public byte[] encodeGzipped(PayloadSize size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, deadlines);
+        }
+        byte[] payload = bytes.toByteArray();
+        size.bytes = payload.length;
+        return payload;
+    }
+}
@@ -0,0 +1,66 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the {@code GET /deadlines} response body, with the same
+ * {@link ObjectMapper} defaults Spring Boot uses for the HTTP message converters, against {@link DeadlinesJsonWriter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeadlinesSerializationBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private ObjectWriter writer;
+    private List<DeadlineDto> deadlines;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, DeadlineDto.class));
+        deadlines = BenchmarkData.deadlineDtos(rows, Instant.now());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(deadlines);
+    }
+
+    // What DeadlinesJsonHttpMessageConverter writes instead, byte for byte the same
+    @Benchmark
+    public byte[] serializeHandTuned() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+        DeadlinesJsonWriter.write(deadlines, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,114 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The same reads through {@link DeadlinesRepository} (JPA) and {@link DeadlineReadRepository} (JDBC), against H2
+ * with {@code rows} deadlines over {@code users} users, so every user has exactly {@code rows / users} of them.
+ * {@code nextMonthInMemory} is the baseline of the range queries: all rows of the user, filtered in Java.
+ * Run with {@code -PjmhProfilers=gc} and divide {@code gc.alloc.rate.norm} by the rows per call for bytes per row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeadlineReadBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private DeadlinesRepository deadlinesRepository;
+    private DeadlineReadRepository readRepository;
+    private long next;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("deadline_read");
+        deadlinesRepository = context.getBean(DeadlinesRepository.class);
+        readRepository = context.getBean(DeadlineReadRepository.class);
+
+        Instant now = Instant.now();
+        BenchmarkData.insertDeadlines(context.getBean(JdbcTemplate.class), users, rows, now);
+        from = now;
+        to = now.plus(Duration.ofDays(30));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DeadlineDto> allJpa() {
+        return deadlinesRepository.findByUserIdOrderByDeadlineAsc(nextUser());
+    }
+
+    @Benchmark
+    public List<DeadlineDto> allJdbc() {
+        return readRepository.findByUserId(nextUser());
+    }
+
+    @Benchmark
+    public List<DeadlineDto> nextMonthInMemory() {
+        return deadlinesRepository.findByUserId(nextUser()).stream()
+                .filter(deadline -> deadline.getDeadline().isAfter(from) && deadline.getDeadline().isBefore(to))
+                .toList();
+    }
+
+    @Benchmark
+    public List<DeadlineDto> nextMonthJpa() {
+        return deadlinesRepository.findByUserIdAndDeadlineAfterAndDeadlineBeforeOrderByDeadlineAsc(nextUser(), from, to);
+    }
+
+    @Benchmark
+    public List<DeadlineDto> nextMonthJdbc() {
+        return readRepository.findByUserIdBetween(nextUser(), from, to);
+    }
+
+    @Benchmark
+    public List<DeadlineDto> firstPageJpa() {
+        return deadlinesRepository.findFirstPage(nextUser(), Limit.of(PAGE_SIZE + 1));
+    }
+
+    @Benchmark
+    public List<DeadlineDto> firstPageJdbc() {
+        return readRepository.findPageByUserId(nextUser(), null, null, null, PAGE_SIZE + 1);
+    }
+
+    private Long nextUser() {
+        next = next + 1 == users ? 0 : next + 1;
+        return next + 1;
+    }
+}
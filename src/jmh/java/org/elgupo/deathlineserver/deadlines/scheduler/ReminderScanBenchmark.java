@@ -0,0 +1,86 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineClaimsRepository;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The database scans behind both reminder modes, over {@code rows} deadlines spread across two years:
+ * the window load of {@link DeadlineCheckerScheduler} and a claim batch of {@link DeadlineClaimScheduler}.
+ * Claims are rolled back, so every invocation sees the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReminderScanBenchmark {
+
+    private static final int CLAIM_BATCH_SIZE = 500;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"10", "1440"})
+    public int windowMinutes;
+
+    private ConfigurableApplicationContext context;
+    private DeadlinesRepository deadlinesRepository;
+    private DeadlineClaimsRepository claimsRepository;
+    private TransactionTemplate transactionTemplate;
+    private Instant now;
+    private Duration window;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("reminder_scan");
+        deadlinesRepository = context.getBean(DeadlinesRepository.class);
+        claimsRepository = context.getBean(DeadlineClaimsRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        now = Instant.now();
+        window = Duration.ofMinutes(windowMinutes);
+        BenchmarkData.insertDeadlines(context.getBean(JdbcTemplate.class), 1000, rows, now);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DeadlineEntity> loadWindow() {
+        return deadlinesRepository.findByDeadlineGreaterThanEqualAndDeadlineLessThan(now, now.plus(window));
+    }
+
+    @Benchmark
+    public List<DeadlineEntity> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return claimsRepository.claimDue("benchmark", now, now.plus(window), now.plus(Duration.ofMinutes(1)), CLAIM_BATCH_SIZE);
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules 1M reminders spread over one hour of one-second ticks into a fresh {@link TimingWheel}, and
+ * expires them all. Times are per entry. With {@code -PjmhProfilers=gc}, {@code gc.alloc.rate.norm} of
+ * {@code schedule} is the memory allocated per entry: what the wheel retains for it, plus the tables the
+ * index outgrew on the way.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimingWheelBenchmark {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int SPREAD_TICKS = 3_600;
+    private static final long START = 1_000_000L;
+
+    private long[] ticks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        ticks = new long[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            ticks[i] = START + 1 + random.nextInt(SPREAD_TICKS);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int schedule() {
+        return filledWheel().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void scheduleAndExpire(Blackhole blackhole) {
+        TimingWheel wheel = filledWheel();
+        for (long tick = START + 1; tick <= START + SPREAD_TICKS; tick++) {
+            wheel.advanceTo(tick, blackhole::consume);
+        }
+    }
+
+    private TimingWheel filledWheel() {
+        TimingWheel wheel = new TimingWheel(4, 6, START);
+        for (int id = 0; id < ENTRIES; id++) {
+            wheel.schedule(id, ticks[id]);
+        }
+        return wheel;
+    }
+}
@@ -0,0 +1,82 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.TooManyDeadlinesException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateResultDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second inserted by {@link DeadlinesService#createDeadlinesForUser} against
+ * {@link DeadlinesService#createDeadlineForUser} called once per deadline, {@value #BATCH} deadlines at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeadlinesBulkCreateBenchmark {
+
+    private static final int BATCH = 500;
+
+    private ConfigurableApplicationContext context;
+    private DeadlinesService deadlinesService;
+    private JdbcTemplate jdbcTemplate;
+    private List<DeadlineDto> deadlines;
+    private long userId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("deadlines_bulk_create");
+        deadlinesService = context.getBean(DeadlinesService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        deadlines = BenchmarkData.deadlineDtos(BATCH, Instant.now());
+    }
+
+    // Keeps the table small so that both paths insert into the same state
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM deadlines");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BulkCreateResultDto bulk() throws TooManyDeadlinesException {
+        return deadlinesService.createDeadlinesForUser(++userId, deadlines);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long oneByOne() {
+        long lastId = 0;
+        userId++;
+        for (DeadlineDto deadline : deadlines) {
+            lastId = deadlinesService.createDeadlineForUser(userId, deadline).getDeadlineId();
+        }
+        return lastId;
+    }
+}
@@ -0,0 +1,88 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.ImportResultDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeadlinesImporter#importIcs} of a generated calendar of {@code events} VEVENTs into an empty table.
+ * Run with {@code -prof gc} to see that allocation per event does not grow with the file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class DeadlinesImportBenchmark {
+
+    private static final DateTimeFormatter ICS_UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    @Param({"100000"})
+    public int events;
+
+    private ConfigurableApplicationContext context;
+    private DeadlinesImporter importer;
+    private JdbcTemplate jdbcTemplate;
+    private byte[] calendar;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkData.startContext("deadlines_import");
+        importer = context.getBean(DeadlinesImporter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        Instant now = Instant.now();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(events * 200);
+        out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < events; i++) {
+            Instant start = now.plusSeconds(random.nextLong(BenchmarkData.SPREAD.toSeconds()));
+            out.write(("BEGIN:VEVENT\r\nUID:event-" + i + "@benchmark\r\nSUMMARY:Event " + i
+                    + "\r\nDESCRIPTION:Description of event " + i + "\r\nDTSTART:" + ICS_UTC.format(start)
+                    + "\r\nEND:VEVENT\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+        out.write("END:VCALENDAR\r\n".getBytes(StandardCharsets.UTF_8));
+        calendar = out.toByteArray();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clear() {
+        jdbcTemplate.update("DELETE FROM deadlines");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportResultDto importCalendar() throws IOException, InvalidCalendarException {
+        return importer.importIcs(1L, new ByteArrayInputStream(calendar));
+    }
+}
@@ -0,0 +1,118 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DeadlinesService#getDeadlinesForUser} against H2 with {@code rows} deadlines over {@code users} users.
+ * Every invocation reads a different user, picked from a fixed-seed sequence.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeadlinesServiceBenchmark {
+
+    private static final int USER_SEQUENCE_LENGTH = 1024;
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private DeadlinesService deadlinesService;
+    private DeadlinesRepository deadlinesRepository;
+    private DeadlinesCache deadlinesCache;
+    private long[] userSequence;
+    private int next;
+    private Instant from;
+    private Instant to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.startContext("deadlines_service");
+        deadlinesService = context.getBean(DeadlinesService.class);
+        deadlinesRepository = context.getBean(DeadlinesRepository.class);
+        deadlinesCache = context.getBean(DeadlinesCache.class);
+
+        Instant now = Instant.now();
+        BenchmarkData.insertDeadlines(context.getBean(JdbcTemplate.class), users, rows, now);
+        from = now;
+        to = now.plus(Duration.ofDays(30));
+
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        userSequence = new long[USER_SEQUENCE_LENGTH];
+        for (int i = 0; i < userSequence.length; i++) {
+            userSequence[i] = random.nextLong(users) + 1;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DeadlineDto> allDeadlines() {
+        return deadlinesService.getDeadlinesForUser(nextUser(), null, null);
+    }
+
+    @Benchmark
+    public List<DeadlineDto> allDeadlinesUncached() {
+        Long userId = nextUser();
+        deadlinesCache.invalidate(userId);
+        return deadlinesService.getDeadlinesForUser(userId, null, null);
+    }
+
+    // What an unchanged poll costs with ETags, against allDeadlines for a changed one
+    @Benchmark
+    public long version() {
+        return deadlinesService.getDeadlinesVersion(nextUser());
+    }
+
+    @Benchmark
+    public List<DeadlineDto> nextMonth() {
+        return deadlinesService.getDeadlinesForUser(nextUser(), from, to);
+    }
+
+    @Benchmark
+    public List<DeadlineDto> nextMonthFromDatabase() {
+        return deadlinesRepository.findByUserIdAndDeadlineAfterAndDeadlineBeforeOrderByDeadlineAsc(nextUser(), from, to);
+    }
+
+    @Benchmark
+    public DeadlinesPage firstPage() {
+        return deadlinesService.getDeadlinesPageForUser(nextUser(), from, null, null, DeadlinesService.DEFAULT_PAGE_SIZE);
+    }
+
+    private Long nextUser() {
+        next = (next + 1) & (USER_SEQUENCE_LENGTH - 1);
+        return userSequence[next];
+    }
+}
@@ -0,0 +1,67 @@
+package org.elgupo.deathlineserver.users.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.users.RateLimitedException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuthRateLimiter#acquire} from all cores over {@code keys} distinct addresses and emails, with
+ * limits generous enough that nothing is rejected. Run with {@code -prof gc} to check it allocates nothing per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthRateLimiterBenchmark {
+
+    private static final int SEQUENCE_LENGTH = 4096;
+
+    @Param({"1000", "1000000"})
+    public int keys;
+
+    private AuthRateLimiter rateLimiter;
+    private String[] addresses;
+    private String[] emails;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new AuthRateLimiter(new SimpleMeterRegistry(), 65536, 1_000_000, 6e9, 1_000_000, 6e9);
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        addresses = new String[SEQUENCE_LENGTH];
+        emails = new String[SEQUENCE_LENGTH];
+        for (int i = 0; i < SEQUENCE_LENGTH; i++) {
+            int key = random.nextInt(keys);
+            addresses[i] = "10." + (key >>> 16 & 0xFF) + "." + (key >>> 8 & 0xFF) + "." + (key & 0xFF);
+            emails[i] = "user" + key + "@example.com";
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public void acquire(Cursor cursor) throws RateLimitedException {
+        int i = cursor.next = (cursor.next + 1) & (SEQUENCE_LENGTH - 1);
+        rateLimiter.acquire(addresses[i], emails[i]);
+    }
+}
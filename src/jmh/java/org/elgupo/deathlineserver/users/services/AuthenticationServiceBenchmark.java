@@ -0,0 +1,80 @@
+package org.elgupo.deathlineserver.users.services;
+
+import org.elgupo.deathlineserver.BenchmarkData;
+import org.elgupo.deathlineserver.users.AuthBusyException;
+import org.elgupo.deathlineserver.users.AuthException;
+import org.elgupo.deathlineserver.users.EmailTakenException;
+import org.elgupo.deathlineserver.users.models.AuthRequest;
+import org.elgupo.deathlineserver.users.models.AuthResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuthenticationService#login} against H2 with {@code users} registered users.
+ * Passwords are hashed with the minimal bcrypt cost; {@link PasswordHasherBenchmark} measures the real ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthenticationServiceBenchmark {
+
+    @Param({"1000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private AuthenticationService authenticationService;
+    private AuthRequest[] logins;
+    private AuthRequest unknownUser;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws AuthBusyException, EmailTakenException {
+        context = BenchmarkData.startContext("authentication_service");
+        authenticationService = context.getBean(AuthenticationService.class);
+
+        logins = new AuthRequest[users];
+        for (int i = 0; i < users; i++) {
+            logins[i] = AuthRequest.builder().email("user" + i + "@example.com").password("password" + i).build();
+            authenticationService.register(logins[i]);
+        }
+        unknownUser = AuthRequest.builder().email("nobody@example.com").password("password").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AuthResponse login() throws AuthException, AuthBusyException {
+        next = next + 1 == logins.length ? 0 : next + 1;
+        return authenticationService.login(logins[next]);
+    }
+
+    @Benchmark
+    public AuthException loginUnknownUser() throws AuthBusyException {
+        try {
+            authenticationService.login(unknownUser);
+            throw new IllegalStateException("Unknown user logged in");
+        } catch (AuthException e) {
+            return e;
+        }
+    }
+}
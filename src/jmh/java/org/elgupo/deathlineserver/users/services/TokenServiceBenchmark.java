@@ -0,0 +1,60 @@
+package org.elgupo.deathlineserver.users.services;
+
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication overhead: verifying a bearer token that is already in the
+ * verified-token cache, verifying one that is not (HMAC), and issuing a token on login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TokenServiceBenchmark {
+
+    private static final String KEY = "bench:" + Base64.getEncoder().encodeToString(new byte[32]);
+
+    private TokenService cached;
+    private TokenService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new TokenService(KEY, "bench", Duration.ofHours(1), 100_000);
+        uncached = new TokenService(KEY, "bench", Duration.ofHours(1), 0);
+        token = cached.issue(42L).token();
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public Optional<AuthenticatedUser> verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public TokenService.IssuedToken issue() {
+        return cached.issue(42L);
+    }
+}
@@ -0,0 +1,50 @@
+package org.elgupo.deathlineserver.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * With virtual threads every request gets its own thread, so nothing but the connection pool
+ * limits how many of them hit the database at once. Wraps the {@link DataSource} in a
+ * {@link ConcurrencyLimitingDataSource} sized to the pool ({@code deadlines.db.max-concurrency}
+ * overrides it), so excess requests wait in a fair queue and fail fast with a 503 instead of
+ * piling up on the pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class DataSourceConcurrencyLimiter implements BeanPostProcessor {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final int maxConcurrency;
+    private final Duration acquireTimeout;
+
+    public DataSourceConcurrencyLimiter(@Value("${deadlines.db.max-concurrency:0}") int maxConcurrency,
+                                        @Value("${deadlines.db.acquire-timeout:5s}") Duration acquireTimeout) {
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+            return bean;
+        }
+        int permits = maxConcurrency > 0 ? maxConcurrency : poolSize(dataSource);
+        log.info("Limiting {} to {} concurrent connections", beanName, permits);
+        return new ConcurrencyLimitingDataSource(dataSource, permits, acquireTimeout);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        return dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+    }
+}
@@ -0,0 +1,9 @@
+package org.elgupo.deathlineserver.config;
+
+import java.sql.SQLTransientConnectionException;
+
+public class DatabaseBusyException extends SQLTransientConnectionException {
+    public DatabaseBusyException() {
+        super("Database is busy");
+    }
+}
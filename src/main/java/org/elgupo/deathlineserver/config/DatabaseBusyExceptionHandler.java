@@ -0,0 +1,19 @@
+package org.elgupo.deathlineserver.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class DatabaseBusyExceptionHandler {
+    // Usually arrives wrapped by Spring's data access exceptions, handlers also match on causes
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<?> databaseBusyException(DatabaseBusyException exception) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(exception.getMessage());
+    }
+}
@@ -0,0 +1,52 @@
+package org.elgupo.deathlineserver.config;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.elgupo.deathlineserver.deadlines.controller.DeadlinesJsonHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Body encodings besides JSON, chosen by {@code Accept}: CBOR and Smile, and JSON under {@link #EPOCH_MILLIS_JSON}.
+ * All three write instants as epoch milliseconds; {@code application/json} and wildcards keep ISO-8601 JSON,
+ * which is written by {@link DeadlinesJsonHttpMessageConverter} for deadline lists.
+ */
+@Configuration
+public class EncodingsConfig implements WebMvcConfigurer {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType EPOCH_MILLIS_JSON = MediaType.parseMediaType("application/vnd.deathline.epoch-millis+json");
+
+    private final ObjectMapper objectMapper;
+
+    public EncodingsConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Spring adds its own CBOR and Smile converters when they are on the classpath, without spring.jackson.*
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        // Ahead of the JSON converter, which would otherwise take application/*+json and deadline lists
+        converters.add(0, new EpochMillisJsonHttpMessageConverter(epochMillis(objectMapper.copy())));
+        converters.add(0, new DeadlinesJsonHttpMessageConverter());
+        converters.add(new MappingJackson2CborHttpMessageConverter(epochMillis(objectMapper.copyWith(new CBORFactory()))));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(epochMillis(objectMapper.copyWith(new SmileFactory()))));
+    }
+
+    static ObjectMapper epochMillis(ObjectMapper mapper) {
+        return mapper.enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+}
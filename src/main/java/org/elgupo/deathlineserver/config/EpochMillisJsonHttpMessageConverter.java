@@ -0,0 +1,23 @@
+package org.elgupo.deathlineserver.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+/**
+ * JSON with epoch millisecond instants, written only for clients that name {@link EncodingsConfig#EPOCH_MILLIS_JSON}.
+ */
+class EpochMillisJsonHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    EpochMillisJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, EncodingsConfig.EPOCH_MILLIS_JSON);
+    }
+
+    // Not producible without a media type, so a wildcard Accept never selects it over application/json
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return mediaType != null && EncodingsConfig.EPOCH_MILLIS_JSON.equalsTypeAndSubtype(mediaType)
+                && super.canWrite(clazz, mediaType);
+    }
+}
@@ -0,0 +1,80 @@
+package org.elgupo.deathlineserver.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier (blocking inside {@code synchronized}
+ * or a native frame) for longer than {@code deadlines.virtual-threads.pinned-threshold}.
+ * Pinning is read from the {@code jdk.VirtualThreadPinned} JFR event; only pins with one of our
+ * frames on the stack are logged with that stack, the rest are just counted.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String OUR_PACKAGE = "org.elgupo.deathlineserver.";
+
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedInOurCode = new LongAdder();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${deadlines.virtual-threads.pinned-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    public long pinnedInOurCodeCount() {
+        return pinnedInOurCode.sum();
+    }
+
+    void onPinned(RecordedEvent event) {
+        pinned.increment();
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        StringBuilder stack = new StringBuilder();
+        boolean ours = false;
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            ours |= type.startsWith(OUR_PACKAGE);
+            stack.append("\n\tat ").append(type).append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+        }
+        if (ours) {
+            pinnedInOurCode.increment();
+            log.warn("Virtual thread {} pinned its carrier for {} ms{}",
+                    event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                    event.getDuration().toMillis(), stack);
+        }
+    }
+}
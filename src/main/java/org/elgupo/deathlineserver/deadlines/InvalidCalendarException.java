@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.deadlines;
+
+public class InvalidCalendarException extends Exception {
+    public InvalidCalendarException(String message) {
+        super("Bad calendar: " + message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.deadlines;
+
+public class InvalidCursorException extends Exception {
+    public InvalidCursorException() {
+        super("Bad cursor");
+    }
+}
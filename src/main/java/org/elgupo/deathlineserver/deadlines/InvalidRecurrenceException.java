@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.deadlines;
+
+public class InvalidRecurrenceException extends Exception {
+    public InvalidRecurrenceException(String message) {
+        super("Bad recurrence rule: " + message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.deadlines;
+
+public class SyncTokenExpiredException extends Exception {
+    public SyncTokenExpiredException() {
+        super("Sync token expired, sync again without a token");
+    }
+}
@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.deadlines;
+
+public class TooManyDeadlinesException extends Exception {
+    public TooManyDeadlinesException(int maxDeadlines) {
+        super("Too many deadlines, at most " + maxDeadlines + " per request");
+    }
+}
@@ -1,45 +1,224 @@
 package org.elgupo.deathlineserver.deadlines.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 
+import org.elgupo.deathlineserver.config.EncodingsConfig;
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+import org.elgupo.deathlineserver.deadlines.InvalidCursorException;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.SyncTokenExpiredException;
+import org.elgupo.deathlineserver.deadlines.TooManyDeadlinesException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateResultDto;
 import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeleteResultDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.ImportResultDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.SyncResultDto;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.services.DeadlineCursor;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesExporter;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesImporter;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesPage;
 import org.elgupo.deathlineserver.deadlines.services.DeadlinesService;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesSync;
+import org.elgupo.deathlineserver.deadlines.services.SyncToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class DeadlinesController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    public static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    // Clients may keep the list, but have to revalidate it with its ETag before using it
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @Autowired
     private final DeadlinesService deadlineService;
+    private final DeadlinesExporter deadlinesExporter;
+    private final DeadlinesImporter deadlinesImporter;
+    private final DeadlinesSync deadlinesSync;
 
-    public DeadlinesController(DeadlinesService deadlineService) {
+    public DeadlinesController(DeadlinesService deadlineService, DeadlinesExporter deadlinesExporter,
+                               DeadlinesImporter deadlinesImporter, DeadlinesSync deadlinesSync) {
         this.deadlineService = deadlineService;
+        this.deadlinesExporter = deadlinesExporter;
+        this.deadlinesImporter = deadlinesImporter;
+        this.deadlinesSync = deadlinesSync;
     }
 
     private DeadlineDto dtoFromEntity(DeadlineEntity deadline) {
         return new DeadlineDto(deadline.getDeadlineId(), deadline.getName(), deadline.getDescription(), deadline.getDeadline());
     }
+    /**
+     * Without {@code limit} and {@code cursor} the whole range is returned.
+     * Otherwise one page is returned and the cursor of the next one is sent in
+     * the {@value #NEXT_CURSOR_HEADER} header, which is absent on the last page.
+     * <p>
+     * The ETag is the version of the user's deadlines, and for open ranges also the day their recurring
+     * deadlines were expanded for: when it matches {@code If-None-Match} the answer is a 304 without
+     * reading the deadlines. The list is encoded by {@code Accept}
+     * (see {@link EncodingsConfig}), and each encoding has its own weak tag for the same version.
+     */
     @GetMapping("/deadlines/get_deadlines_for_user")
-    public List<DeadlineDto> getDeadlinesForUser(@RequestParam("userId") Long userId,
+    public ResponseEntity<List<DeadlineDto>> getDeadlinesForUser(@AuthenticationPrincipal AuthenticatedUser user,
                                               @RequestParam(required = false) Instant from,
-                                              @RequestParam(required = false) Instant to) {
-        return deadlineService.getDeadlinesForUser(userId, from, to);
+                                              @RequestParam(required = false) Instant to,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+            throws InvalidCursorException {
+        // Read before the deadlines, so that a concurrent write can only make the ETag older than the body
+        String version = String.valueOf(deadlineService.getDeadlinesVersion(user.userId()));
+        String window = deadlineService.getExpansionWindow(from, to);
+        if (window != null) {
+            version = version + "." + window;
+        }
+        String matched = ifNoneMatch == null ? null : matchingEtag(ifNoneMatch, version);
+        if (matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(matched).cacheControl(REVALIDATE)
+                    .varyBy(HttpHeaders.ACCEPT).build();
+        }
+        // Weak, because Tomcat does not compress responses with a strong ETag
+        String etag = "W/\"" + version + "\"";
+
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT)
+                    .body(deadlineService.getDeadlinesForUser(user.userId(), from, to));
+        }
+
+        DeadlineCursor after = cursor == null ? null : DeadlineCursor.decode(cursor);
+        DeadlinesPage page = deadlineService.getDeadlinesPageForUser(user.userId(), from, to, after,
+                limit == null ? DeadlinesService.DEFAULT_PAGE_SIZE : limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT);
+        if (page.next() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.next().encode());
+        }
+        return response.body(page.deadlines());
+    }
+
+    // If-None-Match uses weak comparison and may list several tags; the tags of all encodings start with the version
+    private static String matchingEtag(String ifNoneMatch, String version) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*")) {
+                return "W/\"" + version + "\"";
+            }
+            if (tag.equals("\"" + version + "\"") || tag.startsWith("\"" + version + "-")) {
+                return "W/" + tag;
+            }
+        }
+        return null;
     }
 
+    /**
+     * Returns the deadlines created or deleted since {@code token} (everything without one), and the token
+     * of the next sync. A 410 means the token expired and the client has to sync again from scratch.
+     */
+    @GetMapping("/deadlines/sync_deadlines_for_user")
+    public SyncResultDto syncDeadlinesForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                              @RequestParam(required = false) String token,
+                                              @RequestParam(required = false) Integer limit)
+            throws InvalidCursorException, SyncTokenExpiredException {
+        SyncToken since = token == null ? null : SyncToken.decode(token);
+        return deadlinesSync.getChangesForUser(user.userId(), since, limit == null ? DeadlinesService.MAX_PAGE_SIZE : limit);
+    }
+
+    /**
+     * With {@code recurrence}, an RRULE such as {@code FREQ=WEEKLY;BYDAY=MO}, the deadline repeats and is its first
+     * occurrence. Lists show each occurrence with the id of the deadline, and deleting that id deletes them all.
+     */
     @PostMapping("/deadlines/create_deadline_for_user")
-    public DeadlineDto createDeadlineForUser(@RequestParam("userId") Long userId,
-                                      @RequestParam("deadline") DeadlineDto deadline) {
-        return dtoFromEntity(deadlineService.createDeadlineForUser(userId, deadline));
+    public DeadlineDto createDeadlineForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                      @RequestParam("deadline") DeadlineDto deadline,
+                                      @RequestParam(required = false) String recurrence) throws InvalidRecurrenceException {
+        return dtoFromEntity(deadlineService.createDeadlineForUser(user.userId(), deadline, recurrence));
+    }
+
+    /**
+     * Creates up to {@value DeadlinesService#MAX_BULK_SIZE} deadlines at once. Invalid items are
+     * reported by their index and do not stop the others from being created.
+     */
+    @PostMapping("/deadlines/create_deadlines_for_user")
+    public BulkCreateResultDto createDeadlinesForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                                      @RequestBody List<DeadlineDto> deadlines) throws TooManyDeadlinesException {
+        return deadlineService.createDeadlinesForUser(user.userId(), deadlines);
     }
 
     @PostMapping("/deadlines/delete_deadline_for_user")
-    public void deleteDeadlineForUser(@RequestParam("deadlineId") Long deadlineId) {
-        deadlineService.deleteDeadlineForUser(deadlineId);
+    public void deleteDeadlineForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                      @RequestParam("deadlineId") Long deadlineId) {
+        deadlineService.deleteDeadlineForUser(user.userId(), deadlineId);
+    }
+
+    /**
+     * Deletes up to {@value DeadlinesService#MAX_BULK_DELETE_SIZE} deadlines by id in one statement.
+     * Ids of other users' deadlines are ignored.
+     */
+    @PostMapping("/deadlines/delete_deadlines_for_user")
+    public DeleteResultDto deleteDeadlinesForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                                  @RequestBody List<Long> deadlineIds) throws TooManyDeadlinesException {
+        return new DeleteResultDto(deadlineService.deleteDeadlinesForUser(user.userId(), deadlineIds));
+    }
+
+    /**
+     * Deletes every deadline before {@code to}, or between {@code from} and {@code to} (both exclusive).
+     */
+    @PostMapping("/deadlines/delete_deadlines_in_range_for_user")
+    public DeleteResultDto deleteDeadlinesInRangeForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                                         @RequestParam(required = false) Instant from,
+                                                         @RequestParam Instant to) {
+        return new DeleteResultDto(deadlineService.deleteDeadlinesInRangeForUser(user.userId(), from, to));
+    }
+
+    /**
+     * Streams all deadlines of the user as {@code ndjson} (default) or {@code csv}, written while they are read.
+     */
+    @GetMapping("/deadlines/export_deadlines_for_user")
+    public ResponseEntity<StreamingResponseBody> exportDeadlinesForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        Long userId = user.userId();
+        return switch (format.toLowerCase(Locale.ROOT)) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"deadlines.ndjson\"")
+                    .body(out -> deadlinesExporter.writeNdjson(userId, out));
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"deadlines.csv\"")
+                    .body(out -> deadlinesExporter.writeCsv(userId, out));
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+
+    /**
+     * Imports the events of an iCalendar file sent as the request body. Events already imported
+     * (same UID) are skipped, so an interrupted import can be sent again.
+     */
+    @PostMapping("/deadlines/import_ics_for_user")
+    public ImportResultDto importIcsForUser(@AuthenticationPrincipal AuthenticatedUser user,
+                                            InputStream calendar) throws IOException, InvalidCalendarException {
+        return deadlinesImporter.importIcs(user.userId(), calendar);
     }
 }
@@ -0,0 +1,49 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+import org.elgupo.deathlineserver.deadlines.InvalidCursorException;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.SyncTokenExpiredException;
+import org.elgupo.deathlineserver.deadlines.TooManyDeadlinesException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class DeadlinesExceptionHandler {
+    @ExceptionHandler(InvalidCalendarException.class)
+    public ResponseEntity<?> badCalendarException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> badCursorException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(InvalidRecurrenceException.class)
+    public ResponseEntity<?> badRecurrenceException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(SyncTokenExpiredException.class)
+    public ResponseEntity<?> syncTokenExpiredException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(TooManyDeadlinesException.class)
+    public ResponseEntity<?> tooManyDeadlinesException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.PAYLOAD_TOO_LARGE)
+                .body(exception.getMessage());
+    }
+}
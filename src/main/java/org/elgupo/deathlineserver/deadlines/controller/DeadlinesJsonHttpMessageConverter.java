@@ -0,0 +1,71 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+/**
+ * Writes {@code List<DeadlineDto>} response bodies as {@code application/json} with {@link DeadlinesJsonWriter}
+ * instead of Jackson. Everything else, including reading such lists, is left to the Jackson converter.
+ */
+public class DeadlinesJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<DeadlineDto>> {
+
+    public DeadlinesJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return false;
+    }
+
+    // Only the declared type tells a list of deadlines from any other list
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return isDeadlineList(type) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<DeadlineDto> deadlines, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        DeadlinesJsonWriter.write(deadlines, outputMessage.getBody());
+    }
+
+    // Never chosen for reading, as canRead is false; a direct call is answered like any unreadable body
+    @Override
+    public List<DeadlineDto> read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw notReadable(inputMessage);
+    }
+
+    @Override
+    protected List<DeadlineDto> readInternal(Class<? extends List<DeadlineDto>> clazz, HttpInputMessage inputMessage)
+            throws HttpMessageNotReadableException {
+        throw notReadable(inputMessage);
+    }
+
+    private static HttpMessageNotReadableException notReadable(HttpInputMessage inputMessage) {
+        return new HttpMessageNotReadableException(
+                "Deadline lists are read by the Jackson converter, this one only writes them", inputMessage);
+    }
+
+    private static boolean isDeadlineList(@Nullable Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() == List.class
+                && parameterized.getActualTypeArguments()[0] == DeadlineDto.class;
+    }
+}
@@ -0,0 +1,240 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * Writes deadline lists as JSON straight into a byte buffer that is flushed to the stream when full,
+ * with field names encoded once and instants formatted by hand. The output is byte for byte what the
+ * application's ObjectMapper writes for a {@code List<DeadlineDto>}, which DeadlinesJsonWriterTest checks.
+ */
+final class DeadlinesJsonWriter {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // Room for one escaped char or number, written without checking the buffer byte by byte
+    private static final int MAX_TOKEN_SIZE = 32;
+
+    private static final byte[] DEADLINE_ID = ascii("{\"deadline_id\":");
+    private static final byte[] DEADLINE_NAME = ascii(",\"deadline_name\":");
+    private static final byte[] DEADLINE_DESCRIPTION = ascii(",\"deadline_description\":");
+    private static final byte[] DEADLINE = ascii(",\"deadline\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    // Jackson's escapes for ASCII: the short forms, \\u00XX for other control characters, nothing else
+    private static final byte[][] ESCAPES = new byte[128][];
+
+    // Instants in years 1970 to 9999 are formatted by hand, others by Instant.toString
+    private static final long MAX_FAST_SECONDS = 253402300799L;
+    private static final int SECONDS_PER_DAY = 86400;
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = new byte[]{'\\', 'u', '0', '0', HEX[c >> 4], HEX[c & 0xF]};
+        }
+        ESCAPES['\b'] = ascii("\\b");
+        ESCAPES['\t'] = ascii("\\t");
+        ESCAPES['\n'] = ascii("\\n");
+        ESCAPES['\f'] = ascii("\\f");
+        ESCAPES['\r'] = ascii("\\r");
+        ESCAPES['"'] = ascii("\\\"");
+        ESCAPES['\\'] = ascii("\\\\");
+    }
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    private DeadlinesJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    static void write(List<DeadlineDto> deadlines, OutputStream out) throws IOException {
+        DeadlinesJsonWriter writer = new DeadlinesJsonWriter(out);
+        writer.writeList(deadlines);
+        writer.flush();
+    }
+
+    private void writeList(List<DeadlineDto> deadlines) throws IOException {
+        writeByte('[');
+        for (int i = 0; i < deadlines.size(); i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeDeadline(deadlines.get(i));
+        }
+        writeByte(']');
+    }
+
+    private void writeDeadline(DeadlineDto deadline) throws IOException {
+        writeBytes(DEADLINE_ID);
+        if (deadline.getDeadlineId() == null) {
+            writeBytes(NULL);
+        } else {
+            writeLong(deadline.getDeadlineId());
+        }
+        writeBytes(DEADLINE_NAME);
+        writeString(deadline.getName());
+        writeBytes(DEADLINE_DESCRIPTION);
+        writeString(deadline.getDescription());
+        writeBytes(DEADLINE);
+        writeInstant(deadline.getDeadline());
+        writeByte('}');
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            ensureCapacity(MAX_TOKEN_SIZE);
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                byte[] escape = ESCAPES[c];
+                if (escape == null) {
+                    buffer[position++] = (byte) c;
+                } else {
+                    System.arraycopy(escape, 0, buffer, position, escape.length);
+                    position += escape.length;
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Jackson escapes each half of a surrogate pair instead of combining them
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = HEX[c >> 12];
+                buffer[position++] = HEX[(c >> 8) & 0xF];
+                buffer[position++] = HEX[(c >> 4) & 0xF];
+                buffer[position++] = HEX[c & 0xF];
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeInstant(Instant instant) throws IOException {
+        if (instant == null) {
+            writeBytes(NULL);
+            return;
+        }
+        long seconds = instant.getEpochSecond();
+        if (seconds < 0 || seconds > MAX_FAST_SECONDS) {
+            writeByte('"');
+            writeBytes(ascii(instant.toString()));
+            writeByte('"');
+            return;
+        }
+
+        ensureCapacity(MAX_TOKEN_SIZE);
+        buffer[position++] = '"';
+        writeDate(seconds / SECONDS_PER_DAY);
+        int secondOfDay = (int) (seconds % SECONDS_PER_DAY);
+        buffer[position++] = 'T';
+        writeDigits(secondOfDay / 3600, 2);
+        buffer[position++] = ':';
+        writeDigits(secondOfDay / 60 % 60, 2);
+        buffer[position++] = ':';
+        writeDigits(secondOfDay % 60, 2);
+
+        // As DateTimeFormatter.ISO_INSTANT: as many fraction digits as needed, in groups of three
+        int nanos = instant.getNano();
+        if (nanos != 0) {
+            buffer[position++] = '.';
+            if (nanos % 1_000_000 == 0) {
+                writeDigits(nanos / 1_000_000, 3);
+            } else if (nanos % 1000 == 0) {
+                writeDigits(nanos / 1000, 6);
+            } else {
+                writeDigits(nanos, 9);
+            }
+        }
+        buffer[position++] = 'Z';
+        buffer[position++] = '"';
+    }
+
+    // Civil date of a day since the epoch (days >= 0), from Howard Hinnant's "civil_from_days"
+    private void writeDate(long epochDay) {
+        long z = epochDay + 719468;
+        long era = z / 146097;
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        writeDigits(year, 4);
+        buffer[position++] = '-';
+        writeDigits(month, 2);
+        buffer[position++] = '-';
+        writeDigits(day, 2);
+    }
+
+    private void writeDigits(int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += width;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(ascii(Long.toString(value)));
+            return;
+        }
+        ensureCapacity(MAX_TOKEN_SIZE);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+    }
+
+    private void writeByte(char c) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (position + length > buffer.length) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,48 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import org.elgupo.deathlineserver.config.EncodingsConfig;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Gives every encoding of a response its own ETag: the version tag set by {@link DeadlinesController}
+ * gets a suffix naming the encoding that was negotiated, like {@code W/"8-cbor"}. Plain JSON keeps the bare version.
+ */
+@ControllerAdvice(assignableTypes = DeadlinesController.class)
+public class RepresentationETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String etag = response.getHeaders().getETag();
+        String suffix = etagSuffix(selectedContentType);
+        if (etag != null && suffix != null) {
+            response.getHeaders().setETag(etag.substring(0, etag.length() - 1) + "-" + suffix + "\"");
+        }
+        return body;
+    }
+
+    private static String etagSuffix(MediaType contentType) {
+        if (EncodingsConfig.EPOCH_MILLIS_JSON.equalsTypeAndSubtype(contentType)) {
+            return "ms";
+        }
+        if (MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(contentType)) {
+            return "cbor";
+        }
+        if (EncodingsConfig.SMILE.equalsTypeAndSubtype(contentType)) {
+            return "smile";
+        }
+        return null;
+    }
+}
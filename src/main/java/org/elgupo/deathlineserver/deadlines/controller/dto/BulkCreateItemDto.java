@@ -0,0 +1,21 @@
+package org.elgupo.deathlineserver.deadlines.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Outcome of one item of a bulk create: the created deadline, or why it was rejected.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCreateItemDto {
+    @JsonProperty("index")
+    private int index;
+    @JsonProperty("deadline")
+    private DeadlineDto deadline;
+    @JsonProperty("error")
+    private String error;
+}
@@ -0,0 +1,19 @@
+package org.elgupo.deathlineserver.deadlines.controller.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkCreateResultDto {
+    @JsonProperty("created")
+    private int created;
+    @JsonProperty("failed")
+    private int failed;
+    // In request order
+    @JsonProperty("items")
+    private List<BulkCreateItemDto> items;
+}
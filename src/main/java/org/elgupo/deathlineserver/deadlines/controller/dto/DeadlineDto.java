@@ -5,8 +5,10 @@ import java.time.Instant;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class DeadlineDto {
     @JsonProperty("deadline_id")
@@ -0,0 +1,12 @@
+package org.elgupo.deathlineserver.deadlines.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DeleteResultDto {
+    @JsonProperty("deleted")
+    private int deleted;
+}
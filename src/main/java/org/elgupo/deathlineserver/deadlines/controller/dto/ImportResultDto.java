@@ -0,0 +1,21 @@
+package org.elgupo.deathlineserver.deadlines.controller.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportResultDto {
+    @JsonProperty("imported")
+    private long imported;
+    // Events whose UID was already imported, earlier or in the same file
+    @JsonProperty("duplicates")
+    private long duplicates;
+    // Events without a summary or a start time
+    @JsonProperty("invalid")
+    private long invalid;
+    // Imported events whose summary was cut to the 200 characters of deadline_name
+    @JsonProperty("truncated")
+    private long truncated;
+}
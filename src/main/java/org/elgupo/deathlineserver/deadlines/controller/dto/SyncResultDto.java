@@ -0,0 +1,24 @@
+package org.elgupo.deathlineserver.deadlines.controller.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SyncResultDto {
+    // Created or updated since the token, in change order
+    @JsonProperty("changed")
+    private List<DeadlineDto> changed;
+    // Ids of the deadlines deleted since the token
+    @JsonProperty("deleted")
+    private List<Long> deleted;
+    // Sent back as 'token' on the next sync
+    @JsonProperty("next_token")
+    private String nextToken;
+    // More changes are waiting, sync again right away with next_token
+    @JsonProperty("has_more")
+    private boolean hasMore;
+}
@@ -0,0 +1,158 @@
+package org.elgupo.deathlineserver.deadlines.recurrence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expands recurring deadlines into their occurrences, only ever within a bounded window.
+ * <p>
+ * Occurrences are cached per series in fixed 28-day buckets of time, so the overlapping windows of list
+ * requests and of the reminder schedulers share the work; a bucket holds at most a few dozen instants.
+ * A window yields at most {@code deadlines.recurrence.max-occurrences} occurrences per series, and callers
+ * without a bound of their own stop {@code deadlines.recurrence.horizon} after the start of the day.
+ */
+@Slf4j
+@Component
+public class RecurrenceExpander implements MeterBinder {
+
+    private static final long BUCKET_MILLIS = Duration.ofDays(28).toMillis();
+    // Wider windows are walked straight from the rule, so that one wide request cannot flush the cache
+    private static final int MAX_CACHED_BUCKETS = 64;
+    private static final Instant[] NONE = new Instant[0];
+
+    private record Bucket(String rule, Instant start, long index) {
+    }
+
+    private final Cache<Bucket, Instant[]> cache;
+    private final Duration horizon;
+    private final int maxOccurrences;
+
+    public RecurrenceExpander(@Value("${deadlines.recurrence.cache-size:10000}") long cacheSize,
+                              @Value("${deadlines.recurrence.horizon:90d}") Duration horizon,
+                              @Value("${deadlines.recurrence.max-occurrences:1000}") int maxOccurrences) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        this.horizon = horizon;
+        this.maxOccurrences = maxOccurrences;
+    }
+
+    public Duration horizon() {
+        return horizon;
+    }
+
+    public int maxOccurrences() {
+        return maxOccurrences;
+    }
+
+    /**
+     * The first {@code limit} occurrences of a series after its first one ({@code start}) that are strictly
+     * between {@code from} and {@code to}, in order; {@code end} is the series' {@link RecurrenceRule#end}.
+     * Without {@code from} the series is expanded from its start. Lists are capped at {@link #maxOccurrences()}.
+     */
+    public List<Instant> occurrences(String rule, Instant start, Instant end, Instant from, Instant to, int limit) {
+        Instant lower = from == null || from.isBefore(start) ? start : from;
+        Instant upper = end == null || to.isBefore(end) ? to : end.plusNanos(1);
+        List<Instant> occurrences = new ArrayList<>();
+        if (!lower.isBefore(upper)) {
+            return occurrences;
+        }
+        long first = bucket(lower);
+        long last = bucket(upper);
+        if (last - first >= MAX_CACHED_BUCKETS) {
+            RecurrenceRule parsed = parse(rule);
+            Iterator<Instant> walked = parsed == null ? List.<Instant>of().iterator() : parsed.occurrencesAfter(start, lower);
+            while (walked.hasNext() && occurrences.size() < limit) {
+                Instant occurrence = walked.next();
+                if (!occurrence.isBefore(upper)) {
+                    break;
+                }
+                occurrences.add(occurrence);
+            }
+            return occurrences;
+        }
+        for (long index = first; index <= last; index++) {
+            for (Instant occurrence : cache.get(new Bucket(rule, start, index), this::expand)) {
+                if (!occurrence.isBefore(upper)) {
+                    return occurrences;
+                }
+                if (occurrence.isAfter(lower)) {
+                    occurrences.add(occurrence);
+                    if (occurrences.size() == limit) {
+                        return occurrences;
+                    }
+                }
+            }
+        }
+        return occurrences;
+    }
+
+    /**
+     * The first occurrence of a series that is strictly after {@code after}, or null when there is none.
+     * Unlike {@link #occurrences}, this includes the first occurrence, {@code start} itself.
+     */
+    public Instant next(String rule, Instant start, Instant end, Instant after) {
+        if (start.isAfter(after)) {
+            return start;
+        }
+        RecurrenceRule parsed = parse(rule);
+        Iterator<Instant> occurrences = parsed == null ? null : parsed.occurrencesAfter(start, after);
+        if (occurrences == null || !occurrences.hasNext()) {
+            return null;
+        }
+        Instant next = occurrences.next();
+        return end == null || !next.isAfter(end) ? next : null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "deadlines.recurrence");
+    }
+
+    private Instant[] expand(Bucket bucket) {
+        Instant bucketStart = Instant.ofEpochMilli(bucket.index() * BUCKET_MILLIS);
+        Instant bucketEnd = Instant.ofEpochMilli((bucket.index() + 1) * BUCKET_MILLIS);
+        RecurrenceRule rule = parse(bucket.rule());
+        if (rule == null) {
+            return NONE;
+        }
+        Iterator<Instant> occurrences = rule.occurrencesAfter(bucket.start(), bucketStart.minusNanos(1));
+        List<Instant> expanded = new ArrayList<>();
+        while (occurrences.hasNext()) {
+            Instant occurrence = occurrences.next();
+            if (!occurrence.isBefore(bucketEnd)) {
+                break;
+            }
+            expanded.add(occurrence);
+        }
+        return expanded.isEmpty() ? NONE : expanded.toArray(NONE);
+    }
+
+    // Stored rules were parsed when they were saved; one that no longer parses only has its first occurrence
+    private static RecurrenceRule parse(String rule) {
+        try {
+            return RecurrenceRule.parse(rule);
+        } catch (InvalidRecurrenceException e) {
+            log.warn("Ignoring stored recurrence '{}': {}", rule, e.getMessage());
+            return null;
+        }
+    }
+
+    private static long bucket(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), BUCKET_MILLIS);
+    }
+}
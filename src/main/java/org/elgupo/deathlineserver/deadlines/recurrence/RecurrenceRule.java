@@ -0,0 +1,330 @@
+package org.elgupo.deathlineserver.deadlines.recurrence;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+
+/**
+ * An iCalendar (RFC 5545) RRULE, limited to what deadlines need: FREQ=DAILY, WEEKLY, MONTHLY or YEARLY,
+ * INTERVAL, COUNT or UNTIL, and BYDAY with plain weekdays for weekly rules. Anything else is rejected
+ * rather than approximated.
+ * <p>
+ * A series starts at its deadline, which is its first occurrence. Later occurrences are generated in UTC
+ * and keep the time of day of the first one; as in RFC 5545, dates that do not exist (the 31st of a 30-day
+ * month, February 29th in other years) are skipped, not moved.
+ */
+public final class RecurrenceRule {
+
+    public static final int MAX_LENGTH = 255;
+    public static final int MAX_INTERVAL = 1000;
+    public static final int MAX_COUNT = 10_000;
+    // A monthly or yearly rule on a day that (almost) never exists, such as February 30th, ends after this many empty periods
+    private static final int MAX_EMPTY_PERIODS = 100;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private enum Frequency { DAILY, WEEKLY, MONTHLY, YEARLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    // 0 without COUNT
+    private final int count;
+    private final Instant until;
+    // Monday first, null without BYDAY
+    private final DayOfWeek[] days;
+
+    private RecurrenceRule(Frequency frequency, int interval, int count, Instant until, DayOfWeek[] days) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.days = days;
+    }
+
+    /**
+     * Parses an RRULE value, with or without the {@code RRULE:} prefix.
+     */
+    public static RecurrenceRule parse(String rule) throws InvalidRecurrenceException {
+        if (rule == null || rule.isBlank()) {
+            throw new InvalidRecurrenceException("empty");
+        }
+        String value = rule.trim();
+        if (value.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            value = value.substring(6);
+        }
+        if (value.length() > MAX_LENGTH) {
+            throw new InvalidRecurrenceException("longer than " + MAX_LENGTH + " characters");
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        Instant until = null;
+        DayOfWeek[] days = null;
+        Set<String> seen = new HashSet<>();
+        for (String part : value.split(";")) {
+            int equals = part.indexOf('=');
+            if (equals <= 0) {
+                throw new InvalidRecurrenceException("'" + part + "' is not NAME=VALUE");
+            }
+            String name = part.substring(0, equals).toUpperCase(Locale.ROOT);
+            String argument = part.substring(equals + 1).toUpperCase(Locale.ROOT);
+            if (!seen.add(name)) {
+                throw new InvalidRecurrenceException(name + " is given twice");
+            }
+            switch (name) {
+                case "FREQ" -> frequency = parseFrequency(argument);
+                case "INTERVAL" -> interval = parseNumber(name, argument, MAX_INTERVAL);
+                case "COUNT" -> count = parseNumber(name, argument, MAX_COUNT);
+                case "UNTIL" -> until = parseUntil(argument);
+                case "BYDAY" -> days = parseDays(argument);
+                case "WKST" -> {
+                    if (!argument.equals("MO")) {
+                        throw new InvalidRecurrenceException("only WKST=MO is supported");
+                    }
+                }
+                default -> throw new InvalidRecurrenceException(name + " is not supported");
+            }
+        }
+        if (frequency == null) {
+            throw new InvalidRecurrenceException("FREQ is missing");
+        }
+        if (count > 0 && until != null) {
+            throw new InvalidRecurrenceException("COUNT and UNTIL cannot be combined");
+        }
+        if (days != null && frequency != Frequency.WEEKLY) {
+            throw new InvalidRecurrenceException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, days);
+    }
+
+    /**
+     * The end of a series that starts at {@code start}: no occurrence is after it. Null when the series is infinite.
+     */
+    public Instant end(Instant start) {
+        if (count > 0) {
+            // COUNT is at most MAX_COUNT, so this is walked once, when the series is created
+            Instant last = start;
+            Iterator<Instant> occurrences = occurrencesAfter(start, start);
+            for (int i = 1; i < count && occurrences.hasNext(); i++) {
+                last = occurrences.next();
+            }
+            return last;
+        }
+        if (until == null) {
+            return null;
+        }
+        return until.isBefore(start) ? start : until;
+    }
+
+    /**
+     * The occurrences of a series that starts at {@code start} which are strictly after {@code after}, in order.
+     * The first one is found in constant time however far {@code after} is from {@code start}, and the rest
+     * are generated as they are asked for. COUNT and UNTIL are not applied here; callers stop at {@link #end}.
+     */
+    public Iterator<Instant> occurrencesAfter(Instant start, Instant after) {
+        return new Occurrences(start, after.isBefore(start) ? start : after);
+    }
+
+    /**
+     * The rule in a canonical form, so that equal rules are equal strings.
+     */
+    @Override
+    public String toString() {
+        StringBuilder rule = new StringBuilder("FREQ=").append(frequency);
+        if (interval > 1) {
+            rule.append(";INTERVAL=").append(interval);
+        }
+        if (days != null) {
+            rule.append(";BYDAY=");
+            for (int i = 0; i < days.length; i++) {
+                rule.append(i > 0 ? "," : "").append(days[i].name(), 0, 2);
+            }
+        }
+        if (count > 0) {
+            rule.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            rule.append(";UNTIL=").append(DATE_TIME.format(LocalDateTime.ofInstant(until, ZoneOffset.UTC))).append('Z');
+        }
+        return rule.toString();
+    }
+
+    private static Frequency parseFrequency(String argument) throws InvalidRecurrenceException {
+        try {
+            return Frequency.valueOf(argument);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRecurrenceException("FREQ=" + argument + " is not supported");
+        }
+    }
+
+    private static int parseNumber(String name, String argument, int max) throws InvalidRecurrenceException {
+        try {
+            int number = Integer.parseInt(argument);
+            if (number >= 1 && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new InvalidRecurrenceException(name + " must be a number from 1 to " + max);
+    }
+
+    // UTC and floating date-times (taken as UTC), or a date, which includes the whole day
+    private static Instant parseUntil(String argument) throws InvalidRecurrenceException {
+        try {
+            if (argument.length() == 8) {
+                return LocalDate.parse(argument, DATE).plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC).minusNanos(1);
+            }
+            String dateTime = argument.endsWith("Z") ? argument.substring(0, argument.length() - 1) : argument;
+            return LocalDateTime.parse(dateTime, DATE_TIME).toInstant(ZoneOffset.UTC);
+        } catch (DateTimeException e) {
+            throw new InvalidRecurrenceException("UNTIL=" + argument + " is not a date or date-time");
+        }
+    }
+
+    private static DayOfWeek[] parseDays(String argument) throws InvalidRecurrenceException {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : argument.split(",")) {
+            DayOfWeek dayOfWeek = switch (day) {
+                case "MO" -> DayOfWeek.MONDAY;
+                case "TU" -> DayOfWeek.TUESDAY;
+                case "WE" -> DayOfWeek.WEDNESDAY;
+                case "TH" -> DayOfWeek.THURSDAY;
+                case "FR" -> DayOfWeek.FRIDAY;
+                case "SA" -> DayOfWeek.SATURDAY;
+                case "SU" -> DayOfWeek.SUNDAY;
+                default -> throw new InvalidRecurrenceException("BYDAY=" + day + " is not supported");
+            };
+            days.add(dayOfWeek);
+        }
+        return days.toArray(DayOfWeek[]::new);
+    }
+
+    /**
+     * Walks the series period by period (a day, week, month or year times INTERVAL). Each period has at most
+     * seven candidates, so the iterator holds constant state however long the series is.
+     */
+    private final class Occurrences implements Iterator<Instant> {
+
+        private final LocalDateTime first;
+        private final Instant after;
+        private final Instant[] candidates = new Instant[7];
+        private int size;
+        private int position;
+        private long period;
+        private int emptyPeriods;
+        private Instant next;
+
+        private Occurrences(Instant start, Instant after) {
+            this.first = LocalDateTime.ofInstant(start, ZoneOffset.UTC);
+            this.after = after;
+            this.period = firstPeriod(start, after);
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Instant next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Instant occurrence = next;
+            advance();
+            return occurrence;
+        }
+
+        private void advance() {
+            while (true) {
+                while (position < size) {
+                    Instant candidate = candidates[position++];
+                    if (candidate.isAfter(after)) {
+                        next = candidate;
+                        return;
+                    }
+                }
+                if (emptyPeriods == MAX_EMPTY_PERIODS || !fill(period++)) {
+                    next = null;
+                    return;
+                }
+                emptyPeriods = size == 0 ? emptyPeriods + 1 : 0;
+            }
+        }
+
+        // The last period that starts at or before 'after'; candidates of earlier periods are all before it
+        private long firstPeriod(Instant start, Instant after) {
+            return switch (frequency) {
+                case DAILY -> Duration.between(start, after).dividedBy(Duration.ofDays(interval));
+                case WEEKLY -> Duration.between(days == null ? start : weekStart(), after).dividedBy(Duration.ofDays(7L * interval));
+                case MONTHLY, YEARLY -> ChronoUnit.MONTHS.between(YearMonth.from(first),
+                        YearMonth.from(LocalDateTime.ofInstant(after, ZoneOffset.UTC))) / months();
+            };
+        }
+
+        // Puts the candidates of the period in order, false once the dates run out of range
+        private boolean fill(long period) {
+            size = 0;
+            position = 0;
+            try {
+                switch (frequency) {
+                    case DAILY -> add(first.plusDays(period * interval));
+                    case WEEKLY -> {
+                        if (days == null) {
+                            add(first.plusWeeks(period * interval));
+                        } else {
+                            LocalDate monday = first.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                                    .plusWeeks(period * interval);
+                            for (DayOfWeek day : days) {
+                                add(monday.plusDays(day.ordinal()).atTime(first.toLocalTime()));
+                            }
+                        }
+                    }
+                    case MONTHLY, YEARLY -> {
+                        YearMonth month = YearMonth.from(first).plusMonths(period * months());
+                        if (month.isValidDay(first.getDayOfMonth())) {
+                            add(month.atDay(first.getDayOfMonth()).atTime(first.toLocalTime()));
+                        }
+                    }
+                }
+                return true;
+            } catch (DateTimeException | ArithmeticException e) {
+                return false;
+            }
+        }
+
+        private void add(LocalDateTime candidate) {
+            candidates[size++] = candidate.toInstant(ZoneOffset.UTC);
+        }
+
+        private Instant weekStart() {
+            LocalTime time = first.toLocalTime();
+            return first.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atTime(time).toInstant(ZoneOffset.UTC);
+        }
+
+        private long months() {
+            return frequency == Frequency.YEARLY ? 12L * interval : interval;
+        }
+    }
+}
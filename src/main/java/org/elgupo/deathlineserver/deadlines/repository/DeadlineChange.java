@@ -0,0 +1,9 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * The latest state of a deadline in a user's change log; a deleted deadline is a tombstone and only its id matters.
+ */
+public record DeadlineChange(long changeSeq, DeadlineDto deadline, boolean deleted) {
+}
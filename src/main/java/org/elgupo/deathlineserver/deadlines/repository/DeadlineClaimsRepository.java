@@ -0,0 +1,158 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Leases due reminders to scheduler nodes.
+ * <p>
+ * A node locks a batch of unreminded rows with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+ * nodes pick disjoint batches without waiting on each other, and stamps them with its id and
+ * a lease. Rows whose lease ran out (the node died before finishing) can be claimed again.
+ * Delivery is at-least-once: a node that outlives its lease may race the node that reclaimed it.
+ * <p>
+ * A recurring deadline is claimed like any other for its first occurrence, and then once per later occurrence
+ * through {@code next_occurrence}, which the claiming node moves on to the occurrence after.
+ */
+@Repository
+public class DeadlineClaimsRepository {
+
+    private static final String SELECT_DUE = """
+            SELECT deadline_id, user_id, deadline_name, deadline_description, deadline, created_at
+            FROM deadlines
+            WHERE reminded_at IS NULL AND deleted = FALSE
+              AND deadline > :now AND deadline <= :horizon
+              AND (lease_until IS NULL OR lease_until < :now)
+            ORDER BY deadline
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SELECT_DUE_OCCURRENCES = """
+            SELECT deadline_id, user_id, deadline_name, deadline_description, deadline, created_at,
+                   recurrence, recurrence_end, next_occurrence
+            FROM deadlines
+            WHERE next_occurrence <= :horizon AND deleted = FALSE
+              AND (lease_until IS NULL OR lease_until < :now)
+            ORDER BY next_occurrence
+            LIMIT :batchSize
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String LEASE = """
+            UPDATE deadlines SET claimed_by = :node, lease_until = :leaseUntil
+            WHERE deadline_id IN (:ids)
+            """;
+
+    private static final String COMPLETE = """
+            UPDATE deadlines SET reminded_at = :remindedAt, claimed_by = NULL, lease_until = NULL
+            WHERE deadline_id IN (:ids) AND claimed_by = :node
+            """;
+
+    private static final String ADVANCE = """
+            UPDATE deadlines SET next_occurrence = :nextOccurrence, claimed_by = NULL, lease_until = NULL
+            WHERE deadline_id = :id AND claimed_by = :node
+            """;
+
+    private static final RowMapper<DeadlineEntity> DEADLINE_MAPPER = (resultSet, rowNum) -> {
+        DeadlineEntity deadline = new DeadlineEntity(
+                resultSet.getLong("user_id"),
+                resultSet.getString("deadline_name"),
+                resultSet.getString("deadline_description"),
+                SqlInstants.fromSql(resultSet, "deadline"),
+                SqlInstants.fromSql(resultSet, "created_at"));
+        deadline.setDeadlineId(resultSet.getLong("deadline_id"));
+        return deadline;
+    };
+
+    private static final RowMapper<DeadlineEntity> OCCURRENCE_MAPPER = (resultSet, rowNum) -> {
+        DeadlineEntity deadline = DEADLINE_MAPPER.mapRow(resultSet, rowNum);
+        deadline.setRecurrence(resultSet.getString("recurrence"));
+        deadline.setRecurrenceEnd(SqlInstants.fromSql(resultSet, "recurrence_end"));
+        deadline.setNextOccurrence(SqlInstants.fromSql(resultSet, "next_occurrence"));
+        return deadline;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DeadlineClaimsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claims up to {@code batchSize} unreminded deadlines in {@code (now, horizon]} for {@code node}.
+     */
+    @Transactional
+    public List<DeadlineEntity> claimDue(String node, Instant now, Instant horizon, Instant leaseUntil, int batchSize) {
+        return claim(SELECT_DUE, DEADLINE_MAPPER, node, now, horizon, leaseUntil, batchSize);
+    }
+
+    /**
+     * Claims up to {@code batchSize} recurring deadlines whose next occurrence is at or before {@code horizon}
+     * for {@code node}; the occurrence is in {@link DeadlineEntity#getNextOccurrence()}. Occurrences that have
+     * already passed are claimed too, so that the node can move them on.
+     */
+    @Transactional
+    public List<DeadlineEntity> claimDueOccurrences(String node, Instant now, Instant horizon, Instant leaseUntil, int batchSize) {
+        return claim(SELECT_DUE_OCCURRENCES, OCCURRENCE_MAPPER, node, now, horizon, leaseUntil, batchSize);
+    }
+
+    private List<DeadlineEntity> claim(String select, RowMapper<DeadlineEntity> mapper, String node, Instant now,
+                                       Instant horizon, Instant leaseUntil, int batchSize) {
+        List<DeadlineEntity> due = jdbcTemplate.query(select, new MapSqlParameterSource()
+                .addValue("now", SqlInstants.toSql(now))
+                .addValue("horizon", SqlInstants.toSql(horizon))
+                .addValue("batchSize", batchSize), mapper);
+        if (!due.isEmpty()) {
+            jdbcTemplate.update(LEASE, new MapSqlParameterSource()
+                    .addValue("node", node)
+                    .addValue("leaseUntil", SqlInstants.toSql(leaseUntil))
+                    .addValue("ids", due.stream().map(DeadlineEntity::getDeadlineId).toList()));
+        }
+        return due;
+    }
+
+    /**
+     * Marks claimed deadlines as reminded. Rows that were meanwhile reclaimed by another node are left alone.
+     */
+    @Transactional
+    public int complete(String node, List<Long> deadlineIds, Instant remindedAt) {
+        if (deadlineIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(COMPLETE, Map.of(
+                "node", node,
+                "ids", deadlineIds,
+                "remindedAt", SqlInstants.toSql(remindedAt)));
+    }
+
+    /**
+     * Moves claimed recurring deadlines on to their next occurrence (null when the series is over) and releases
+     * them. Rows that were meanwhile reclaimed by another node are left alone.
+     */
+    @Transactional
+    public int advance(String node, Map<Long, Instant> nextOccurrences) {
+        if (nextOccurrences.isEmpty()) {
+            return 0;
+        }
+        SqlParameterSource[] rows = nextOccurrences.entrySet().stream()
+                .map(next -> new MapSqlParameterSource()
+                        .addValue("node", node)
+                        .addValue("id", next.getKey())
+                        .addValue("nextOccurrence", SqlInstants.toSql(next.getValue())))
+                .toArray(SqlParameterSource[]::new);
+        int advanced = 0;
+        for (int updated : jdbcTemplate.batchUpdate(ADVANCE, rows)) {
+            advanced += updated;
+        }
+        return advanced;
+    }
+}
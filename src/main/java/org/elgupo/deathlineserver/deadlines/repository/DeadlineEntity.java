@@ -8,6 +8,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,28 +17,70 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.SQLRestriction;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name = "deadlines", schema = "public")
+@Table(name = "deadlines", schema = "public", indexes = {
+        @Index(name = "idx_deadlines_user_id", columnList = "user_id"),
+        @Index(name = "idx_deadlines_user_id_deadline", columnList = "user_id, deadline, deadline_id"),
+        @Index(name = "idx_deadlines_deadline", columnList = "deadline"),
+        @Index(name = "idx_deadlines_user_id_external_uid", columnList = "user_id, external_uid", unique = true),
+        @Index(name = "idx_deadlines_user_id_change_seq", columnList = "user_id, change_seq, deadline_id"),
+        @Index(name = "idx_deadlines_deleted_updated_at", columnList = "deleted, updated_at"),
+        @Index(name = "idx_deadlines_next_occurrence", columnList = "next_occurrence")
+})
+// Deleted rows stay behind as tombstones for delta sync; JPA queries never see them
+@SQLRestriction("deleted = false")
 @Entity
 public class DeadlineEntity {
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids come from a sequence in blocks of 50 (pooled optimizer), so inserts can be batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deadlines_seq")
+    @SequenceGenerator(name = "deadlines_seq", sequenceName = "deadlines_deadline_id_seq", allocationSize = 50)
     @Id
     @Column(name = "deadline_id")
     private Long deadlineId;
 
     @Column(name = "user_id")
     private Long userId;
-    @Column(name = "deadline_name")
+    @Column(name = "deadline_name", length = 200)
     private String name;
-    @Column(name = "deadline_description")
+    @Column(name = "deadline_description", columnDefinition = "text")
     private String description;
     @Column(name = "deadline")
     private Instant deadline;
     @Column(name = "created_at")
     private Instant createdAt;
+    // UID of the imported calendar event, unique per user
+    @Column(name = "external_uid")
+    private String externalUid;
+
+    // Claim-based reminder scheduling, see DeadlineClaimsRepository
+    @Column(name = "reminded_at")
+    private Instant remindedAt;
+    @Column(name = "claimed_by")
+    private String claimedBy;
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    // Recurring deadlines, see RecurrenceRule: the row is stored once and 'deadline' is its first occurrence.
+    // The end is when the series stops (null if it never does), the next occurrence is kept by the claim scheduler
+    @Column(name = "recurrence")
+    private String recurrence;
+    @Column(name = "recurrence_end")
+    private Instant recurrenceEnd;
+    @Column(name = "next_occurrence")
+    private Instant nextOccurrence;
+
+    // Delta sync, see DeadlineSyncRepository: every write stamps its rows with the user's next
+    // deadlines version, and deletes only set 'deleted' until TombstoneCompactionScheduler removes the row
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
 
     public DeadlineEntity(
             Long userId,
@@ -50,5 +94,6 @@ public class DeadlineEntity {
         this.description = description;
         this.deadline = deadline;
         this.createdAt = createdAt;
+        this.updatedAt = createdAt;
     }
 }
@@ -0,0 +1,54 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads all deadlines of a user through a forward-only cursor, {@code deadlines.export.fetch-size}
+ * rows per round trip, without ever holding more than one fetch in memory.
+ * <p>
+ * Postgres only uses a cursor inside a transaction, hence {@link Transactional} even for a read.
+ */
+@Repository
+public class DeadlineExportRepository {
+
+    // Served in order by idx_deadlines_user_id_deadline, so there is no sort to buffer the rows
+    private static final String SELECT_USER_DEADLINES = """
+            SELECT deadline_id, deadline_name, deadline_description, deadline
+            FROM deadlines
+            WHERE user_id = ? AND deleted = FALSE
+            ORDER BY deadline, deadline_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public DeadlineExportRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${deadlines.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachDeadlineOfUser(Long userId, Consumer<DeadlineDto> action) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_USER_DEADLINES,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> action.accept(new DeadlineDto(
+                resultSet.getLong("deadline_id"),
+                resultSet.getString("deadline_name"),
+                resultSet.getString("deadline_description"),
+                SqlInstants.fromSql(resultSet, "deadline"))));
+    }
+}
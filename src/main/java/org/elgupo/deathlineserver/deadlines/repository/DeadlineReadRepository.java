@@ -0,0 +1,149 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The deadline reads behind {@code GET /deadlines}, in plain JDBC: rows go straight from the result set
+ * into {@link DeadlineDto}s, with no persistence context, entity or projection in between.
+ * <p>
+ * Range bounds are exclusive and either may be null. Whole lists are fetched {@code deadlines.read.fetch-size}
+ * rows per round trip, pages in one. Postgres only honours a fetch size inside a transaction, hence
+ * {@link Transactional} even for a read.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class DeadlineReadRepository {
+
+    // Every query is an index range scan of idx_deadlines_user_id_deadline (user_id, deadline, deadline_id), in order
+    private static final String SELECT_DEADLINES = """
+            SELECT deadline_id, deadline_name, deadline_description, deadline
+            FROM deadlines
+            WHERE user_id = ? AND deleted = FALSE
+            """;
+    private static final String ORDER = " ORDER BY deadline, deadline_id";
+    private static final String ORDER_LIMIT = ORDER + " LIMIT ?";
+
+    private static final String SELECT_ALL = SELECT_DEADLINES + ORDER;
+    private static final String SELECT_AFTER = SELECT_DEADLINES + " AND deadline > ?" + ORDER;
+    private static final String SELECT_BEFORE = SELECT_DEADLINES + " AND deadline < ?" + ORDER;
+    private static final String SELECT_BETWEEN = SELECT_DEADLINES + " AND deadline > ? AND deadline < ?" + ORDER;
+
+    // Keyset pages, as in DeadlinesRepository: "deadline >= ?" is the start key, the OR skips the ties already returned
+    private static final String SELECT_FIRST_PAGE = SELECT_DEADLINES + ORDER_LIMIT;
+    private static final String SELECT_FIRST_PAGE_BEFORE = SELECT_DEADLINES + " AND deadline < ?" + ORDER_LIMIT;
+    private static final String SELECT_PAGE_AFTER = SELECT_DEADLINES
+            + " AND deadline >= ? AND (deadline > ? OR deadline_id > ?)" + ORDER_LIMIT;
+    private static final String SELECT_PAGE_AFTER_BEFORE = SELECT_DEADLINES
+            + " AND deadline >= ? AND (deadline > ? OR deadline_id > ?) AND deadline < ?" + ORDER_LIMIT;
+
+    // Recurring deadlines that may have occurrences in (from, to); few per user, found through idx_deadlines_user_id
+    private static final String SELECT_RECURRING = """
+            SELECT deadline_id, deadline_name, deadline_description, deadline, recurrence, recurrence_end
+            FROM deadlines
+            WHERE user_id = ? AND deleted = FALSE AND recurrence IS NOT NULL
+              AND deadline < ? AND (recurrence_end IS NULL OR recurrence_end > ?)
+            """;
+
+    // Lists are usually small, but a first chunk this big saves most of the regrowing for long ones
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public DeadlineReadRepository(JdbcTemplate jdbcTemplate,
+                                  @Value("${deadlines.read.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * All deadlines of the user, ordered by deadline.
+     */
+    public List<DeadlineDto> findByUserId(Long userId) {
+        return query(SELECT_ALL, fetchSize, INITIAL_CAPACITY, userId);
+    }
+
+    /**
+     * Deadlines of the user strictly between {@code from} and {@code to}, ordered by deadline.
+     */
+    public List<DeadlineDto> findByUserIdBetween(Long userId, Instant from, Instant to) {
+        if (from == null && to == null) {
+            return findByUserId(userId);
+        }
+        if (from == null) {
+            return query(SELECT_BEFORE, fetchSize, INITIAL_CAPACITY, userId, SqlInstants.toSql(to));
+        }
+        if (to == null) {
+            return query(SELECT_AFTER, fetchSize, INITIAL_CAPACITY, userId, SqlInstants.toSql(from));
+        }
+        return query(SELECT_BETWEEN, fetchSize, INITIAL_CAPACITY, userId, SqlInstants.toSql(from), SqlInstants.toSql(to));
+    }
+
+    /**
+     * Up to {@code limit} deadlines of the user before {@code to}, ordered by (deadline, deadline_id) and
+     * starting after {@code (afterDeadline, afterId)}, or at the first one when {@code afterDeadline} is null.
+     */
+    public List<DeadlineDto> findPageByUserId(Long userId, Instant afterDeadline, Long afterId, Instant to, int limit) {
+        if (afterDeadline == null) {
+            return to == null
+                    ? query(SELECT_FIRST_PAGE, limit, limit, userId, limit)
+                    : query(SELECT_FIRST_PAGE_BEFORE, limit, limit, userId, SqlInstants.toSql(to), limit);
+        }
+        Object after = SqlInstants.toSql(afterDeadline);
+        return to == null
+                ? query(SELECT_PAGE_AFTER, limit, limit, userId, after, after, afterId, limit)
+                : query(SELECT_PAGE_AFTER_BEFORE, limit, limit, userId, after, after, afterId, SqlInstants.toSql(to), limit);
+    }
+
+    /**
+     * Recurring deadlines of the user that began before {@code to} and did not end before {@code from}.
+     * Their first occurrences are returned by the other queries like any deadline; the rest are expanded by the caller.
+     */
+    public List<RecurringDeadline> findRecurringByUserId(Long userId, Instant from, Instant to) {
+        return jdbcTemplate.query(SELECT_RECURRING, (resultSet, rowNum) -> new RecurringDeadline(
+                toDto(resultSet), resultSet.getString(5), SqlInstants.fromSql(resultSet, 6)),
+                userId, SqlInstants.toSql(to), SqlInstants.toSql(from));
+    }
+
+    private List<DeadlineDto> query(String sql, int statementFetchSize, int expectedRows, Object... parameters) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(statementFetchSize);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            return statement;
+        }, deadlines(expectedRows));
+    }
+
+    private static ResultSetExtractor<List<DeadlineDto>> deadlines(int expectedRows) {
+        return resultSet -> {
+            List<DeadlineDto> deadlines = new ArrayList<>(expectedRows);
+            while (resultSet.next()) {
+                deadlines.add(toDto(resultSet));
+            }
+            return deadlines;
+        };
+    }
+
+    // By column index: label lookups cost a map probe per column per row
+    private static DeadlineDto toDto(ResultSet resultSet) throws SQLException {
+        return new DeadlineDto(
+                resultSet.getLong(1),
+                resultSet.getString(2),
+                resultSet.getString(3),
+                SqlInstants.fromSql(resultSet, 4));
+    }
+}
@@ -0,0 +1,77 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads a user's deadlines in {@code (change_seq, deadline_id)} order, tombstones included, which JPA
+ * queries on {@link DeadlineEntity} never see. Every row carries the version of the last write that
+ * touched it, so the rows after a position are exactly the changes a client has not seen yet.
+ */
+@Repository
+public class DeadlineSyncRepository {
+
+    // Keyset scan of idx_deadlines_user_id_change_seq; "change_seq >= :afterSeq" gives the scan its start key
+    private static final String SELECT_CHANGES = """
+            SELECT deadline_id, deadline_name, deadline_description, deadline, change_seq, deleted
+            FROM deadlines
+            WHERE user_id = :userId
+              AND change_seq >= :afterSeq
+              AND (change_seq > :afterSeq OR deadline_id > :afterId)
+            ORDER BY change_seq, deadline_id
+            LIMIT :limit
+            """;
+
+    // Served by idx_deadlines_deleted_updated_at; the limit keeps every batch a short transaction
+    private static final String DELETE_TOMBSTONES = """
+            DELETE FROM deadlines
+            WHERE deadline_id IN (
+                SELECT deadline_id FROM deadlines
+                WHERE deleted = TRUE AND updated_at < :before
+                LIMIT :batchSize)
+            """;
+
+    private static final RowMapper<DeadlineChange> CHANGE_MAPPER = (resultSet, rowNum) -> new DeadlineChange(
+            resultSet.getLong("change_seq"),
+            new DeadlineDto(
+                    resultSet.getLong("deadline_id"),
+                    resultSet.getString("deadline_name"),
+                    resultSet.getString("deadline_description"),
+                    SqlInstants.fromSql(resultSet, "deadline")),
+            resultSet.getBoolean("deleted"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DeadlineSyncRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Up to {@code limit} changes of the user after position {@code (afterSeq, afterId)}.
+     */
+    @Transactional(readOnly = true)
+    public List<DeadlineChange> findChanges(Long userId, long afterSeq, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_CHANGES, new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("afterSeq", afterSeq)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), CHANGE_MAPPER);
+    }
+
+    /**
+     * Removes up to {@code batchSize} tombstones deleted before {@code before} and returns how many there were.
+     */
+    @Transactional
+    public int deleteTombstones(Instant before, int batchSize) {
+        return jdbcTemplate.update(DELETE_TOMBSTONES, new MapSqlParameterSource()
+                .addValue("before", SqlInstants.toSql(before))
+                .addValue("batchSize", batchSize));
+    }
+}
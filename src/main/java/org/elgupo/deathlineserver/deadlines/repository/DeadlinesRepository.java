@@ -1,11 +1,13 @@
 package org.elgupo.deathlineserver.deadlines.repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
-import org.springframework.data.jdbc.repository.query.Modifying;
-import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,11 +15,62 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface DeadlinesRepository extends CrudRepository<DeadlineEntity, Integer> {
+    String SELECT_DTO = "SELECT new org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto("
+            + "d.deadlineId, d.name, d.description, d.deadline) FROM DeadlineEntity d ";
+
     public List<DeadlineDto> findByUserId(Long userId);
 
-    public void deleteByDeadlineId(Long userId);
+    // Range queries below are served by idx_deadlines_user_id_deadline (user_id, deadline, deadline_id)
+    public List<DeadlineDto> findByUserIdOrderByDeadlineAsc(Long userId);
+
+    public List<DeadlineDto> findByUserIdAndDeadlineAfterOrderByDeadlineAsc(Long userId, Instant from);
+
+    public List<DeadlineDto> findByUserIdAndDeadlineBeforeOrderByDeadlineAsc(Long userId, Instant to);
+
+    public List<DeadlineDto> findByUserIdAndDeadlineAfterAndDeadlineBeforeOrderByDeadlineAsc(Long userId, Instant from, Instant to);
+
+    // Lists and pages are read through DeadlineReadRepository; this JPA first page is only the baseline
+    // DeadlineReadBenchmark compares it with
+    @Query(SELECT_DTO + "WHERE d.userId = :userId ORDER BY d.deadline, d.deadlineId")
+    public List<DeadlineDto> findFirstPage(@Param("userId") Long userId, Limit limit);
+
+    // Deletes are single statements that return the affected count, whatever the number of rows. They leave
+    // tombstones stamped with the write's change_seq, and free the external UID for a later import;
+    // pending inserts are flushed first and the persistence context is cleared after
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE deadlines SET deleted = TRUE, change_seq = :changeSeq, updated_at = :now, external_uid = NULL "
+            + "WHERE user_id = :userId AND deadline_id = ANY(:ids) AND deleted = FALSE", nativeQuery = true)
+    public int deleteByUserIdAndDeadlineIds(@Param("userId") Long userId, @Param("ids") Long[] deadlineIds,
+                                            @Param("changeSeq") long changeSeq, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DeadlineEntity d SET d.deleted = true, d.changeSeq = :changeSeq, d.updatedAt = :now, d.externalUid = NULL "
+            + "WHERE d.userId = :userId AND d.deadline < :to AND d.deleted = false")
+    public int deleteByUserIdAndDeadlineBefore(@Param("userId") Long userId, @Param("to") Instant to,
+                                               @Param("changeSeq") long changeSeq, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE DeadlineEntity d SET d.deleted = true, d.changeSeq = :changeSeq, d.updatedAt = :now, d.externalUid = NULL "
+            + "WHERE d.userId = :userId AND d.deadline > :from AND d.deadline < :to AND d.deleted = false")
+    public int deleteByUserIdAndDeadlineBetween(@Param("userId") Long userId, @Param("from") Instant from, @Param("to") Instant to,
+                                                @Param("changeSeq") long changeSeq, @Param("now") Instant now);
+
+    // Half-open so that consecutive scheduler windows never load the same row twice
+    public List<DeadlineEntity> findByDeadlineGreaterThanEqualAndDeadlineLessThan(Instant start, Instant end);
+
+    // Recurring deadlines that may have an occurrence in [start, end): begun before the end and not ended before the start.
+    // Only the recurring rows are read, through the partial idx_deadlines_recurring, and not as managed entities
+    @Query("SELECT new org.elgupo.deathlineserver.deadlines.repository.RecurringDeadline("
+            + "d.deadlineId, d.name, d.description, d.deadline, d.recurrence, d.recurrenceEnd) FROM DeadlineEntity d "
+            + "WHERE d.recurrence IS NOT NULL AND d.deadline < :end AND (d.recurrenceEnd IS NULL OR d.recurrenceEnd >= :start)")
+    public List<RecurringDeadline> findRecurringBetween(@Param("start") Instant start, @Param("end") Instant end);
+
+    public List<DeadlineEntity> findByDeadlineIdIn(Collection<Long> deadlineIds);
 
-    @Query("SELECT * FROM deadlines WHERE deadline BETWEEN :start AND :end")
-    public List<DeadlineEntity> findByDeadlineBetween(@Param("start") Instant start, @Param("end") Instant end);
+    @Query("SELECT d.externalUid FROM DeadlineEntity d WHERE d.userId = :userId AND d.externalUid IN :uids")
+    public List<String> findExternalUids(@Param("userId") Long userId, @Param("uids") Collection<String> uids);
 
 }
@@ -0,0 +1,16 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.time.Instant;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * A recurring deadline: its first occurrence, its RRULE and the end of the series (null if it has none).
+ */
+public record RecurringDeadline(DeadlineDto first, String recurrence, Instant end) {
+
+    // For JPQL constructor expressions
+    public RecurringDeadline(Long deadlineId, String name, String description, Instant deadline, String recurrence, Instant end) {
+        this(new DeadlineDto(deadlineId, name, description, deadline), recurrence, end);
+    }
+}
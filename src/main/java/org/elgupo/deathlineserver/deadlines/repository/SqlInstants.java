@@ -0,0 +1,30 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binds and reads {@link Instant} columns in plain JDBC code the same way Hibernate does, as UTC.
+ */
+final class SqlInstants {
+
+    private SqlInstants() {
+    }
+
+    static OffsetDateTime toSql(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    static Instant fromSql(ResultSet resultSet, String column) throws SQLException {
+        OffsetDateTime value = resultSet.getObject(column, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+
+    static Instant fromSql(ResultSet resultSet, int columnIndex) throws SQLException {
+        OffsetDateTime value = resultSet.getObject(columnIndex, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+}
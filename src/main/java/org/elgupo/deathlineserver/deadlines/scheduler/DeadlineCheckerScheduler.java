@@ -1,38 +1,228 @@
 package org.elgupo.deathlineserver.deadlines.scheduler;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.RecurringDeadline;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.services.NotificationDispatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Fires {@link #handleUpcomingDeadline} {@code deadlines.reminders.lead} before each deadline.
+ * <p>
+ * Reminders are kept in an in-memory {@link TimingWheel} with one-tick resolution.
+ * {@link #checkDeadlines()} keeps the wheel filled only {@code deadlines.reminders.load-window}
+ * ahead, so the database is read in small, indexed windows and the wheel holds just
+ * the reminders of that window. Deadlines created or deleted inside the loaded window
+ * are added to / removed from the wheel by {@link org.elgupo.deathlineserver.deadlines.services.DeadlinesService}.
+ * <p>
+ * A recurring deadline is in the wheel once, for its next occurrence in the window; when that fires, the
+ * occurrence after it is scheduled if it also falls in the loaded window, and otherwise the next load finds it.
+ * <p>
+ * Every node keeps its own wheel, so this mode is meant for a single instance;
+ * see {@link DeadlineClaimScheduler} for running several.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
-public class DeadlineCheckerScheduler {
+@ConditionalOnProperty(name = "deadlines.reminders.mode", havingValue = "wheel", matchIfMissing = true)
+public class DeadlineCheckerScheduler implements ReminderScheduler {
+
+    private static final int WHEEL_LEVELS = 4;
+    private static final int WHEEL_BITS = 6;
+    private static final int FIRE_BATCH_SIZE = 1000;
 
     private final DeadlinesRepository deadlinesRepository;
+    private final RecurrenceExpander recurrenceExpander;
+    private final NotificationDispatcher notificationDispatcher;
+    private final String reminderChannel;
+    private final Duration reminderLead;
+    private final Duration loadWindow;
+    private final long tickMillis;
+    private final TimingWheel wheel;
+    private final ReminderMetrics metrics;
+    // The occurrence each recurring deadline in the wheel is scheduled for (guarded by this)
+    private final Map<Long, Instant> occurrences = new HashMap<>();
 
-    @Scheduled(fixedRate = 30 * 60 * 1000)
-    public void checkDeadlines() {
-        log.info("Checking for upcoming deadlines");
+    // Reminder times before loadingUntil are either in the wheel or being loaded into it (guarded by this)
+    private Instant loadingUntil;
+    private Instant loadedUntil;
 
+    public DeadlineCheckerScheduler(DeadlinesRepository deadlinesRepository,
+                                    RecurrenceExpander recurrenceExpander,
+                                    NotificationDispatcher notificationDispatcher,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${deadlines.reminders.channel:log}") String reminderChannel,
+                                    @Value("${deadlines.reminders.lead:30m}") Duration reminderLead,
+                                    @Value("${deadlines.reminders.load-window:10m}") Duration loadWindow,
+                                    @Value("${deadlines.reminders.tick:1s}") Duration tick) {
+        this.deadlinesRepository = deadlinesRepository;
+        this.recurrenceExpander = recurrenceExpander;
+        this.notificationDispatcher = notificationDispatcher;
+        this.reminderChannel = reminderChannel;
+        this.reminderLead = reminderLead;
+        this.loadWindow = loadWindow;
+        this.tickMillis = tick.toMillis();
+        this.wheel = new TimingWheel(WHEEL_LEVELS, WHEEL_BITS, Instant.now().toEpochMilli() / tickMillis);
+        this.metrics = new ReminderMetrics(meterRegistry, "wheel");
+        Gauge.builder("deadlines.reminders.scheduled", this, DeadlineCheckerScheduler::scheduledCount)
+                .description("Reminders held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedRateString = "${deadlines.reminders.load-interval:1m}")
+    public void checkDeadlines() {
         Instant now = Instant.now();
-        Instant threshold = now.plusSeconds(30 * 60);
+        Instant windowEnd = now.plus(loadWindow);
+        Instant windowStart;
+        synchronized (this) {
+            // On the first run pick up deadlines whose reminder time has already come
+            windowStart = loadedUntil != null ? loadedUntil : now.minus(reminderLead);
+            if (!windowStart.isBefore(windowEnd)) {
+                return;
+            }
+            loadingUntil = windowEnd;
+        }
+
+        long started = System.nanoTime();
+        Instant from = windowStart.plus(reminderLead);
+        Instant to = windowEnd.plus(reminderLead);
+        List<DeadlineEntity> upcomingDeadlines = deadlinesRepository.findByDeadlineGreaterThanEqualAndDeadlineLessThan(from, to);
+        Map<Long, Instant> upcomingOccurrences = new HashMap<>();
+        for (RecurringDeadline recurring : deadlinesRepository.findRecurringBetween(from, to)) {
+            Instant occurrence = firstOccurrence(recurring.first().getDeadline(), recurring.recurrence(), recurring.end(), from, to);
+            if (occurrence != null) {
+                upcomingOccurrences.put(recurring.first().getDeadlineId(), occurrence);
+            }
+        }
+
+        synchronized (this) {
+            for (DeadlineEntity deadline : upcomingDeadlines) {
+                // A recurring deadline's first occurrence is scheduled with its others
+                if (deadline.getRecurrence() == null) {
+                    wheel.schedule(deadline.getDeadlineId(), reminderTick(deadline.getDeadline()));
+                }
+            }
+            upcomingOccurrences.forEach(this::scheduleOccurrence);
+            loadedUntil = windowEnd;
+        }
+        int loaded = upcomingDeadlines.size() + upcomingOccurrences.size();
+        metrics.recordLoad(started, loaded);
+        log.debug("Loaded {} reminders until {}", loaded, windowEnd);
+    }
+
+    @Scheduled(fixedRateString = "${deadlines.reminders.tick:1s}")
+    public void fireDueReminders() {
+        fireDueReminders(Instant.now());
+    }
+
+    // Fires everything due up to the tick of 'now'
+    void fireDueReminders(Instant now) {
+        List<Long> due = new ArrayList<>();
+        Map<Long, Instant> dueOccurrences = new HashMap<>();
+        synchronized (this) {
+            wheel.advanceTo(now.toEpochMilli() / tickMillis, id -> {
+                due.add(id);
+                Instant occurrence = occurrences.remove(id);
+                if (occurrence != null) {
+                    dueOccurrences.put(id, occurrence);
+                }
+            });
+        }
+
+        // Entries only hold ids; rows deleted after being loaded are simply not found here
+        for (int from = 0; from < due.size(); from += FIRE_BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(from + FIRE_BATCH_SIZE, due.size()));
+            for (DeadlineEntity deadline : deadlinesRepository.findByDeadlineIdIn(batch)) {
+                Instant occurrence = dueOccurrences.getOrDefault(deadline.getDeadlineId(), deadline.getDeadline());
+                handleUpcomingDeadline(deadline, occurrence);
+                metrics.recordFired(occurrence.minus(reminderLead), Instant.now());
+                if (deadline.getRecurrence() != null) {
+                    scheduleFirstOccurrence(deadline, occurrence.plusNanos(1));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onDeadlineCreated(DeadlineEntity deadline) {
+        if (deadline.getRecurrence() != null) {
+            scheduleFirstOccurrence(deadline, Instant.now());
+            return;
+        }
+        Instant reminderAt = deadline.getDeadline().minus(reminderLead);
+        synchronized (this) {
+            if (loadingUntil != null && reminderAt.isBefore(loadingUntil) && deadline.getDeadline().isAfter(Instant.now())) {
+                wheel.schedule(deadline.getDeadlineId(), reminderTick(deadline.getDeadline()));
+            }
+        }
+    }
 
-        List<DeadlineEntity> upcomingDeadlines = deadlinesRepository
-                .findByDeadlineBetween(now, threshold);
+    @Override
+    public void onDeadlineDeleted(Long deadlineId) {
+        synchronized (this) {
+            wheel.cancel(deadlineId);
+            occurrences.remove(deadlineId);
+        }
+    }
+
+    synchronized int scheduledCount() {
+        return wheel.size();
+    }
 
-        for (DeadlineEntity deadline : upcomingDeadlines) {
-            handleUpcomingDeadline(deadline);
+    // Schedules the first occurrence at or after 'from' whose reminder falls in the window already loaded
+    private void scheduleFirstOccurrence(DeadlineEntity deadline, Instant from) {
+        Instant until;
+        synchronized (this) {
+            if (loadingUntil == null) {
+                return;
+            }
+            until = loadingUntil;
         }
+        Instant occurrence = firstOccurrence(deadline.getDeadline(), deadline.getRecurrence(), deadline.getRecurrenceEnd(),
+                from, until.plus(reminderLead));
+        if (occurrence != null) {
+            synchronized (this) {
+                scheduleOccurrence(deadline.getDeadlineId(), occurrence);
+            }
+        }
+    }
+
+    // The first occurrence of a series starting at 'start' in [from, to), or null; expansions come from the expander's cache
+    private Instant firstOccurrence(Instant start, String recurrence, Instant end, Instant from, Instant to) {
+        if (!start.isBefore(from)) {
+            return start.isBefore(to) ? start : null;
+        }
+        List<Instant> occurrences = recurrenceExpander.occurrences(recurrence, start, end, from.minusNanos(1), to, 1);
+        return occurrences.isEmpty() ? null : occurrences.get(0);
+    }
+
+    private void scheduleOccurrence(Long deadlineId, Instant occurrence) {
+        wheel.schedule(deadlineId, reminderTick(occurrence));
+        occurrences.put(deadlineId, occurrence);
+    }
+
+    private long reminderTick(Instant deadline) {
+        // Round up so that a reminder never fires before its time
+        return Math.ceilDiv(deadline.minus(reminderLead).toEpochMilli(), tickMillis);
     }
 
-    private void handleUpcomingDeadline(DeadlineEntity deadline) {
-        // TODO: Добавить логику уведомления пользователя
+    private void handleUpcomingDeadline(DeadlineEntity deadline, Instant occurrence) {
+        // Delivery is asynchronous, a slow channel never holds up the tick
+        notificationDispatcher.enqueue(new Notification(
+                reminderChannel, deadline.getUserId(), deadline.getDeadlineId(), deadline.getName(), occurrence));
     }
 }
@@ -0,0 +1,125 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineClaimsRepository;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.services.NotificationDispatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Multi-node reminder scheduling. Every node polls {@link DeadlineClaimsRepository} for batches of
+ * due reminders; batches are leased to one node at a time, so nodes split the work instead of
+ * repeating it, and leases of nodes that died expire after {@code deadlines.reminders.lease}.
+ * Works just as well with a single node.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "deadlines.reminders.mode", havingValue = "claim")
+public class DeadlineClaimScheduler implements ReminderScheduler {
+
+    private final DeadlineClaimsRepository claimsRepository;
+    private final RecurrenceExpander recurrenceExpander;
+    private final NotificationDispatcher notificationDispatcher;
+    private final String reminderChannel;
+    private final Duration reminderLead;
+    private final Duration lease;
+    private final int batchSize;
+    private final String nodeId;
+    private final ReminderMetrics metrics;
+
+    public DeadlineClaimScheduler(DeadlineClaimsRepository claimsRepository,
+                                  RecurrenceExpander recurrenceExpander,
+                                  NotificationDispatcher notificationDispatcher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${deadlines.reminders.channel:log}") String reminderChannel,
+                                  @Value("${deadlines.reminders.lead:30m}") Duration reminderLead,
+                                  @Value("${deadlines.reminders.lease:1m}") Duration lease,
+                                  @Value("${deadlines.reminders.claim-batch-size:500}") int batchSize,
+                                  @Value("${deadlines.reminders.node-id:}") String nodeId) {
+        this.claimsRepository = claimsRepository;
+        this.recurrenceExpander = recurrenceExpander;
+        this.notificationDispatcher = notificationDispatcher;
+        this.reminderChannel = reminderChannel;
+        this.reminderLead = reminderLead;
+        this.lease = lease;
+        this.batchSize = batchSize;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.metrics = new ReminderMetrics(meterRegistry, "claim");
+    }
+
+    @Scheduled(fixedDelayString = "${deadlines.reminders.claim-interval:1s}")
+    public void checkDeadlines() {
+        // Keep claiming while full batches come back, so a backlog drains at once
+        int claimed;
+        do {
+            long started = System.nanoTime();
+            Instant now = Instant.now();
+            List<DeadlineEntity> due = claimsRepository.claimDue(nodeId, now, now.plus(reminderLead), now.plus(lease), batchSize);
+            claimed = due.size();
+            for (DeadlineEntity deadline : due) {
+                handleUpcomingDeadline(deadline, deadline.getDeadline());
+                metrics.recordFired(deadline.getDeadline().minus(reminderLead), Instant.now());
+            }
+            claimsRepository.complete(nodeId, due.stream().map(DeadlineEntity::getDeadlineId).toList(), Instant.now());
+            metrics.recordLoad(started, claimed);
+        } while (claimed == batchSize);
+
+        // Later occurrences of recurring deadlines, each row moved on to its next one
+        do {
+            long started = System.nanoTime();
+            Instant now = Instant.now();
+            List<DeadlineEntity> due = claimsRepository.claimDueOccurrences(nodeId, now, now.plus(reminderLead), now.plus(lease), batchSize);
+            claimed = due.size();
+            Map<Long, Instant> nextOccurrences = new HashMap<>();
+            for (DeadlineEntity deadline : due) {
+                Instant occurrence = deadline.getNextOccurrence();
+                // Occurrences that passed while no node was running are skipped, like one-off reminders are
+                if (occurrence.isAfter(now)) {
+                    handleUpcomingDeadline(deadline, occurrence);
+                    metrics.recordFired(occurrence.minus(reminderLead), Instant.now());
+                }
+                nextOccurrences.put(deadline.getDeadlineId(), recurrenceExpander.next(deadline.getRecurrence(),
+                        deadline.getDeadline(), deadline.getRecurrenceEnd(), occurrence.isAfter(now) ? occurrence : now));
+            }
+            claimsRepository.advance(nodeId, nextOccurrences);
+            metrics.recordLoad(started, claimed);
+        } while (claimed == batchSize);
+    }
+
+    // New and deleted rows are seen by the next poll, there is no local state to update
+    @Override
+    public void onDeadlineCreated(DeadlineEntity deadline) {
+    }
+
+    @Override
+    public void onDeadlineDeleted(Long deadlineId) {
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    private void handleUpcomingDeadline(DeadlineEntity deadline, Instant occurrence) {
+        notificationDispatcher.enqueue(new Notification(
+                reminderChannel, deadline.getUserId(), deadline.getDeadlineId(), deadline.getName(), occurrence));
+    }
+
+    private static String defaultNodeId() {
+        // pid@host plus a random suffix: containers often reuse both the pid and the host name
+        return ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,52 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters shared by both reminder schedulers, tagged with the scheduler mode.
+ * <ul>
+ *     <li>{@code deadlines.reminders.load}: duration of each {@code checkDeadlines} run</li>
+ *     <li>{@code deadlines.reminders.load.rows}: rows read by each run</li>
+ *     <li>{@code deadlines.reminders.lag}: how late a reminder is handed over for delivery,
+ *     i.e. the actual fire time minus the time it was due ({@code deadline - lead})</li>
+ * </ul>
+ */
+final class ReminderMetrics {
+
+    private final Timer load;
+    private final DistributionSummary loadRows;
+    private final Timer lag;
+
+    ReminderMetrics(MeterRegistry meterRegistry, String mode) {
+        this.load = Timer.builder("deadlines.reminders.load")
+                .description("Duration of a reminder load")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.loadRows = DistributionSummary.builder("deadlines.reminders.load.rows")
+                .description("Deadlines read by a reminder load")
+                .tag("mode", mode)
+                .register(meterRegistry);
+        this.lag = Timer.builder("deadlines.reminders.lag")
+                .description("Fire time of a reminder minus the time it was due")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    void recordLoad(long startedNanos, int rows) {
+        load.record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+        loadRows.record(rows);
+    }
+
+    void recordFired(Instant dueAt, Instant firedAt) {
+        Duration late = Duration.between(dueAt, firedAt);
+        lag.record(late.isNegative() ? Duration.ZERO : late);
+    }
+}
@@ -0,0 +1,15 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+
+/**
+ * Reminder scheduling strategy, selected with {@code deadlines.reminders.mode}:
+ * {@code wheel} (default) keeps reminders in memory on a single node,
+ * {@code claim} shares the work between nodes through leases in the database.
+ */
+public interface ReminderScheduler {
+
+    void onDeadlineCreated(DeadlineEntity deadline);
+
+    void onDeadlineDeleted(Long deadlineId);
+}
@@ -0,0 +1,172 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel keyed by deadline id.
+ * <p>
+ * Level 0 has one slot per tick, every next level has slots {@code 2^bits} times wider.
+ * An entry is placed on the lowest level whose parent slot it shares with the current tick,
+ * and cascades one level down each time the wheel reaches the start of its slot, so
+ * scheduling, cancelling and expiring are all O(1) no matter how many entries are held.
+ * Entries further away than the whole wheel wait in an overflow list.
+ * <p>
+ * Memory per scheduled entry is fixed: one {@link Entry} (header, two longs, two ints and
+ * two references, ~48 bytes with compressed oops) plus its index node in a {@link HashMap}
+ * (node, boxed key and table slot, ~56 bytes), i.e. about 104 bytes; TimingWheelBenchmark measures it
+ * with {@code -PjmhProfilers=gc}. The slot arrays themselves take {@code levels * 2^bits} references
+ * regardless of the load.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+final class TimingWheel {
+
+    private static final int OVERFLOW = -1;
+
+    private final int levels;
+    private final int bits;
+    private final long mask;
+    private final Entry[][] slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private Entry overflow;
+    private long currentTick;
+
+    TimingWheel(int levels, int bits, long startTick) {
+        if (levels < 1 || bits < 1 || (long) levels * bits >= 62) {
+            throw new IllegalArgumentException("Bad timing wheel geometry: " + levels + " levels of " + bits + " bits");
+        }
+        this.levels = levels;
+        this.bits = bits;
+        this.mask = (1L << bits) - 1;
+        this.slots = new Entry[levels][1 << bits];
+        this.currentTick = startTick;
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Schedules {@code id} to expire at {@code tick}, replacing its previous schedule.
+     * Ticks that are already due expire on the next advance.
+     */
+    void schedule(long id, long tick) {
+        cancel(id);
+        Entry entry = new Entry(id, Math.max(tick, currentTick + 1));
+        entries.put(id, entry);
+        insert(entry);
+    }
+
+    boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code tick}, passing the ids of expired entries to {@code expired}.
+     */
+    void advanceTo(long tick, LongConsumer expired) {
+        while (currentTick < tick) {
+            currentTick++;
+            if ((currentTick & spanMask(levels)) == 0) {
+                Entry head = overflow;
+                overflow = null;
+                reinsert(head);
+            }
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((currentTick & spanMask(level)) == 0) {
+                    int slot = (int) ((currentTick >>> (bits * level)) & mask);
+                    Entry head = slots[level][slot];
+                    slots[level][slot] = null;
+                    reinsert(head);
+                }
+            }
+
+            int slot = (int) (currentTick & mask);
+            Entry entry = slots[0][slot];
+            slots[0][slot] = null;
+            while (entry != null) {
+                Entry next = entry.next;
+                entries.remove(entry.id);
+                expired.accept(entry.id);
+                entry = next;
+            }
+        }
+    }
+
+    private long spanMask(int level) {
+        return (1L << (bits * level)) - 1;
+    }
+
+    private void reinsert(Entry entry) {
+        while (entry != null) {
+            Entry next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            insert(entry);
+            entry = next;
+        }
+    }
+
+    private void insert(Entry entry) {
+        long tick = entry.tick;
+        for (int level = 0; level < levels; level++) {
+            int parentShift = bits * (level + 1);
+            if ((tick >>> parentShift) == (currentTick >>> parentShift)) {
+                entry.level = level;
+                entry.slot = (int) ((tick >>> (bits * level)) & mask);
+                entry.next = slots[level][entry.slot];
+                if (entry.next != null) {
+                    entry.next.prev = entry;
+                }
+                slots[level][entry.slot] = entry;
+                return;
+            }
+        }
+        entry.level = OVERFLOW;
+        entry.next = overflow;
+        if (overflow != null) {
+            overflow.prev = entry;
+        }
+        overflow = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (entry.level == OVERFLOW) {
+            overflow = entry.next;
+        } else {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final long tick;
+        private int level;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
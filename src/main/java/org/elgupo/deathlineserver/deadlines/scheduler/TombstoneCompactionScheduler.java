@@ -0,0 +1,54 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineSyncRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Removes tombstones of deleted deadlines once they are older than {@code deadlines.sync.tombstone-retention},
+ * in batches of {@code deadlines.sync.compaction-batch-size} rows, each in its own short transaction.
+ * Safe to run on every node: batches of concurrent nodes at worst find nothing left to remove.
+ */
+@Slf4j
+@Component
+public class TombstoneCompactionScheduler {
+
+    private final DeadlineSyncRepository syncRepository;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter compactedCounter;
+
+    public TombstoneCompactionScheduler(DeadlineSyncRepository syncRepository,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${deadlines.sync.tombstone-retention:30d}") Duration retention,
+                                        @Value("${deadlines.sync.compaction-batch-size:1000}") int batchSize) {
+        this.syncRepository = syncRepository;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.compactedCounter = Counter.builder("deadlines.tombstones.compacted")
+                .description("Tombstones of deleted deadlines removed after the retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${deadlines.sync.compaction-interval:1h}")
+    public void compactTombstones() {
+        Instant before = Instant.now().minus(retention);
+        long total = 0;
+        int removed;
+        do {
+            removed = syncRepository.deleteTombstones(before, batchSize);
+            compactedCounter.increment(removed);
+            total += removed;
+        } while (removed == batchSize);
+        if (total > 0) {
+            log.info("Compacted {} tombstones deleted before {}", total, before);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs cache invalidations once the current transaction is over, or right away outside of one.
+ * Invalidating only before the commit would let a concurrent reader cache the old rows again.
+ */
+final class AfterCompletion {
+
+    private AfterCompletion() {
+    }
+
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.elgupo.deathlineserver.deadlines.InvalidCursorException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * Position in the (deadline, deadline_id) ordering of a user's deadlines.
+ * Clients only ever see the opaque {@link #encode()} form.
+ */
+public record DeadlineCursor(Instant deadline, Long deadlineId) implements Comparable<DeadlineCursor> {
+
+    public static DeadlineCursor after(DeadlineDto deadline) {
+        return new DeadlineCursor(deadline.getDeadline(), deadline.getDeadlineId());
+    }
+
+    public String encode() {
+        String raw = deadline.getEpochSecond() + ":" + deadline.getNano() + ":" + deadlineId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static DeadlineCursor decode(String encoded) throws InvalidCursorException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException();
+            }
+            Instant deadline = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new DeadlineCursor(deadline, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    @Override
+    public int compareTo(DeadlineCursor other) {
+        int byDeadline = deadline.compareTo(other.deadline);
+        return byDeadline != 0 ? byDeadline : deadlineId.compareTo(other.deadlineId);
+    }
+}
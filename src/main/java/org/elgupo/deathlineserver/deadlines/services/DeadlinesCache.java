@@ -0,0 +1,120 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of each user's full deadline list, ordered by deadline.
+ * <p>
+ * Bounded by the total number of cached deadlines ({@code deadlines.cache.max-deadlines}),
+ * with Caffeine's W-TinyLFU eviction. A load that raced a write is never stored: loads remember the
+ * write generation of the user before reading the database and are only stored if it did not move,
+ * and writes bump the generation under the same per-key lock that stores loads.
+ * <p>
+ * The cache is per node; {@code deadlines.cache.expire-after-write} bounds how long writes
+ * made through other nodes can go unseen.
+ */
+@Component
+public class DeadlinesCache implements MeterBinder {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, List<DeadlineDto>> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public DeadlinesCache(@Value("${deadlines.cache.max-deadlines:200000}") long maxDeadlines,
+                          @Value("${deadlines.cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxDeadlines)
+                .weigher((Long userId, List<DeadlineDto> deadlines) -> deadlines.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public List<DeadlineDto> get(Long userId, Function<Long, List<DeadlineDto>> loader) {
+        List<DeadlineDto> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = generations.get(stripe(userId));
+        List<DeadlineDto> loaded = List.copyOf(loader.apply(userId));
+        cache.asMap().compute(userId, (id, current) -> generations.get(stripe(id)) == generation ? loaded : current);
+        return loaded;
+    }
+
+    /**
+     * Returns the cached deadlines strictly between {@code from} and {@code to} (either may be null),
+     * or null if the user's list is not cached.
+     */
+    public List<DeadlineDto> getRangeIfPresent(Long userId, Instant from, Instant to) {
+        List<DeadlineDto> cached = cache.getIfPresent(userId);
+        if (cached == null) {
+            return null;
+        }
+        int start = from == null ? 0 : firstIndex(cached, from, true);
+        int end = to == null ? cached.size() : firstIndex(cached, to, false);
+        return start >= end ? List.of() : cached.subList(start, end);
+    }
+
+    /**
+     * Drops the user's list. Must be called after the write is committed (and may be called before as well).
+     */
+    public void invalidate(Long userId) {
+        cache.asMap().compute(userId, (id, current) -> {
+            generations.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "deadlines");
+    }
+
+    long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    // Index of the first deadline at or after 'instant', or strictly after it with skipEqual
+    private static int firstIndex(List<DeadlineDto> deadlines, Instant instant, boolean skipEqual) {
+        int low = 0;
+        int high = deadlines.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = deadlines.get(mid).getDeadline().compareTo(instant);
+            if (comparison < 0 || (skipEqual && comparison == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId * 0x9E3779B97F4A7C15L) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,21 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * Published by every write to a user's deadlines, and delivered to listeners once it is committed.
+ * {@code version} is the user's new deadlines version (the list ETag and the change_seq of the rows).
+ * {@code created} and {@code deleted} are null when the write does not know its rows (range deletes,
+ * imports); clients then catch up with delta sync.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record DeadlinesChangedEvent(@JsonIgnore Long userId,
+                                    @JsonProperty("version") long version,
+                                    @JsonProperty("created") List<DeadlineDto> created,
+                                    @JsonProperty("deleted") List<Long> deleted) {
+}
@@ -0,0 +1,118 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineExportRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Writes all deadlines of a user as NDJSON or CSV while they are read, one row at a time,
+ * so memory use does not depend on how many there are.
+ */
+@Service
+public class DeadlinesExporter {
+
+    static final String CSV_HEADER = "deadline_id,deadline_name,deadline_description,deadline\r\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DeadlineExportRepository exportRepository;
+    private final JsonFactory jsonFactory;
+    private final ObjectWriter deadlineWriter;
+
+    public DeadlinesExporter(DeadlineExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        // Lines are separated by hand, and the response is flushed when the buffer fills, not per row
+        this.jsonFactory = objectMapper.getFactory().copy().setRootValueSeparator(null);
+        this.deadlineWriter = objectMapper.writerFor(DeadlineDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * One JSON object per line, in the same format as the other endpoints.
+     */
+    public void writeNdjson(Long userId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(StreamUtils.nonClosing(out))) {
+            forEachDeadline(userId, deadline -> {
+                deadlineWriter.writeValue(generator, deadline);
+                generator.writeRaw('\n');
+            });
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header line; instants are ISO-8601 in UTC.
+     */
+    public void writeCsv(Long userId, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(StreamUtils.nonClosing(out), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            writer.write(CSV_HEADER);
+            forEachDeadline(userId, deadline -> {
+                writer.write(String.valueOf(deadline.getDeadlineId()));
+                writer.write(',');
+                writeCsvField(writer, deadline.getName());
+                writer.write(',');
+                writeCsvField(writer, deadline.getDescription());
+                writer.write(',');
+                if (deadline.getDeadline() != null) {
+                    writer.write(deadline.getDeadline().toString());
+                }
+                writer.write("\r\n");
+            });
+        }
+    }
+
+    private void forEachDeadline(Long userId, RowWriter rowWriter) throws IOException {
+        try {
+            exportRepository.forEachDeadlineOfUser(userId, uncheckedIO(rowWriter));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Consumer<DeadlineDto> uncheckedIO(RowWriter rowWriter) {
+        return deadline -> {
+            try {
+                rowWriter.write(deadline);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(DeadlineDto deadline) throws IOException;
+    }
+}
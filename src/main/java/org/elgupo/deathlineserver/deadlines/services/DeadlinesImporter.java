@@ -0,0 +1,166 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.ImportResultDto;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceRule;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.deadlines.scheduler.ReminderScheduler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports the VEVENTs of an iCalendar stream as deadlines, {@code deadlines.import.batch-size}
+ * events at a time: each batch drops the UIDs the user already has with one query and is inserted
+ * as JDBC batches in its own transaction. Only one batch is ever in memory, and an interrupted
+ * import can simply be repeated, since already imported events are skipped by UID.
+ * <p>
+ * Progress is logged per batch and counted in {@code deadlines.imported}. An event's RRULE makes it a
+ * recurring deadline when {@link RecurrenceRule} supports it.
+ */
+@Slf4j
+@Service
+public class DeadlinesImporter {
+
+    private final DeadlinesRepository deadlinesRepository;
+    private final ReminderScheduler reminderScheduler;
+    private final DeadlinesCache deadlinesCache;
+    private final DeadlinesVersions deadlinesVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final Counter importedCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+
+    public DeadlinesImporter(DeadlinesRepository deadlinesRepository, ReminderScheduler reminderScheduler,
+                             DeadlinesCache deadlinesCache, DeadlinesVersions deadlinesVersions,
+                             ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                             EntityManager entityManager, MeterRegistry meterRegistry,
+                             @Value("${deadlines.import.batch-size:500}") int batchSize) {
+        this.deadlinesRepository = deadlinesRepository;
+        this.reminderScheduler = reminderScheduler;
+        this.deadlinesCache = deadlinesCache;
+        this.deadlinesVersions = deadlinesVersions;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.importedCounter = meterRegistry.counter("deadlines.imported", "result", "imported");
+        this.duplicateCounter = meterRegistry.counter("deadlines.imported", "result", "duplicate");
+        this.invalidCounter = meterRegistry.counter("deadlines.imported", "result", "invalid");
+    }
+
+    public ImportResultDto importIcs(Long userId, InputStream calendar) throws IOException, InvalidCalendarException {
+        IcsEventReader reader = new IcsEventReader(new InputStreamReader(calendar, StandardCharsets.UTF_8));
+        Instant now = Instant.now();
+        List<DeadlineEntity> batch = new ArrayList<>(batchSize);
+        // The deadlines of the batch whose summary was cut to fit deadline_name
+        Set<DeadlineEntity> truncated = new HashSet<>();
+        long[] counts = new long[4];
+        IcsEventReader.IcsEvent event;
+        while ((event = reader.next()) != null) {
+            if (event.summary() == null || event.summary().isBlank() || event.start() == null
+                    || (event.uid() != null && event.uid().length() > DeadlinesService.MAX_EXTERNAL_UID_LENGTH)) {
+                counts[2]++;
+                invalidCounter.increment();
+                continue;
+            }
+            DeadlineEntity deadline = new DeadlineEntity(userId, truncate(event.summary(), DeadlinesService.MAX_NAME_LENGTH),
+                    event.description(), event.start(), now);
+            deadline.setExternalUid(event.uid());
+            if (event.recurrence() != null) {
+                recur(deadline, event.recurrence());
+            }
+            if (deadline.getName().length() < event.summary().length()) {
+                truncated.add(deadline);
+            }
+            batch.add(deadline);
+            if (batch.size() == batchSize) {
+                insertBatch(userId, batch, truncated, counts);
+            }
+        }
+        insertBatch(userId, batch, truncated, counts);
+        log.info("Imported calendar for user {}: {} deadlines, {} duplicates, {} invalid, {} with a truncated summary",
+                userId, counts[0], counts[1], counts[2], counts[3]);
+        return new ImportResultDto(counts[0], counts[1], counts[2], counts[3]);
+    }
+
+    private void insertBatch(Long userId, List<DeadlineEntity> batch, Set<DeadlineEntity> truncated, long[] counts) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<DeadlineEntity> saved = transactionTemplate.execute(status -> {
+            // Taken first, so that concurrent imports of the same user see each other's UIDs
+            long changeSeq = deadlinesVersions.lockNext(userId);
+            Set<String> seen = new HashSet<>(batch.size() * 2);
+            List<String> uids = batch.stream().map(DeadlineEntity::getExternalUid).filter(Objects::nonNull).toList();
+            if (!uids.isEmpty()) {
+                seen.addAll(deadlinesRepository.findExternalUids(userId, uids));
+            }
+            List<DeadlineEntity> fresh = new ArrayList<>(batch.size());
+            for (DeadlineEntity deadline : batch) {
+                if (deadline.getExternalUid() == null || seen.add(deadline.getExternalUid())) {
+                    fresh.add(deadline);
+                }
+            }
+            if (!fresh.isEmpty()) {
+                fresh.forEach(deadline -> deadline.setChangeSeq(changeSeq));
+                deadlinesRepository.saveAll(fresh);
+                deadlinesVersions.advance(userId, changeSeq);
+                // Like every other write, so that no list older than the new version is served under its ETag
+                deadlinesCache.invalidate(userId);
+                AfterCompletion.run(() -> deadlinesCache.invalidate(userId));
+                eventPublisher.publishEvent(new DeadlinesChangedEvent(userId, changeSeq, null, null));
+            }
+            // Keeps the persistence context from growing with the file when it outlives the transaction
+            entityManager.flush();
+            entityManager.clear();
+            return fresh;
+        });
+        for (DeadlineEntity deadline : saved) {
+            reminderScheduler.onDeadlineCreated(deadline);
+        }
+        long duplicates = batch.size() - saved.size();
+        counts[0] += saved.size();
+        counts[1] += duplicates;
+        counts[3] += saved.stream().filter(truncated::contains).count();
+        importedCounter.increment(saved.size());
+        duplicateCounter.increment(duplicates);
+        log.debug("Calendar import for user {}: {} deadlines so far", userId, counts[0]);
+        batch.clear();
+        truncated.clear();
+    }
+
+    // Rules beyond what RecurrenceRule supports leave the event as a one-off deadline, as before recurrences existed
+    private static void recur(DeadlineEntity deadline, String recurrence) {
+        try {
+            DeadlinesService.recur(deadline, RecurrenceRule.parse(recurrence));
+        } catch (InvalidRecurrenceException e) {
+            log.debug("Importing '{}' without its recurrence: {}", deadline.getName(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String text, int maxLength) {
+        return text == null || text.length() <= maxLength ? text : text.substring(0, maxLength);
+    }
+}
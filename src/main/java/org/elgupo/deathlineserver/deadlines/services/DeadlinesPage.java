@@ -0,0 +1,11 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+
+/**
+ * One keyset page of deadlines; {@code next} is null on the last page.
+ */
+public record DeadlinesPage(List<DeadlineDto> deadlines, DeadlineCursor next) {
+}
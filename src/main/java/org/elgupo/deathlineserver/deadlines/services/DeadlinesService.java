@@ -1,44 +1,354 @@
 package org.elgupo.deathlineserver.deadlines.services;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.TooManyDeadlinesException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateItemDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateResultDto;
 import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceRule;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineReadRepository;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.deadlines.repository.RecurringDeadline;
+import org.elgupo.deathlineserver.deadlines.scheduler.ReminderScheduler;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DeadlinesService {
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_SIZE = 1000;
+    public static final int MAX_BULK_DELETE_SIZE = 10_000;
+    // deadline_name is varchar(200) and external_uid varchar(255); the description is text, without a limit
+    static final int MAX_NAME_LENGTH = 200;
+    static final int MAX_EXTERNAL_UID_LENGTH = 255;
+    private static final Comparator<DeadlineDto> BY_DEADLINE =
+            Comparator.comparing(DeadlineDto::getDeadline).thenComparing(DeadlineDto::getDeadlineId);
+
     private final DeadlinesRepository deadlinesRepository;
+    private final DeadlineReadRepository readRepository;
+    private final ReminderScheduler reminderScheduler;
+    private final DeadlinesCache deadlinesCache;
+    private final DeadlinesVersions deadlinesVersions;
+    private final RecurrenceExpander recurrenceExpander;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public DeadlinesService(DeadlinesRepository deadlinesRepository) {
+    public DeadlinesService(DeadlinesRepository deadlinesRepository, DeadlineReadRepository readRepository,
+                            ReminderScheduler reminderScheduler, DeadlinesCache deadlinesCache,
+                            DeadlinesVersions deadlinesVersions, RecurrenceExpander recurrenceExpander,
+                            ApplicationEventPublisher eventPublisher) {
         this.deadlinesRepository = deadlinesRepository;
+        this.readRepository = readRepository;
+        this.reminderScheduler = reminderScheduler;
+        this.deadlinesCache = deadlinesCache;
+        this.deadlinesVersions = deadlinesVersions;
+        this.recurrenceExpander = recurrenceExpander;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Version of the user's deadlines, raised by every create and delete; usually answered from memory.
+     */
+    public long getDeadlinesVersion(Long userId) {
+        return deadlinesVersions.current(userId);
+    }
+
+    /**
+     * The UTC day whose expansion window a list with an open end was built for, or null when both ends are
+     * given and the list does not depend on when it is read. Open lists change at midnight without any write.
+     */
+    public String getExpansionWindow(Instant from, Instant to) {
+        return from != null && to != null ? null : LocalDate.ofInstant(windowStart(), ZoneOffset.UTC).toString();
     }
+
+    /**
+     * Deadlines strictly between {@code from} and {@code to}, either of which may be null. Recurring deadlines
+     * are expanded into their occurrences in the range, each with the id of the series; open ends only reach
+     * upcoming occurrences, from the start of today (UTC) to the recurrence horizon after it.
+     */
     public List<DeadlineDto> getDeadlinesForUser(Long userId, Instant from, Instant to) {
-        if (from == null && to == null){
-            return deadlinesRepository.findByUserId(userId);
+        if (from == null && to == null) {
+            return deadlinesCache.get(userId, id -> withOccurrences(id, readRepository.findByUserId(id), null, null));
+        }
+
+        // A cached full list is sliced in memory, a miss does not load the whole history for one range
+        if (withinCachedWindow(from, to)) {
+            List<DeadlineDto> cached = deadlinesCache.getRangeIfPresent(userId, from, to);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return withOccurrences(userId, readRepository.findByUserIdBetween(userId, from, to), from, to);
+    }
+    /**
+     * Returns the page that starts right after {@code cursor} (or at the beginning of the range).
+     * Every page is a single index range scan on (user_id, deadline, deadline_id), however deep it is.
+     */
+    public DeadlinesPage getDeadlinesPageForUser(Long userId, Instant from, Instant to, DeadlineCursor cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // 'from' is exclusive, so it is the same as a cursor placed after every row at that instant
+        DeadlineCursor after = cursor;
+        if (from != null) {
+            DeadlineCursor fromCursor = new DeadlineCursor(from, Long.MAX_VALUE);
+            if (after == null || after.compareTo(fromCursor) < 0) {
+                after = fromCursor;
+            }
+        }
+
+        List<DeadlineDto> rows = after == null
+                ? readRepository.findPageByUserId(userId, null, null, to, pageSize + 1)
+                : readRepository.findPageByUserId(userId, after.deadline(), after.deadlineId(), to, pageSize + 1);
+
+        // Occurrences share the id of their series, so (deadline, deadline_id) still orders them without ties.
+        // Without 'from' they are the upcoming ones like in the full list, however far back the cursor is
+        boolean upcoming = from == null && (after == null || after.deadline().isBefore(windowStart()));
+        List<DeadlineDto> occurrences = occurrences(userId, upcoming ? null : after.deadline().minusNanos(1), to, pageSize + 1);
+        if (!occurrences.isEmpty()) {
+            List<DeadlineDto> merged = new ArrayList<>(rows);
+            for (DeadlineDto occurrence : occurrences) {
+                if (after == null || DeadlineCursor.after(occurrence).compareTo(after) > 0) {
+                    merged.add(occurrence);
+                }
+            }
+            merged.sort(BY_DEADLINE);
+            rows = merged.size() > pageSize + 1 ? merged.subList(0, pageSize + 1) : merged;
+        }
+
+        if (rows.size() <= pageSize) {
+            return new DeadlinesPage(rows, null);
+        }
+        List<DeadlineDto> page = rows.subList(0, pageSize);
+        return new DeadlinesPage(page, DeadlineCursor.after(page.get(pageSize - 1)));
+    }
+
+    @Transactional
+    public DeadlineEntity createDeadlineForUser(Long userId, DeadlineDto deadline) {
+        return create(userId, deadline, null);
+    }
+
+    /**
+     * Creates a deadline that repeats by {@code recurrence}, an RRULE (see {@link RecurrenceRule}), or a plain
+     * one without it. The row is stored once and the deadline is its first occurrence.
+     */
+    @Transactional
+    public DeadlineEntity createDeadlineForUser(Long userId, DeadlineDto deadline, String recurrence) throws InvalidRecurrenceException {
+        if (recurrence == null) {
+            return create(userId, deadline, null);
+        }
+        RecurrenceRule rule = RecurrenceRule.parse(recurrence);
+        if (deadline.getDeadline() == null) {
+            throw new InvalidRecurrenceException("the first occurrence is missing");
+        }
+        return create(userId, deadline, rule);
+    }
+
+    private DeadlineEntity create(Long userId, DeadlineDto deadline, RecurrenceRule rule) {
+        long changeSeq = deadlinesVersions.lockNext(userId);
+        DeadlineEntity entity = new DeadlineEntity(userId, deadline.getName(), deadline.getDescription(), deadline.getDeadline(), Instant.now());
+        if (rule != null) {
+            recur(entity, rule);
+        }
+        entity.setChangeSeq(changeSeq);
+        DeadlineEntity saved = deadlinesRepository.save(entity);
+        changed(userId, changeSeq, List.of(toDto(saved)), null);
+        reminderScheduler.onDeadlineCreated(saved);
+        return saved;
+    }
+    /**
+     * Saves the valid deadlines in one transaction; with sequence ids and hibernate.jdbc.batch_size
+     * they go out as JDBC batches instead of one insert and round trip per row.
+     */
+    @Transactional
+    public BulkCreateResultDto createDeadlinesForUser(Long userId, List<DeadlineDto> deadlines) throws TooManyDeadlinesException {
+        if (deadlines.size() > MAX_BULK_SIZE) {
+            throw new TooManyDeadlinesException(MAX_BULK_SIZE);
+        }
+
+        Instant now = Instant.now();
+        BulkCreateItemDto[] items = new BulkCreateItemDto[deadlines.size()];
+        List<DeadlineEntity> valid = new ArrayList<>(deadlines.size());
+        List<Integer> validIndexes = new ArrayList<>(deadlines.size());
+        for (int i = 0; i < deadlines.size(); i++) {
+            DeadlineDto deadline = deadlines.get(i);
+            String error = validate(deadline);
+            if (error != null) {
+                items[i] = new BulkCreateItemDto(i, null, error);
+            } else {
+                valid.add(new DeadlineEntity(userId, deadline.getName(), deadline.getDescription(), deadline.getDeadline(), now));
+                validIndexes.add(i);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            long changeSeq = deadlinesVersions.lockNext(userId);
+            valid.forEach(entity -> entity.setChangeSeq(changeSeq));
+            List<DeadlineEntity> saved = new ArrayList<>(valid.size());
+            deadlinesRepository.saveAll(valid).forEach(saved::add);
+            List<DeadlineDto> created = new ArrayList<>(saved.size());
+            for (int i = 0; i < saved.size(); i++) {
+                DeadlineEntity entity = saved.get(i);
+                reminderScheduler.onDeadlineCreated(entity);
+                created.add(toDto(entity));
+                items[validIndexes.get(i)] = new BulkCreateItemDto(validIndexes.get(i), created.get(i), null);
+            }
+            changed(userId, changeSeq, created, null);
         }
-        else if (from == null) {
-            return deadlinesRepository.findByUserId(userId).stream()
-                    .filter(deadline -> deadline.getDeadline().isBefore(to))
-                    .toList();
+        return new BulkCreateResultDto(valid.size(), items.length - valid.size(), Arrays.asList(items));
+    }
+
+    private static String validate(DeadlineDto deadline) {
+        if (deadline == null) {
+            return "Missing deadline";
+        }
+        if (deadline.getName() == null || deadline.getName().isBlank()) {
+            return "Missing deadline_name";
+        }
+        if (deadline.getName().length() > MAX_NAME_LENGTH) {
+            return "deadline_name is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (deadline.getDeadline() == null) {
+            return "Missing deadline time";
+        }
+        return null;
+    }
+    @Transactional
+    public void deleteDeadlineForUser(Long userId, Long deadlineId) {
+        long changeSeq = deadlinesVersions.lockNext(userId);
+        // Scoped to the user, deadlines of other users are left alone
+        if (deadlinesRepository.deleteByUserIdAndDeadlineIds(userId, new Long[]{deadlineId}, changeSeq, Instant.now()) > 0) {
+            changed(userId, changeSeq, null, List.of(deadlineId));
+            reminderScheduler.onDeadlineDeleted(deadlineId);
+        }
+    }
+
+    /**
+     * Deletes the user's deadlines among {@code deadlineIds} in one statement and returns how many there were.
+     */
+    @Transactional
+    public int deleteDeadlinesForUser(Long userId, List<Long> deadlineIds) throws TooManyDeadlinesException {
+        Long[] ids = deadlineIds.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (ids.length > MAX_BULK_DELETE_SIZE) {
+            throw new TooManyDeadlinesException(MAX_BULK_DELETE_SIZE);
+        }
+        if (ids.length == 0) {
+            return 0;
+        }
+        long changeSeq = deadlinesVersions.lockNext(userId);
+        int deleted = deadlinesRepository.deleteByUserIdAndDeadlineIds(userId, ids, changeSeq, Instant.now());
+        if (deleted > 0) {
+            // Which ids were the user's is only known when all of them were
+            changed(userId, changeSeq, null, deleted == ids.length ? Arrays.asList(ids) : null);
         }
-        else if (to == null) {
-            return deadlinesRepository.findByUserId(userId).stream()
-                    .filter(deadline -> deadline.getDeadline().isAfter(from))
-                    .toList();
+        // Only when every id was the user's: a reminder that is not cancelled finds its row gone and is skipped
+        if (deleted == ids.length) {
+            for (Long id : ids) {
+                reminderScheduler.onDeadlineDeleted(id);
+            }
         }
-        return deadlinesRepository.findByUserId(userId).stream()
-                .filter(deadline -> deadline.getDeadline().isAfter(from) && deadline.getDeadline().isBefore(to))
-                .toList();
+        return deleted;
     }
-    public void createDeadlineForUser(Long userId, DeadlineDto deadline) {
-        deadlinesRepository.save(new DeadlineEntity(userId, deadline.getName(), deadline.getDescription(), deadline.getDeadline(), Instant.now()));
+
+    /**
+     * Deletes the user's deadlines in {@code (from, to)} in one statement; without {@code from}, everything before {@code to}.
+     */
+    @Transactional
+    public int deleteDeadlinesInRangeForUser(Long userId, Instant from, Instant to) {
+        long changeSeq = deadlinesVersions.lockNext(userId);
+        int deleted = from == null
+                ? deadlinesRepository.deleteByUserIdAndDeadlineBefore(userId, to, changeSeq, Instant.now())
+                : deadlinesRepository.deleteByUserIdAndDeadlineBetween(userId, from, to, changeSeq, Instant.now());
+        if (deleted > 0) {
+            changed(userId, changeSeq, null, null);
+        }
+        return deleted;
     }
-    public void deleteDeadlineForUser(Long deadlineId) {
-        deadlinesRepository.deleteByDeadlineId(deadlineId);
+    /**
+     * Makes the deadline the first occurrence of a series; the claim scheduler goes on from the one after it.
+     */
+    static void recur(DeadlineEntity entity, RecurrenceRule rule) {
+        Instant end = rule.end(entity.getDeadline());
+        Iterator<Instant> later = rule.occurrencesAfter(entity.getDeadline(), entity.getDeadline());
+        Instant next = later.hasNext() ? later.next() : null;
+        entity.setRecurrence(rule.toString());
+        entity.setRecurrenceEnd(end);
+        entity.setNextOccurrence(next == null || (end != null && next.isAfter(end)) ? null : next);
+    }
+
+    // Adds the occurrences of recurring deadlines in (from, to) to the rows of that range
+    private List<DeadlineDto> withOccurrences(Long userId, List<DeadlineDto> rows, Instant from, Instant to) {
+        List<DeadlineDto> occurrences = occurrences(userId, from, to, recurrenceExpander.maxOccurrences());
+        if (occurrences.isEmpty()) {
+            return rows;
+        }
+        List<DeadlineDto> merged = new ArrayList<>(rows.size() + occurrences.size());
+        merged.addAll(rows);
+        merged.addAll(occurrences);
+        merged.sort(BY_DEADLINE);
+        return merged;
+    }
+
+    // Occurrences after the first of each recurring deadline in (from, to), unordered, at most 'limit' per series.
+    // Open ends stop at the expansion window, so that infinite series are never expanded without a bound
+    private List<DeadlineDto> occurrences(Long userId, Instant from, Instant to, int limit) {
+        Instant start = windowStart();
+        Instant lower = from != null ? from : start;
+        Instant upper = to != null ? to : start.plus(recurrenceExpander.horizon());
+        if (!lower.isBefore(upper)) {
+            return List.of();
+        }
+        List<DeadlineDto> occurrences = new ArrayList<>();
+        for (RecurringDeadline recurring : readRepository.findRecurringByUserId(userId, lower, upper)) {
+            DeadlineDto first = recurring.first();
+            for (Instant occurrence : recurrenceExpander.occurrences(
+                    recurring.recurrence(), first.getDeadline(), recurring.end(), lower, upper, limit)) {
+                occurrences.add(new DeadlineDto(first.getDeadlineId(), first.getName(), first.getDescription(), occurrence));
+            }
+        }
+        return occurrences;
+    }
+
+    // The window moves once a day, so that open lists and their ETags stay the same for the whole day
+    private static Instant windowStart() {
+        return Instant.now().truncatedTo(ChronoUnit.DAYS);
+    }
+
+    // A cached full list holds the occurrences of its window; one loaded before midnight lives until it expires
+    private boolean withinCachedWindow(Instant from, Instant to) {
+        Instant start = windowStart();
+        return (from == null || !from.isBefore(start)) && (to == null || !to.isAfter(start.plus(recurrenceExpander.horizon())));
+    }
+
+    // Writes that touched nothing keep the version, so clients holding the ETag are not sent the same list again
+    private void changed(Long userId, long changeSeq, List<DeadlineDto> created, List<Long> deleted) {
+        deadlinesVersions.advance(userId, changeSeq);
+        deadlinesCache.invalidate(userId);
+        AfterCompletion.run(() -> deadlinesCache.invalidate(userId));
+        eventPublisher.publishEvent(new DeadlinesChangedEvent(userId, changeSeq, created, deleted));
+    }
+
+    private static DeadlineDto toDto(DeadlineEntity entity) {
+        return new DeadlineDto(entity.getDeadlineId(), entity.getName(), entity.getDescription(), entity.getDeadline());
+    }
+
+    public CacheStats getCacheStats() {
+        return deadlinesCache.stats();
     }
 }
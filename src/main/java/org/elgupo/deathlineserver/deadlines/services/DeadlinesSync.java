@@ -0,0 +1,71 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.SyncTokenExpiredException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.SyncResultDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineChange;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineSyncRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delta sync: the deadlines created or deleted since a client's {@link SyncToken}, read from the user's
+ * change log one index range scan at a time.
+ * <p>
+ * Tombstones are compacted after {@code deadlines.sync.tombstone-retention}, so tokens expire
+ * {@link #TOKEN_EXPIRY_MARGIN} before that; a client with an expired token has to sync from scratch.
+ */
+@Service
+public class DeadlinesSync {
+    // Covers writes that were stamped before a token was issued but committed after, and clock skew between nodes
+    static final Duration TOKEN_EXPIRY_MARGIN = Duration.ofHours(1);
+
+    private final DeadlineSyncRepository syncRepository;
+    private final Duration tokenTtl;
+
+    public DeadlinesSync(DeadlineSyncRepository syncRepository,
+                         @Value("${deadlines.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.syncRepository = syncRepository;
+        this.tokenTtl = tombstoneRetention.minus(TOKEN_EXPIRY_MARGIN);
+    }
+
+    /**
+     * Returns up to {@code limit} changes after {@code since}, or from the beginning without a token.
+     */
+    public SyncResultDto getChangesForUser(Long userId, SyncToken since, int limit) throws SyncTokenExpiredException {
+        Instant now = Instant.now();
+        if (since != null && since.issuedAt().isBefore(now.minus(tokenTtl))) {
+            throw new SyncTokenExpiredException();
+        }
+        int pageSize = Math.min(Math.max(limit, 1), DeadlinesService.MAX_PAGE_SIZE);
+        long afterSeq = since == null ? 0 : since.changeSeq();
+        long afterId = since == null ? 0 : since.deadlineId();
+
+        List<DeadlineChange> changes = syncRepository.findChanges(userId, afterSeq, afterId, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        if (hasMore) {
+            changes = changes.subList(0, pageSize);
+        }
+
+        List<DeadlineDto> changed = new ArrayList<>(changes.size());
+        List<Long> deleted = new ArrayList<>();
+        for (DeadlineChange change : changes) {
+            if (change.deleted()) {
+                deleted.add(change.deadline().getDeadlineId());
+            } else {
+                changed.add(change.deadline());
+            }
+        }
+        if (!changes.isEmpty()) {
+            DeadlineChange last = changes.get(changes.size() - 1);
+            afterSeq = last.changeSeq();
+            afterId = last.deadline().getDeadlineId();
+        }
+        return new SyncResultDto(changed, deleted, new SyncToken(afterSeq, afterId, now).encode(), hasMore);
+    }
+}
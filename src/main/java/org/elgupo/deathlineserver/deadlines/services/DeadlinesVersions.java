@@ -0,0 +1,74 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.elgupo.deathlineserver.users.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user version of the deadline list, stored in {@code users.deadlines_version} and raised by every write,
+ * so that an unchanged list can be recognized without reading it. The version of a write is also the
+ * {@code change_seq} of the rows it touched, which delta sync reads changes by.
+ * <p>
+ * A write locks the user's row with {@link #lockNext} and publishes its version with {@link #advance} in the
+ * same transaction, so the user's writes commit in version order and a reader never sees a version before
+ * the lower ones. Versions are cached per node and invalidated after the commit; writes made through
+ * other nodes are seen after {@code deadlines.versions.expire-after-write}.
+ */
+@Component
+public class DeadlinesVersions implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Long> versions;
+
+    public DeadlinesVersions(UserRepository userRepository,
+                             @Value("${deadlines.versions.max-users:100000}") long maxUsers,
+                             @Value("${deadlines.versions.expire-after-write:30s}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public long current(Long userId) {
+        return versions.get(userId, id -> {
+            Long version = userRepository.findDeadlinesVersion(id);
+            return version == null ? 0L : version;
+        });
+    }
+
+    /**
+     * Locks the user's version until the end of the current transaction and returns the version of its write.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long lockNext(Long userId) {
+        Long version = userRepository.lockDeadlinesVersion(userId);
+        return (version == null ? 0L : version) + 1;
+    }
+
+    /**
+     * Makes {@code version} (from {@link #lockNext}) current, once rows were written with it.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void advance(Long userId, long version) {
+        userRepository.updateDeadlinesVersion(userId, version);
+        // Now for readers in this transaction, and again once other transactions can see the new version
+        versions.invalidate(userId);
+        AfterCompletion.run(() -> versions.invalidate(userId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, versions, "deadlines.versions");
+    }
+}
@@ -0,0 +1,203 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+
+/**
+ * Pull parser for the VEVENTs of an iCalendar (RFC 5545) stream. Only the current event and line
+ * are held in memory, so a file of any size is read in constant space.
+ * <p>
+ * An event without a usable DTSTART or SUMMARY is returned with a null {@link IcsEvent#start()}
+ * or {@link IcsEvent#summary()}, so the caller can count it as invalid and go on. The RRULE, if any, is
+ * passed on unparsed.
+ */
+final class IcsEventReader {
+
+    // Lines are folded at 75 octets; anything near this is not a calendar
+    static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    record IcsEvent(String uid, String summary, String description, Instant start, String recurrence) {
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private String lookahead;
+    private boolean ended;
+
+    IcsEventReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Returns the next VEVENT, or null at the end of the stream.
+     */
+    IcsEvent next() throws IOException, InvalidCalendarException {
+        String line;
+        while ((line = nextLine()) != null) {
+            if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                return readEvent();
+            }
+        }
+        return null;
+    }
+
+    private IcsEvent readEvent() throws IOException, InvalidCalendarException {
+        String uid = null;
+        String summary = null;
+        String description = null;
+        Instant start = null;
+        String recurrence = null;
+        // Components nested in the event, such as VALARM, have properties of their own
+        int nested = 0;
+        String line;
+        while ((line = nextLine()) != null) {
+            int colon = valueStart(line);
+            if (colon < 0) {
+                continue;
+            }
+            int semicolon = line.indexOf(';');
+            String name = line.substring(0, semicolon >= 0 && semicolon < colon ? semicolon : colon);
+            String value = line.substring(colon + 1);
+            if (name.equalsIgnoreCase("BEGIN")) {
+                nested++;
+            } else if (name.equalsIgnoreCase("END")) {
+                if (nested == 0) {
+                    return new IcsEvent(uid, summary, description, start, recurrence);
+                }
+                nested--;
+            } else if (nested == 0) {
+                switch (name.toUpperCase(Locale.ROOT)) {
+                    case "UID" -> uid = value;
+                    case "SUMMARY" -> summary = unescape(value);
+                    case "DESCRIPTION" -> description = unescape(value);
+                    case "DTSTART" -> start = parseDateTime(line.substring(name.length(), colon), value);
+                    case "RRULE" -> recurrence = value;
+                    default -> {
+                    }
+                }
+            }
+        }
+        throw new InvalidCalendarException("VEVENT without END");
+    }
+
+    // Index of the ':' that ends the parameters; colons in quoted parameter values do not count
+    private static int valueStart(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * DATE, UTC and floating DATE-TIME values, with an optional TZID parameter; floating times are taken as UTC.
+     */
+    static Instant parseDateTime(String parameters, String value) {
+        try {
+            ZoneId zone = ZoneOffset.UTC;
+            for (String parameter : parameters.split(";")) {
+                if (parameter.regionMatches(true, 0, "TZID=", 0, 5)) {
+                    zone = ZoneId.of(parameter.substring(5).replace("\"", ""));
+                }
+            }
+            if (value.length() == 8) {
+                return LocalDate.parse(value, DATE).atStartOfDay(zone).toInstant();
+            }
+            if (value.endsWith("Z")) {
+                return LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME).toInstant(ZoneOffset.UTC);
+            }
+            return LocalDateTime.parse(value, DATE_TIME).atZone(zone).toInstant();
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder text = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    // Next content line, with folded continuation lines joined back
+    private String nextLine() throws IOException, InvalidCalendarException {
+        String line = lookahead != null ? lookahead : readPhysicalLine();
+        lookahead = null;
+        if (line == null) {
+            return null;
+        }
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readPhysicalLine()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(line);
+            }
+            unfolded.append(next, 1, next.length());
+            if (unfolded.length() > MAX_LINE_LENGTH) {
+                throw new InvalidCalendarException("line longer than " + MAX_LINE_LENGTH + " characters");
+            }
+        }
+        lookahead = next;
+        return unfolded == null ? line : unfolded.toString();
+    }
+
+    private String readPhysicalLine() throws IOException, InvalidCalendarException {
+        if (ended) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    ended = true;
+                    return line.isEmpty() ? null : line.toString();
+                }
+            }
+            char c = buffer[position++];
+            if (c == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() == MAX_LINE_LENGTH) {
+                throw new InvalidCalendarException("line longer than " + MAX_LINE_LENGTH + " characters");
+            }
+            line.append(c);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.elgupo.deathlineserver.deadlines.InvalidCursorException;
+
+/**
+ * Position in a user's change log, {@code (change_seq, deadline_id)} of the last change the client has,
+ * and when it was handed out. Clients only ever see the opaque {@link #encode()} form.
+ */
+public record SyncToken(long changeSeq, long deadlineId, Instant issuedAt) {
+
+    public String encode() {
+        String raw = changeSeq + ":" + deadlineId + ":" + issuedAt.getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static SyncToken decode(String encoded) throws InvalidCursorException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.US_ASCII);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException();
+            }
+            return new SyncToken(Long.parseLong(parts[0]), Long.parseLong(parts[1]), Instant.ofEpochSecond(Long.parseLong(parts[2])));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.elgupo.deathlineserver.notifications;
+
+import java.time.Instant;
+
+/**
+ * A reminder about one deadline, addressed to one user over one channel.
+ */
+public record Notification(String channel, Long userId, Long deadlineId, String deadlineName, Instant deadline) {
+}
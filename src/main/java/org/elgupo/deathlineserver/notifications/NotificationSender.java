@@ -0,0 +1,19 @@
+package org.elgupo.deathlineserver.notifications;
+
+import java.util.List;
+
+/**
+ * Delivery channel for notifications. Every {@code NotificationSender} bean is picked up
+ * by {@link org.elgupo.deathlineserver.notifications.services.NotificationDispatcher}
+ * and receives the notifications whose {@link Notification#channel()} matches {@link #channel()}.
+ */
+public interface NotificationSender {
+
+    String channel();
+
+    /**
+     * Delivers a batch of notifications of this channel.
+     * Throwing means the whole batch failed and will be retried.
+     */
+    void send(List<Notification> batch) throws Exception;
+}
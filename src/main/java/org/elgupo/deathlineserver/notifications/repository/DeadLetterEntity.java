@@ -0,0 +1,62 @@
+package org.elgupo.deathlineserver.notifications.repository;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "notification_dead_letters", schema = "public")
+@Entity
+public class DeadLetterEntity {
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @Column(name = "dead_letter_id")
+    private Long deadLetterId;
+
+    @Column(name = "channel")
+    private String channel;
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "deadline_id")
+    private Long deadlineId;
+    @Column(name = "deadline_name")
+    private String deadlineName;
+    @Column(name = "deadline")
+    private Instant deadline;
+    @Column(name = "attempts")
+    private Integer attempts;
+    @Column(name = "error")
+    private String error;
+    @Column(name = "failed_at")
+    private Instant failedAt;
+
+    public DeadLetterEntity(
+            String channel,
+            Long userId,
+            Long deadlineId,
+            String deadlineName,
+            Instant deadline,
+            Integer attempts,
+            String error,
+            Instant failedAt
+    ) {
+        this.channel = channel;
+        this.userId = userId;
+        this.deadlineId = deadlineId;
+        this.deadlineName = deadlineName;
+        this.deadline = deadline;
+        this.attempts = attempts;
+        this.error = error;
+        this.failedAt = failedAt;
+    }
+}
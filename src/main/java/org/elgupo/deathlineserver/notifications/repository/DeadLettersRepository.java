@@ -0,0 +1,10 @@
+package org.elgupo.deathlineserver.notifications.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeadLettersRepository extends CrudRepository<DeadLetterEntity, Long> {
+
+    long countByChannel(String channel);
+}
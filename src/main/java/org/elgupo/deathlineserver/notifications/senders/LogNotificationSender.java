@@ -0,0 +1,63 @@
+package org.elgupo.deathlineserver.notifications.senders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.NotificationSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stand-in channel that writes notifications to the log, or appends them to
+ * {@code notifications.log.file} when it is set.
+ */
+@Slf4j
+@Component
+public class LogNotificationSender implements NotificationSender {
+    public static final String CHANNEL = "log";
+
+    private final Path file;
+    private final ReentrantLock fileLock = new ReentrantLock();
+
+    public LogNotificationSender(@Value("${notifications.log.file:}") String file) {
+        this.file = file.isBlank() ? null : Path.of(file);
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void send(List<Notification> batch) throws IOException {
+        if (file == null) {
+            for (Notification notification : batch) {
+                log.info("Upcoming deadline {} for user {}: {} at {}",
+                        notification.deadlineId(), notification.userId(), notification.deadlineName(), notification.deadline());
+            }
+            return;
+        }
+
+        StringBuilder lines = new StringBuilder(batch.size() * 64);
+        for (Notification notification : batch) {
+            lines.append(notification.userId()).append('\t')
+                    .append(notification.deadlineId()).append('\t')
+                    .append(notification.deadline()).append('\t')
+                    .append(notification.deadlineName()).append('\n');
+        }
+        // A lock rather than synchronized: senders run on virtual threads, which must not block while pinned
+        fileLock.lock();
+        try {
+            Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+}
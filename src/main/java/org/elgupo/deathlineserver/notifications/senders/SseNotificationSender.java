@@ -0,0 +1,37 @@
+package org.elgupo.deathlineserver.notifications.senders;
+
+import java.util.List;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.NotificationSender;
+import org.elgupo.deathlineserver.notifications.sse.SseHub;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pushes reminders to the user's open event streams on this node. Users without one miss the reminder,
+ * which is not retried: a reconnecting client sees its upcoming deadlines in the list anyway.
+ */
+@Component
+public class SseNotificationSender implements NotificationSender {
+    public static final String CHANNEL = "sse";
+
+    private final SseHub hub;
+
+    public SseNotificationSender(SseHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public String channel() {
+        return CHANNEL;
+    }
+
+    @Override
+    public void send(List<Notification> batch) {
+        for (Notification notification : batch) {
+            hub.send(notification.userId(), SseHub.REMINDER_EVENT, null,
+                    new DeadlineDto(notification.deadlineId(), notification.deadlineName(), null, notification.deadline()));
+        }
+    }
+}
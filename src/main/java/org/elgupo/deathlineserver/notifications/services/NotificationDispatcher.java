@@ -0,0 +1,318 @@
+package org.elgupo.deathlineserver.notifications.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.NotificationSender;
+import org.elgupo.deathlineserver.notifications.repository.DeadLetterEntity;
+import org.elgupo.deathlineserver.notifications.repository.DeadLettersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Asynchronous delivery of notifications.
+ * <p>
+ * {@link #enqueue} never blocks: notifications go to their channel's bounded queue, and a notification
+ * that does not fit is handed to a separate thread to be dead-lettered. Every channel has its own
+ * dispatcher thread, which drains the channel's queue in batches and hands every batch to its own
+ * virtual thread. A channel has at most {@code notifications.max-in-flight-batches} batches in flight
+ * and sends at most {@code notifications.channels.<channel>.concurrency} of them at a time, so a slow
+ * or hung channel only holds up, and eventually fills, its own queue. Failed batches are retried with
+ * exponential backoff and go to the dead-letter table after {@code notifications.max-attempts} attempts.
+ * On shutdown, whatever is still queued is dead-lettered.
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher implements MeterBinder {
+
+    private record Rejected(Notification notification, String error) {
+    }
+
+    // One per sender, fixed at construction
+    private final class Channel {
+        private final NotificationSender sender;
+        private final BlockingQueue<Notification> queue;
+        private final Semaphore inFlightBatches;
+        private final Semaphore permits;
+        private Thread dispatcherThread;
+
+        private Channel(NotificationSender sender, int queueCapacity, int maxInFlightBatches, int concurrency) {
+            this.sender = sender;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.inFlightBatches = new Semaphore(maxInFlightBatches);
+            this.permits = new Semaphore(concurrency);
+        }
+    }
+
+    private final Map<String, Channel> channels = new LinkedHashMap<>();
+    private final DeadLettersRepository deadLettersRepository;
+    // Unbounded, but only ever holds what the channel queues rejected since the dead-letter thread last ran
+    private final BlockingQueue<Rejected> rejected = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private volatile int maxQueueDepth;
+
+    private ExecutorService deliveries;
+    private Thread deadLetterThread;
+    private volatile boolean running;
+
+    public NotificationDispatcher(List<NotificationSender> senders,
+                                  DeadLettersRepository deadLettersRepository,
+                                  Environment environment,
+                                  @Value("${notifications.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${notifications.batch-size:100}") int batchSize,
+                                  @Value("${notifications.max-in-flight-batches:64}") int maxInFlightBatches,
+                                  @Value("${notifications.channel-concurrency:8}") int defaultChannelConcurrency,
+                                  @Value("${notifications.max-attempts:5}") int maxAttempts,
+                                  @Value("${notifications.initial-backoff:500ms}") Duration initialBackoff,
+                                  @Value("${notifications.max-backoff:30s}") Duration maxBackoff) {
+        for (NotificationSender sender : senders) {
+            int concurrency = environment.getProperty("notifications.channels." + sender.channel() + ".concurrency",
+                    Integer.class, defaultChannelConcurrency);
+            channels.put(sender.channel(), new Channel(sender, queueCapacity, maxInFlightBatches, concurrency));
+        }
+        this.deadLettersRepository = deadLettersRepository;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        deliveries = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("notification-delivery-", 0).factory());
+        for (Map.Entry<String, Channel> channel : channels.entrySet()) {
+            channel.getValue().dispatcherThread = Thread.ofVirtual().name("notification-dispatcher-" + channel.getKey())
+                    .start(() -> dispatchLoop(channel.getKey(), channel.getValue()));
+        }
+        deadLetterThread = Thread.ofVirtual().name("notification-dead-letters").start(this::deadLetterLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Channel channel : channels.values()) {
+            channel.dispatcherThread.interrupt();
+            channel.dispatcherThread.join();
+        }
+        deliveries.shutdown();
+        if (!deliveries.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Interrupted deliveries dead-letter their own batches
+            log.warn("Notification deliveries still running on shutdown, interrupting them");
+            deliveries.shutdownNow();
+            deliveries.awaitTermination(1, TimeUnit.SECONDS);
+        }
+        deadLetterThread.interrupt();
+        deadLetterThread.join();
+        for (Map.Entry<String, Channel> channel : channels.entrySet()) {
+            List<Notification> queued = new ArrayList<>();
+            channel.getValue().queue.drainTo(queued);
+            if (!queued.isEmpty()) {
+                log.warn("Dead-lettering {} notifications still queued for {} on shutdown", queued.size(), channel.getKey());
+                deadLetter(queued, 0, "shutdown");
+            }
+        }
+        flushRejected();
+    }
+
+    /**
+     * Queues a notification for delivery. Returns false if its channel's queue was full or there is no sender
+     * for the channel; the notification is then dead-lettered.
+     */
+    public boolean enqueue(Notification notification) {
+        Channel channel = channels.get(notification.channel());
+        if (channel == null) {
+            rejected.add(new Rejected(notification, "no sender for channel " + notification.channel()));
+            return false;
+        }
+        if (!channel.queue.offer(notification)) {
+            log.warn("Notification queue of {} is full, dead-lettering reminder for deadline {}",
+                    notification.channel(), notification.deadlineId());
+            rejected.add(new Rejected(notification, "queue full"));
+            return false;
+        }
+        int depth = channel.queue.size();
+        if (depth > maxQueueDepth) {
+            maxQueueDepth = depth;
+        }
+        return true;
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (Channel channel : channels.values()) {
+            depth += channel.queue.size();
+        }
+        return depth;
+    }
+
+    public int maxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long deliveredCount() {
+        return delivered.sum();
+    }
+
+    public long deadLetteredCount() {
+        return deadLettered.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notifications.queue.depth", this, NotificationDispatcher::queueDepth)
+                .description("Notifications waiting for delivery")
+                .register(registry);
+        FunctionCounter.builder("notifications.delivered", this, NotificationDispatcher::deliveredCount)
+                .description("Notifications delivered")
+                .register(registry);
+        FunctionCounter.builder("notifications.dead.lettered", this, NotificationDispatcher::deadLetteredCount)
+                .description("Notifications moved to the dead-letter table")
+                .register(registry);
+    }
+
+    // Waits for in-flight permits of its own channel only, and before taking anything off the queue,
+    // so that a busy channel's notifications wait in the queue and are still there on shutdown
+    private void dispatchLoop(String name, Channel channel) {
+        while (running) {
+            try {
+                channel.inFlightBatches.acquire();
+                Notification first = channel.queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    channel.inFlightBatches.release();
+                    continue;
+                }
+                List<Notification> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                channel.queue.drainTo(batch, batchSize - 1);
+
+                deliveries.execute(() -> {
+                    try {
+                        deliver(name, channel, batch);
+                    } finally {
+                        channel.inFlightBatches.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Dead-letters rejected notifications in batches, off the threads that enqueue them
+    private void deadLetterLoop() {
+        while (running) {
+            try {
+                Rejected first = rejected.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                deadLetter(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flushRejected() {
+        Rejected first;
+        while ((first = rejected.poll()) != null) {
+            deadLetter(first);
+        }
+    }
+
+    private void deadLetter(Rejected first) {
+        List<Rejected> batch = new ArrayList<>(batchSize);
+        batch.add(first);
+        rejected.drainTo(batch, batchSize - 1);
+        Map<String, List<Notification>> byError = new LinkedHashMap<>();
+        for (Rejected rejection : batch) {
+            byError.computeIfAbsent(rejection.error(), error -> new ArrayList<>()).add(rejection.notification());
+        }
+        byError.forEach((error, notifications) -> deadLetter(notifications, 0, error));
+    }
+
+    private void deliver(String name, Channel channel, List<Notification> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                channel.permits.acquire();
+                try {
+                    channel.sender.send(batch);
+                } finally {
+                    channel.permits.release();
+                }
+                delivered.add(batch.size());
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deadLetter(batch, attempt, "interrupted");
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up on {} notifications over {} after {} attempts", batch.size(), name, attempt, e);
+                    deadLetter(batch, attempt, String.valueOf(e.getMessage()));
+                    return;
+                }
+                try {
+                    Thread.sleep(backoff(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    deadLetter(batch, attempt, "interrupted");
+                    return;
+                }
+            }
+        }
+    }
+
+    private long backoff(int attempt) {
+        long exponential = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(exponential, maxBackoff.toMillis());
+        // Jitter keeps the retries of batches that failed together from arriving together
+        return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+    }
+
+    private void deadLetter(List<Notification> batch, int attempts, String error) {
+        Instant now = Instant.now();
+        List<DeadLetterEntity> deadLetters = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            deadLetters.add(new DeadLetterEntity(notification.channel(), notification.userId(), notification.deadlineId(),
+                    notification.deadlineName(), notification.deadline(), attempts, error, now));
+        }
+        try {
+            deadLettersRepository.saveAll(deadLetters);
+            deadLettered.add(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Could not dead-letter {} notifications: {}", batch.size(), error, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.elgupo.deathlineserver.notifications.sse;
+
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SseConfig {
+
+    @Bean
+    public ServletRegistrationBean<SseServlet> sseServlet(SseHub hub) {
+        ServletRegistrationBean<SseServlet> registration = new ServletRegistrationBean<>(new SseServlet(hub), SseServlet.PATH);
+        registration.setName("sseServlet");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
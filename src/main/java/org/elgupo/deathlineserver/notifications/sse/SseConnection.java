@@ -0,0 +1,160 @@
+package org.elgupo.deathlineserver.notifications.sse;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * One event stream, written with non-blocking servlet I/O: frames are queued and written only while the
+ * output stream {@link ServletOutputStream#isReady() is ready}; when it is not, the container calls
+ * {@link #onWritePossible()} once the socket drains. No thread is held between writes.
+ * <p>
+ * Queued bytes are bounded; a client that falls further behind is disconnected rather than buffered for.
+ * Writers never block each other: whoever finds the stream idle drains the queue, the others only leave a mark.
+ */
+final class SseConnection implements WriteListener, AsyncListener {
+
+    private final Long userId;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final SseHub hub;
+    private final int maxBufferedBytes;
+    private final long connectedAt = System.nanoTime();
+
+    private final Queue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedBytes = new AtomicInteger();
+    // Drain requests: non-zero while a thread is writing, the others just increment it
+    private final AtomicInteger drains = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    // Only touched by the draining thread
+    private boolean needsFlush;
+    private volatile long lastQueuedAt = connectedAt;
+
+    SseConnection(Long userId, AsyncContext asyncContext, ServletOutputStream out, SseHub hub, int maxBufferedBytes) {
+        this.userId = userId;
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.hub = hub;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    Long userId() {
+        return userId;
+    }
+
+    long connectedAt() {
+        return connectedAt;
+    }
+
+    long lastQueuedAt() {
+        return lastQueuedAt;
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    /**
+     * Queues a frame and writes what the socket takes without blocking. Returns false if the connection
+     * is closed, or was just closed because the frame did not fit in its buffer.
+     */
+    boolean send(byte[] frame) {
+        if (closed.get()) {
+            return false;
+        }
+        if (bufferedBytes.addAndGet(frame.length) > maxBufferedBytes) {
+            hub.onSlowConsumer(this);
+            close();
+            return false;
+        }
+        pending.add(frame);
+        lastQueuedAt = System.nanoTime();
+        drain();
+        return true;
+    }
+
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        hub.onClosed(this);
+        pending.clear();
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // The maximum lifetime is up, the client reconnects (with a fresh token)
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    private void drain() {
+        if (drains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            try {
+                write();
+            } catch (IOException | IllegalStateException e) {
+                close();
+                return;
+            }
+            missed = drains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void write() throws IOException {
+        // isReady() returning false makes the container call onWritePossible() later
+        while (!closed.get() && out.isReady()) {
+            byte[] frame = pending.poll();
+            if (frame == null) {
+                if (!needsFlush) {
+                    return;
+                }
+                needsFlush = false;
+                out.flush();
+                continue;
+            }
+            bufferedBytes.addAndGet(-frame.length);
+            out.write(frame);
+            needsFlush = true;
+        }
+    }
+}
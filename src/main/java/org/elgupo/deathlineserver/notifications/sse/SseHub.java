@@ -0,0 +1,232 @@
+package org.elgupo.deathlineserver.notifications.sse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Server-Sent Events streams of every connected user: {@value #DEADLINES_EVENT} after each committed change to
+ * the user's deadlines and {@value #REMINDER_EVENT} for upcoming deadlines (the {@code sse} reminder channel).
+ * <p>
+ * Streams are async requests written with non-blocking I/O (see {@link SseConnection}), so an idle stream
+ * costs a socket and a few objects but no thread. Each frame is serialized once and shared by all the
+ * user's streams. Heartbeats come from a single sweep every {@code notifications.sse.heartbeat}, and only
+ * go to streams nothing was sent on since the previous sweep.
+ */
+@Slf4j
+@Component
+public class SseHub implements MeterBinder {
+    public static final String DEADLINES_EVENT = "deadlines";
+    public static final String REMINDER_EVENT = "reminder";
+    // Larger changes are announced by version only, clients fetch them with delta sync
+    static final int MAX_EVENT_DEADLINES = 100;
+
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final Map<Long, List<SseConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int bufferBytes;
+    private final long heartbeatNanos;
+    private final Duration maxLifetime;
+    private final byte[] retry;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder slowConsumers = new LongAdder();
+    private final LongAdder framesSent = new LongAdder();
+
+    public SseHub(ObjectMapper objectMapper,
+                  @Value("${notifications.sse.max-connections:50000}") int maxConnections,
+                  @Value("${notifications.sse.max-connections-per-user:4}") int maxConnectionsPerUser,
+                  @Value("${notifications.sse.buffer-bytes:65536}") int bufferBytes,
+                  @Value("${notifications.sse.heartbeat:15s}") Duration heartbeat,
+                  @Value("${notifications.sse.max-lifetime:15m}") Duration maxLifetime,
+                  @Value("${notifications.sse.retry:5s}") Duration retry) {
+        this.objectMapper = objectMapper;
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.bufferBytes = bufferBytes;
+        this.heartbeatNanos = heartbeat.toNanos();
+        this.maxLifetime = maxLifetime;
+        this.retry = ("retry: " + retry.toMillis() + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Turns the request into an event stream of {@code userId}. Returns false, without touching the response,
+     * when the node already holds {@code notifications.sse.max-connections} streams.
+     */
+    public boolean open(Long userId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/event-stream");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Keeps reverse proxies from buffering the stream
+        response.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(maxLifetime.toMillis());
+        ServletOutputStream out = response.getOutputStream();
+        SseConnection connection = new SseConnection(userId, asyncContext, out, this, bufferBytes);
+        asyncContext.addListener(connection);
+        // Non-blocking mode first: from the moment it is registered, other threads may send on the stream
+        out.setWriteListener(connection);
+        // Commits the response, so the client sees the stream open right away
+        connection.send(retry);
+
+        SseConnection[] oldest = new SseConnection[1];
+        connections.compute(userId, (id, userConnections) -> {
+            List<SseConnection> added = userConnections == null ? new CopyOnWriteArrayList<>() : userConnections;
+            added.add(connection);
+            if (added.size() > maxConnectionsPerUser) {
+                oldest[0] = added.get(0);
+            }
+            return added;
+        });
+        // Closed before it was registered, so onClosed found nothing to remove
+        if (connection.isClosed()) {
+            unregister(connection);
+        }
+        // Most likely a stream the client already gave up on, e.g. after a network change
+        if (oldest[0] != null) {
+            oldest[0].close();
+        }
+        return true;
+    }
+
+    /**
+     * Sends an event to every stream of the user; does nothing when the user is not connected here.
+     * Returns the number of streams it was queued on.
+     */
+    public int send(Long userId, String event, String id, Object data) {
+        List<SseConnection> userConnections = connections.get(userId);
+        if (userConnections == null || userConnections.isEmpty()) {
+            return 0;
+        }
+        byte[] frame;
+        try {
+            frame = frame(event, id, data);
+        } catch (JsonProcessingException e) {
+            log.error("Could not serialize {} event for user {}", event, userId, e);
+            return 0;
+        }
+        int sent = 0;
+        for (SseConnection connection : userConnections) {
+            if (connection.send(frame)) {
+                sent++;
+            }
+        }
+        framesSent.add(sent);
+        return sent;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDeadlinesChanged(DeadlinesChangedEvent event) {
+        DeadlinesChangedEvent sent = event;
+        if ((event.created() != null && event.created().size() > MAX_EVENT_DEADLINES)
+                || (event.deleted() != null && event.deleted().size() > MAX_EVENT_DEADLINES)) {
+            sent = new DeadlinesChangedEvent(event.userId(), event.version(), null, null);
+        }
+        send(event.userId(), DEADLINES_EVENT, Long.toString(event.version()), sent);
+    }
+
+    @Scheduled(fixedRateString = "${notifications.sse.heartbeat:15s}")
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        for (List<SseConnection> userConnections : connections.values()) {
+            for (SseConnection connection : userConnections) {
+                // Streams that carried anything since the last sweep are alive enough
+                if (now - connection.lastQueuedAt() >= heartbeatNanos) {
+                    connection.send(HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        List<SseConnection> all = new ArrayList<>(connectionCount.get());
+        connections.values().forEach(all::addAll);
+        all.forEach(SseConnection::close);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("notifications.sse.connections", this, SseHub::connectionCount)
+                .description("Open event streams")
+                .register(registry);
+        FunctionCounter.builder("notifications.sse.rejected", rejected, LongAdder::sum)
+                .description("Event streams refused because the node was full")
+                .register(registry);
+        FunctionCounter.builder("notifications.sse.slow.consumers", slowConsumers, LongAdder::sum)
+                .description("Event streams closed because the client fell behind")
+                .register(registry);
+        FunctionCounter.builder("notifications.sse.frames", framesSent, LongAdder::sum)
+                .description("Events queued on streams, heartbeats excluded")
+                .register(registry);
+    }
+
+    void onSlowConsumer(SseConnection connection) {
+        slowConsumers.increment();
+        log.debug("Closing event stream of user {}, it fell {} bytes behind", connection.userId(), bufferBytes);
+    }
+
+    void onClosed(SseConnection connection) {
+        unregister(connection);
+        connectionCount.decrementAndGet();
+    }
+
+    private void unregister(SseConnection connection) {
+        connections.computeIfPresent(connection.userId(), (userId, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private byte[] frame(String event, String id, Object data) throws JsonProcessingException {
+        // Serialized JSON is a single line, so one data field carries it
+        StringBuilder frame = new StringBuilder(256).append("event: ").append(event).append('\n');
+        if (id != null) {
+            frame.append("id: ").append(id).append('\n');
+        }
+        return frame.append("data: ").append(objectMapper.writeValueAsString(data)).append("\n\n")
+                .toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
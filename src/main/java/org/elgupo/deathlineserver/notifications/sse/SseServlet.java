@@ -0,0 +1,40 @@
+package org.elgupo.deathlineserver.notifications.sse;
+
+import java.io.IOException;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * {@code GET /notifications/events}: the event stream of the authenticated user, see {@link SseHub}.
+ * <p>
+ * A plain async servlet rather than a controller, because streams are written with non-blocking I/O
+ * from whichever thread has an event, which Spring MVC's async handling does not support.
+ * The security filter chain runs in front of it like in front of the controllers.
+ */
+public class SseServlet extends HttpServlet {
+    public static final String PATH = "/notifications/events";
+
+    private final transient SseHub hub;
+
+    public SseServlet(SseHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (!hub.open(user.userId(), request, response)) {
+            response.setHeader("Retry-After", "30");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+}
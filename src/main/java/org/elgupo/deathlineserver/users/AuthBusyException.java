@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.users;
+
+public class AuthBusyException extends Exception {
+    public AuthBusyException() {
+        super("Too many logins, retry later");
+    }
+}
@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.users;
+
+public class EmailTakenException extends Exception {
+    public EmailTakenException() {
+        super("Email is already registered");
+    }
+}
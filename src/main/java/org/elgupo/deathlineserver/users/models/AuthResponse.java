@@ -1,12 +1,26 @@
 package org.elgupo.deathlineserver.users.models;
 
 import java.io.Serializable;
+import java.time.Instant;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class AuthResponse implements Serializable {
     public Long id;
 
     public String message;
+
+    // Access token, only issued by /auth
+    public String token;
+
+    @JsonProperty("expires_at")
+    public Instant expiresAt;
+
+    public AuthResponse(Long id, String message) {
+        this(id, message, null, null);
+    }
 }
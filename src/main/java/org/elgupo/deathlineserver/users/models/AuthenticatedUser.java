@@ -0,0 +1,7 @@
+package org.elgupo.deathlineserver.users.models;
+
+/**
+ * Principal of a request authenticated with an access token.
+ */
+public record AuthenticatedUser(Long userId) {
+}
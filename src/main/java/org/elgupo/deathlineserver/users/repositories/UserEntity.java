@@ -16,12 +16,16 @@ public class UserEntity {
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "email")
+    @Column(name = "email", unique = true)
     private String email;
 
     @Column(name = "password")
     private String password;
 
+    // Raised on every change to the user's deadlines, see DeadlinesVersions
+    @Column(name = "deadlines_version", nullable = false)
+    private long deadlinesVersion;
+
     public UserEntity(
             String email,
             String password
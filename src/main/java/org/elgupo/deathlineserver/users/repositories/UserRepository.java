@@ -1,7 +1,16 @@
 package org.elgupo.deathlineserver.users.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends CrudRepository<UserEntity, Integer> {
@@ -11,4 +20,23 @@ public interface UserRepository extends CrudRepository<UserEntity, Integer> {
     UserEntity findByEmail(String email);
 
     UserEntity findUserById(Long id);
+
+    @Query("select u.deadlinesVersion from UserEntity u where u.id = :id")
+    Long findDeadlinesVersion(@Param("id") Long id);
+
+    // Holds the user's row lock until the end of the calling transaction, which orders the user's deadline writes
+    @Query(value = "SELECT deadlines_version FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockDeadlinesVersion(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("update UserEntity u set u.deadlinesVersion = :version where u.id = :id")
+    int updateDeadlinesVersion(@Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Every registered email, fetched in chunks; must be consumed and closed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from UserEntity u")
+    Stream<String> streamAllEmails();
 }
@@ -1,8 +1,13 @@
 package org.elgupo.deathlineserver.users.routes;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.elgupo.deathlineserver.users.AuthBusyException;
 import org.elgupo.deathlineserver.users.AuthException;
+import org.elgupo.deathlineserver.users.EmailTakenException;
+import org.elgupo.deathlineserver.users.RateLimitedException;
 import org.elgupo.deathlineserver.users.models.AuthRequest;
 import org.elgupo.deathlineserver.users.models.AuthResponse;
+import org.elgupo.deathlineserver.users.services.AuthRateLimiter;
 import org.elgupo.deathlineserver.users.services.AuthenticationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,19 +19,25 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
+    private final AuthRateLimiter authRateLimiter;
 
     @Autowired
-    public AuthenticationController(AuthenticationService authenticationService) {
+    public AuthenticationController(AuthenticationService authenticationService, AuthRateLimiter authRateLimiter) {
         this.authenticationService = authenticationService;
+        this.authRateLimiter = authRateLimiter;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@RequestBody AuthRequest authRequest) {
+    public ResponseEntity<AuthResponse> register(@RequestBody AuthRequest authRequest, HttpServletRequest request)
+            throws AuthBusyException, EmailTakenException, RateLimitedException {
+        authRateLimiter.acquire(request.getRemoteAddr(), authRequest.email);
         return ResponseEntity.ok(authenticationService.register(authRequest));
     }
 
     @PostMapping("/auth")
-    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest) throws AuthException {
+    public ResponseEntity<AuthResponse> login(@RequestBody AuthRequest authRequest, HttpServletRequest request)
+            throws AuthException, AuthBusyException, RateLimitedException {
+        authRateLimiter.acquire(request.getRemoteAddr(), authRequest.email);
         return ResponseEntity.ok(authenticationService.login(authRequest));
     }
 
@@ -1,6 +1,10 @@
 package org.elgupo.deathlineserver.users.routes;
 
+import org.elgupo.deathlineserver.users.AuthBusyException;
 import org.elgupo.deathlineserver.users.AuthException;
+import org.elgupo.deathlineserver.users.EmailTakenException;
+import org.elgupo.deathlineserver.users.RateLimitedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -14,4 +18,27 @@ public class AuthenticationExceptionHandler {
                 .status(HttpStatus.BAD_REQUEST)
                 .body(exception.getMessage());
     }
+
+    @ExceptionHandler(AuthBusyException.class)
+    public ResponseEntity<?> authBusyException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(EmailTakenException.class)
+    public ResponseEntity<?> emailTakenException(Exception exception) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(exception.getMessage());
+    }
+
+    @ExceptionHandler(RateLimitedException.class)
+    public ResponseEntity<?> rateLimitedException(RateLimitedException exception) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(exception.getMessage());
+    }
 }
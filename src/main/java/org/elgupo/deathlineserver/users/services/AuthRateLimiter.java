@@ -0,0 +1,57 @@
+package org.elgupo.deathlineserver.users.services;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.elgupo.deathlineserver.users.RateLimitedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limits {@code /auth} and {@code /register} attempts per client address and per email, before
+ * anything reaches the database. Both are token buckets ({@link TokenBuckets}) of
+ * {@code auth.rate-limit.*.capacity} attempts refilled at {@code auth.rate-limit.*.refill-per-minute};
+ * each table remembers at most {@code auth.rate-limit.max-keys} keys.
+ * <p>
+ * Behind a proxy the client address is only right with {@code server.forward-headers-strategy} set.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final TokenBuckets byAddress;
+    private final TokenBuckets byEmail;
+    private final Counter limitedByAddress;
+    private final Counter limitedByEmail;
+
+    public AuthRateLimiter(MeterRegistry meterRegistry,
+                           @Value("${auth.rate-limit.max-keys:65536}") int maxKeys,
+                           @Value("${auth.rate-limit.address.capacity:20}") int addressCapacity,
+                           @Value("${auth.rate-limit.address.refill-per-minute:60}") double addressRefillPerMinute,
+                           @Value("${auth.rate-limit.email.capacity:5}") int emailCapacity,
+                           @Value("${auth.rate-limit.email.refill-per-minute:5}") double emailRefillPerMinute) {
+        this.byAddress = new TokenBuckets(maxKeys, addressCapacity, addressRefillPerMinute / 60);
+        this.byEmail = new TokenBuckets(maxKeys, emailCapacity, emailRefillPerMinute / 60);
+        this.limitedByAddress = meterRegistry.counter("auth.rate.limited", "key", "address");
+        this.limitedByEmail = meterRegistry.counter("auth.rate.limited", "key", "email");
+    }
+
+    public void acquire(String address, String email) throws RateLimitedException {
+        long wait = byAddress.tryAcquire(address == null ? "" : address);
+        if (wait > 0) {
+            limitedByAddress.increment();
+            throw new RateLimitedException(retryAfterSeconds(wait));
+        }
+        if (email != null) {
+            wait = byEmail.tryAcquire(email);
+            if (wait > 0) {
+                limitedByEmail.increment();
+                throw new RateLimitedException(retryAfterSeconds(wait));
+            }
+        }
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
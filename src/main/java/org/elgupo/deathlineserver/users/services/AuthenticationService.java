@@ -1,30 +1,68 @@
 package org.elgupo.deathlineserver.users.services;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.users.AuthBusyException;
 import org.elgupo.deathlineserver.users.AuthException;
+import org.elgupo.deathlineserver.users.EmailTakenException;
 import org.elgupo.deathlineserver.users.models.AuthRequest;
 import org.elgupo.deathlineserver.users.models.AuthResponse;
 import org.elgupo.deathlineserver.users.repositories.UserEntity;
 import org.elgupo.deathlineserver.users.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class AuthenticationService {
 
     private final UserRepository userRepository;
+    private final PasswordHasher passwordHasher;
+    private final TokenService tokenService;
+    private final EmailFilter emailFilter;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
 
     @Autowired
-    public AuthenticationService(UserRepository userRepository) {
+    public AuthenticationService(UserRepository userRepository, PasswordHasher passwordHasher, TokenService tokenService,
+                                 EmailFilter emailFilter, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.tokenService = tokenService;
+        this.emailFilter = emailFilter;
+        this.loginSuccesses = meterRegistry.counter("auth.logins", "result", "success");
+        this.loginFailures = meterRegistry.counter("auth.logins", "result", "failure");
     }
 
-    public AuthResponse register(AuthRequest authRequest) {
-        UserEntity user = userRepository.save(new UserEntity(
-                authRequest.email,
-                authRequest.password
-        ));
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadEmailFilter() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emailFilter.load(emails);
+        }
+    }
+
+    public AuthResponse register(AuthRequest authRequest) throws AuthBusyException, EmailTakenException {
+        if (emailFilter.mightContain(authRequest.email) && userRepository.existsByEmail(authRequest.email)) {
+            throw new EmailTakenException();
+        }
+        String password = passwordHasher.hash(authRequest.password);
+        // Added before saving, so the filter never misses a stored email
+        emailFilter.add(authRequest.email);
+        UserEntity user;
+        try {
+            user = userRepository.save(new UserEntity(authRequest.email, password));
+        } catch (DataIntegrityViolationException e) {
+            // Registered concurrently, after the check above
+            throw new EmailTakenException();
+        }
         log.info("User registered: {}", user.getEmail());
 
         return new AuthResponse(
@@ -33,19 +71,40 @@ public class AuthenticationService {
         );
     }
 
-    public AuthResponse login(AuthRequest authRequest) throws AuthException {
-        UserEntity user = userRepository.findByEmail(authRequest.email);
+    public AuthResponse login(AuthRequest authRequest) throws AuthException, AuthBusyException {
+        // Unknown emails, most of the traffic in a credential stuffing attack, never reach the database
+        UserEntity user = emailFilter.mightContain(authRequest.email) ? userRepository.findByEmail(authRequest.email) : null;
         if (user == null) {
+            loginFailures.increment();
             throw new AuthException();
         }
 
-        if (user.getPassword().equals(authRequest.password)) {
+        if (passwordHasher.matches(authRequest.password, user.getPassword())) {
             log.info("Login successful");
+            loginSuccesses.increment();
+            rehashIfOutdated(user, authRequest.password);
+            TokenService.IssuedToken token = tokenService.issue(user.getId());
             return new AuthResponse(
                     user.getId(),
-                    "OK"
+                    "OK",
+                    token.token(),
+                    token.expiresAt()
             );
         }
+        loginFailures.increment();
         throw new AuthException();
     }
+
+    // Moves the stored hash to the current cost; skipped under load, the next login retries
+    private void rehashIfOutdated(UserEntity user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHasher.hash(password));
+            userRepository.save(user);
+        } catch (AuthBusyException e) {
+            log.debug("Skipping rehash of user {}: {}", user.getId(), e.getMessage());
+        }
+    }
 }
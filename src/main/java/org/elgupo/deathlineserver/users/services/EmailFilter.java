@@ -0,0 +1,125 @@
+package org.elgupo.deathlineserver.users.services;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filter of registered emails: {@link #mightContain} is never false for a registered email,
+ * and true for an unregistered one with probability {@code auth.email-filter.false-positive-rate}
+ * while there are at most {@code auth.email-filter.expected-emails} of them.
+ * <p>
+ * Until {@link #load} has seen the whole users table every email might be registered.
+ */
+@Slf4j
+@Component
+public class EmailFilter implements MeterBinder {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+    private final LongAdder emails = new LongAdder();
+    private volatile boolean loaded;
+
+    public EmailFilter(@Value("${auth.email-filter.expected-emails:1000000}") long expectedEmails,
+                       @Value("${auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedEmails < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bad email filter: " + expectedEmails + " emails, false positive rate " + falsePositiveRate);
+        }
+        // Optimal size and number of hashes for the expected emails and false positive rate
+        double optimalBits = -expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int words = Math.toIntExact((long) Math.ceil(optimalBits / Long.SIZE));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * Long.SIZE;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    public boolean mightContain(String email) {
+        if (!loaded) {
+            return true;
+        }
+        if (email == null) {
+            return false;
+        }
+        long hash1 = hash(email, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash1 = hash(email, 0x9E3779B97F4A7C15L);
+        long hash2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            long mask = 1L << bit;
+            bits.getAndAccumulate((int) (bit >>> 6), mask, (word, set) -> word | set);
+        }
+        emails.increment();
+    }
+
+    /**
+     * Adds every registered email and starts answering {@link #mightContain} from the filter.
+     * Emails added concurrently by registrations are kept.
+     */
+    public void load(Stream<String> registeredEmails) {
+        registeredEmails.forEach(this::add);
+        loaded = true;
+        log.info("Email filter loaded: {} emails in {} KiB, {} hashes", emails.sum(), sizeInBytes() / 1024, hashes);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public long sizeInBytes() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    /**
+     * False positive rate for the emails added so far.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashes * emails.sum() / bitCount), hashes);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.email.filter.size", this, EmailFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .description("Memory used by the registered email filter")
+                .register(registry);
+        Gauge.builder("auth.email.filter.emails", emails, LongAdder::sum)
+                .description("Emails added to the registered email filter")
+                .register(registry);
+        Gauge.builder("auth.email.filter.false.positive.rate", this, EmailFilter::expectedFalsePositiveRate)
+                .description("Expected false positive rate of the registered email filter")
+                .register(registry);
+    }
+
+    private static long hash(String email, long seed) {
+        long hash = seed;
+        for (int i = 0; i < email.length(); i++) {
+            hash = (hash ^ email.charAt(i)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
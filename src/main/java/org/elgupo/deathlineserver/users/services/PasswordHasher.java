@@ -0,0 +1,146 @@
+package org.elgupo.deathlineserver.users.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.elgupo.deathlineserver.users.AuthBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hashes and checks passwords with bcrypt on a dedicated, fixed-size pool.
+ * <p>
+ * Hashing is deliberately slow, so it runs on {@code auth.hashing.threads} threads (one per core by
+ * default) instead of the request threads. At most {@code auth.hashing.queue-capacity} hashes wait
+ * for a thread; beyond that, and for callers that would wait longer than {@code auth.hashing.timeout},
+ * {@link AuthBusyException} is thrown right away so a login storm is shed instead of queued.
+ * <p>
+ * Hashes carry their encoder and cost ({@code {bcrypt}$2a$12$...}), so the cost
+ * ({@code auth.password.bcrypt-strength}) can be raised at any time: {@link #needsRehash} tells
+ * which stored hashes are below it. Passwords stored before hashing was introduced have no
+ * prefix and are compared as plain text until they are rehashed.
+ */
+@Component
+public class PasswordHasher implements MeterBinder {
+
+    private static final String BCRYPT = "bcrypt";
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+
+    public PasswordHasher(@Value("${auth.password.bcrypt-strength:12}") int bcryptStrength,
+                          @Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:100}") int queueCapacity,
+                          @Value("${auth.hashing.timeout:5s}") Duration timeout) {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT,
+                Map.of(BCRYPT, new BCryptPasswordEncoder(bcryptStrength)));
+        delegating.setDefaultPasswordEncoderForMatches(new LegacyPlainTextEncoder());
+        this.encoder = delegating;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Queued callers are released right away instead of waiting out their timeout
+        for (Runnable queued : executor.shutdownNow()) {
+            if (queued instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    public String hash(String rawPassword) throws AuthBusyException {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String storedPassword) throws AuthBusyException {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        return run(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    public boolean needsRehash(String storedPassword) {
+        return encoder.upgradeEncoding(storedPassword);
+    }
+
+    public int queuedHashes() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "auth.hashing", List.of()).bindTo(registry);
+    }
+
+    private <T> T run(Callable<T> task) throws AuthBusyException {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new AuthBusyException();
+        }
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new AuthBusyException();
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new AuthBusyException();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Passwords stored before hashing was introduced; compared in constant time, always rehashed
+    private static final class LegacyPlainTextEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            throw new UnsupportedOperationException("Plain text passwords are only read");
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return MessageDigest.isEqual(rawPassword.toString().getBytes(StandardCharsets.UTF_8),
+                    encodedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.elgupo.deathlineserver.users.services;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-size table of token buckets keyed by string, lock-free and allocation-free per call.
+ * <p>
+ * Each bucket is kept as a single "theoretical arrival time" (GCRA): a request is let through if
+ * the bucket's time is at most {@code (capacity - 1) * interval} ahead of now, and moves it one
+ * {@code interval} further. That is exactly a bucket of {@code capacity} tokens refilled one token
+ * per {@code interval}, but updated with one CAS instead of a lock.
+ * <p>
+ * Keys are hashed with a per-process seed into 4-way sets. A new key takes the set's slot with the
+ * oldest time; a slot whose time has passed holds a full bucket, so evicting it loses nothing, and
+ * the table never grows past {@code slots} keys.
+ */
+final class TokenBuckets {
+
+    private static final int WAYS = 4;
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray times;
+    private final int setMask;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long seed = ThreadLocalRandom.current().nextLong() | 1;
+    private final LongSupplier clock;
+    private final long start;
+
+    TokenBuckets(int slots, int capacity, double refillPerSecond) {
+        this(slots, capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBuckets(int slots, int capacity, double refillPerSecond, LongSupplier clock) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Bad token bucket: capacity " + capacity + ", refill " + refillPerSecond + "/s");
+        }
+        int sets = Integer.highestOneBit(Math.max(slots / WAYS, 1));
+        this.keys = new AtomicLongArray(sets * WAYS);
+        this.times = new AtomicLongArray(sets * WAYS);
+        this.setMask = sets - 1;
+        this.intervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.toleranceNanos = intervalNanos * (capacity - 1);
+        this.clock = clock;
+        // Times are kept relative to 'start' so that an empty slot (time 0) is a full bucket
+        this.start = clock.getAsLong() - intervalNanos * capacity;
+    }
+
+    /**
+     * Takes a token for {@code key}. Returns 0 if it was taken, otherwise the nanoseconds until one is available.
+     */
+    long tryAcquire(CharSequence key) {
+        long hash = hash(key);
+        int set = (int) (hash & setMask) * WAYS;
+        long now = clock.getAsLong() - start;
+        while (true) {
+            int slot = find(set, hash);
+            long time = times.get(slot);
+            if (keys.get(slot) != hash) {
+                continue;
+            }
+            long arrival = Math.max(time, now);
+            if (arrival - now > toleranceNanos) {
+                return arrival - now - toleranceNanos;
+            }
+            if (times.compareAndSet(slot, time, arrival + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (int slot = 0; slot < keys.length(); slot++) {
+            if (keys.get(slot) != 0) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    // Slot of 'hash' in its set, claiming the slot with the oldest time if it is not there
+    private int find(int set, long hash) {
+        while (true) {
+            int oldest = set;
+            for (int slot = set; slot < set + WAYS; slot++) {
+                if (keys.get(slot) == hash) {
+                    return slot;
+                }
+                if (times.get(slot) < times.get(oldest)) {
+                    oldest = slot;
+                }
+            }
+            long evicted = keys.get(oldest);
+            if (keys.compareAndSet(oldest, evicted, hash)) {
+                // A racing caller of the evicted key may still move this time; the new key starts full either way
+                times.set(oldest, 0);
+                return oldest;
+            }
+        }
+    }
+
+    private long hash(CharSequence key) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ Character.toLowerCase(key.charAt(i))) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        // 0 marks an empty slot
+        return hash == 0 ? 1 : hash;
+    }
+}
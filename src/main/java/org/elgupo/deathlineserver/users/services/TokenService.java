@@ -0,0 +1,162 @@
+package org.elgupo.deathlineserver.users.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Issues and verifies short-lived access tokens: {@code v1.<key id>.<user id>.<expiry>.<HMAC-SHA256>}.
+ * <p>
+ * Verification is local, so any node holding the keys accepts tokens of any other and no request
+ * reads the users table. Verified tokens are remembered in a small cache, so repeated requests
+ * with the same token skip the HMAC as well; the expiry is still checked on every request.
+ * <p>
+ * Keys are configured as {@code auth.tokens.keys=<id>:<base64 secret>,...} and tokens are signed
+ * with {@code auth.tokens.active-key}. To rotate, add the new key on every node, then make it
+ * active, then drop the old one once {@code auth.tokens.ttl} has passed. Without configured keys a
+ * random key is generated, which only works for a single node and does not survive restarts.
+ */
+@Slf4j
+@Service
+public class TokenService {
+
+    private static final String VERSION = "v1";
+    private static final String HMAC = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private record Verified(AuthenticatedUser user, Instant expiresAt) {
+    }
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String activeKeyId;
+    private final Duration ttl;
+    private final Cache<String, Verified> verified;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(@Value("${auth.tokens.keys:}") String keys,
+                        @Value("${auth.tokens.active-key:}") String activeKeyId,
+                        @Value("${auth.tokens.ttl:15m}") Duration ttl,
+                        @Value("${auth.tokens.cache-size:100000}") long cacheSize) {
+        this(keys, activeKeyId, ttl, cacheSize, Clock.systemUTC());
+    }
+
+    // Expiry is decided by this clock alone; the cache only forgets tokens that could no longer be valid
+    TokenService(String keys, String activeKeyId, Duration ttl, long cacheSize, Clock clock) {
+        for (String key : keys.split(",")) {
+            if (key.isBlank()) {
+                continue;
+            }
+            int separator = key.indexOf(':');
+            String id = separator > 0 ? key.substring(0, separator).trim() : "";
+            if (id.isEmpty() || id.contains(".")) {
+                throw new IllegalArgumentException("Bad token key id in auth.tokens.keys: '" + id + "'");
+            }
+            byte[] secret = Base64.getDecoder().decode(key.substring(separator + 1).trim());
+            if (secret.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("Token key " + id + " is shorter than " + MIN_SECRET_BYTES + " bytes");
+            }
+            this.keys.put(id, new SecretKeySpec(secret, HMAC));
+        }
+
+        if (this.keys.isEmpty()) {
+            log.warn("No auth.tokens.keys configured, signing tokens with a random key: tokens will not work across nodes or restarts");
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(secret);
+            this.keys.put("local", new SecretKeySpec(secret, HMAC));
+            this.activeKeyId = "local";
+        } else {
+            this.activeKeyId = activeKeyId.isBlank() ? this.keys.keySet().iterator().next() : activeKeyId;
+            if (!this.keys.containsKey(this.activeKeyId)) {
+                throw new IllegalArgumentException("auth.tokens.active-key " + this.activeKeyId + " is not in auth.tokens.keys");
+            }
+        }
+
+        this.ttl = ttl;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public IssuedToken issue(Long userId) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = VERSION + "." + activeKeyId + "." + userId + "." + expiresAt.getEpochSecond();
+        return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(keys.get(activeKeyId), payload)),
+                Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    /**
+     * Returns the user a valid, unexpired token was issued to, or empty for anything else.
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        Instant now = clock.instant();
+        Verified cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached.expiresAt().isAfter(now) ? Optional.of(cached.user()) : Optional.empty();
+        }
+
+        Verified checked = check(token);
+        if (checked == null || !checked.expiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+        verified.put(token, checked);
+        return Optional.of(checked.user());
+    }
+
+    private Verified check(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 5 || !VERSION.equals(parts[0])) {
+            return null;
+        }
+        SecretKeySpec key = keys.get(parts[1]);
+        if (key == null) {
+            return null;
+        }
+
+        String payload = token.substring(0, token.lastIndexOf('.'));
+        byte[] expected = ENCODER.encode(sign(key, payload));
+        if (!MessageDigest.isEqual(expected, parts[4].getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+        try {
+            return new Verified(new AuthenticatedUser(Long.parseLong(parts[2])), Instant.ofEpochSecond(Long.parseLong(parts[3])));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.elgupo.deathlineserver.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitingDataSource Tests")
+class ConcurrencyLimitingDataSourceTest {
+
+    @Mock
+    private DataSource pool;
+
+    @Mock
+    private Connection connection;
+
+    private ConcurrencyLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConcurrencyLimitingDataSource(pool, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should fail fast when every permit is taken")
+    void shouldRejectBeyondPermits() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When / Then
+        assertThrows(DatabaseBusyException.class, () -> dataSource.getConnection());
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should return the permit once when the connection is closed")
+    void shouldReleaseOnClose() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+        dataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+
+        // Then
+        assertEquals(1, dataSource.availablePermits());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should return the permit when the pool fails")
+    void shouldReleaseWhenPoolFails() throws SQLException {
+        // Given
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // When
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+        // Then
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
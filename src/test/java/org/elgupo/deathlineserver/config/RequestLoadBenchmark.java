@@ -0,0 +1,156 @@
+package org.elgupo.deathlineserver.config;
+
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.users.services.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@code GET /deadlines/get_deadlines_for_user} with 1k and 5k concurrent clients
+ * and publishes throughput and latency percentiles as test report entries. Every request has
+ * to succeed and the p99 latency has to stay under {@value #MAX_P99_MILLIS} ms. Subclasses pick
+ * the request threads; compare their reports. Run with {@code ./gradlew benchmark}.
+ */
+abstract class RequestLoadBenchmark {
+
+    private static final int[] CLIENTS = {1_000, 5_000};
+    private static final int REQUESTS_PER_CLIENT = 10;
+    private static final int USERS = 100;
+    private static final int DEADLINES_PER_USER = 20;
+    // Far above what either mode needs on a developer machine; a server that queues requests for this long is stuck
+    private static final long MAX_P99_MILLIS = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    private final String[] authorizations = new String[USERS + 1];
+
+    @BeforeEach
+    void setUp() {
+        Instant start = Instant.now();
+        for (long userId = 1; userId <= USERS; userId++) {
+            authorizations[(int) userId] = "Bearer " + tokenService.issue(userId).token();
+            for (int i = 0; i < DEADLINES_PER_USER; i++) {
+                deadlinesRepository.save(TestDataFactory.createDeadlineEntity(userId, "Deadline " + i, "Description " + i,
+                        start.plus(i, ChronoUnit.HOURS), start, null));
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        deadlinesRepository.deleteAll();
+    }
+
+    protected abstract String mode();
+
+    @Test
+    void measureConcurrentClients(TestReporter reporter) throws Exception {
+        for (int clients : CLIENTS) {
+            run(clients, reporter);
+        }
+    }
+
+    private void run(int clients, TestReporter reporter) throws Exception {
+        long[] latencies = new long[clients * REQUESTS_PER_CLIENT];
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clients);
+
+        // Clients are virtual threads in both modes, only the server side differs
+        try (ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .executor(httpExecutor)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build()) {
+            for (int c = 0; c < clients; c++) {
+                int clientIndex = c;
+                threads.add(Thread.ofVirtual().start(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                        for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                            int userId = (clientIndex + r) % USERS + 1;
+                            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                            "http://localhost:" + port + "/deadlines/get_deadlines_for_user"))
+                                    .header("Authorization", authorizations[userId])
+                                    .timeout(Duration.ofSeconds(60))
+                                    .build();
+                            long started = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    failed.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                            }
+                            latencies[clientIndex * REQUESTS_PER_CLIENT + r] = System.nanoTime() - started;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+
+            ready.await();
+            long started = System.nanoTime();
+            go.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - started;
+
+            Arrays.sort(latencies);
+            double p99 = percentile(latencies, 0.99);
+            Map<String, String> report = new LinkedHashMap<>();
+            report.put("threads", mode());
+            report.put("clients", String.valueOf(clients));
+            report.put("requests/sec", String.format("%.0f", latencies.length / (elapsed / 1e9)));
+            report.put("p50 ms", String.format("%.1f", percentile(latencies, 0.50)));
+            report.put("p99 ms", String.format("%.1f", p99));
+            report.put("max ms", String.format("%.1f", latencies[latencies.length - 1] / 1e6));
+            report.put("failed", String.valueOf(failed.get()));
+            reporter.publishEntry(report);
+
+            assertEquals(0, failed.get(), mode() + " threads, " + clients + " clients: failed requests");
+            assertTrue(p99 < MAX_P99_MILLIS, mode() + " threads, " + clients + " clients: p99 " + p99 + " ms");
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1e6;
+    }
+}
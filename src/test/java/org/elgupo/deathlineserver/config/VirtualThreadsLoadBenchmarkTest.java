@@ -0,0 +1,19 @@
+package org.elgupo.deathlineserver.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+@DisplayName("Request load on virtual threads")
+class VirtualThreadsLoadBenchmarkTest extends RequestLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "virtual";
+    }
+}
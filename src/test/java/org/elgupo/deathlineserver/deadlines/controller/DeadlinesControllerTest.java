@@ -1,41 +1,86 @@
 package org.elgupo.deathlineserver.deadlines.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.elgupo.deathlineserver.config.EncodingsConfig;
+import org.elgupo.deathlineserver.config.SecurityConfig;
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.SyncTokenExpiredException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateItemDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateResultDto;
 import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.SyncResultDto;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.services.DeadlineCursor;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesExporter;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesImporter;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesPage;
 import org.elgupo.deathlineserver.deadlines.services.DeadlinesService;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesSync;
+import org.elgupo.deathlineserver.deadlines.services.SyncToken;
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.elgupo.deathlineserver.users.services.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(DeadlinesController.class)
+@Import(SecurityConfig.class)
 @DisplayName("DeadlinesController Integration Tests")
 class DeadlinesControllerTest {
 
+    private static final String TOKEN = "test-token";
+    private static final String BEARER_TOKEN = "Bearer " + TOKEN;
+
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
     private DeadlinesService deadlinesService;
 
+    @MockBean
+    private DeadlinesExporter deadlinesExporter;
+
+    @MockBean
+    private DeadlinesImporter deadlinesImporter;
+
+    @MockBean
+    private DeadlinesSync deadlinesSync;
+
+    @MockBean
+    private TokenService tokenService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -47,6 +92,7 @@ class DeadlinesControllerTest {
     @BeforeEach
     void setUp() {
         userId = 1L;
+        when(tokenService.verify(TOKEN)).thenReturn(Optional.of(new AuthenticatedUser(userId)));
         
         testDeadlineDto = new DeadlineDto(
             1L,
@@ -78,7 +124,7 @@ class DeadlinesControllerTest {
 
         // When & Then
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString()))
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray())
@@ -89,6 +135,120 @@ class DeadlinesControllerTest {
                 .andExpect(jsonPath("$[1].deadline_name").value("Deadline 2"));
     }
 
+    @Test
+    @DisplayName("Should answer 304 without reading deadlines when the ETag matches")
+    void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(7L);
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"6\", W/\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(content().string(""));
+        verify(deadlinesService, never()).getDeadlinesForUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should send the version as ETag with the list")
+    void shouldSendEtagWithList() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(8L);
+        when(deadlinesService.getDeadlinesForUser(eq(userId), any(), any())).thenReturn(testDeadlines);
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"8\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Should encode the list as CBOR with epoch millis and its own ETag")
+    void shouldEncodeListAsCbor() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(8L);
+        when(deadlinesService.getDeadlinesForUser(eq(userId), any(), any())).thenReturn(testDeadlines);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"8-cbor\""))
+                .andReturn();
+
+        // Then
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(2, body.size());
+        assertEquals("Deadline 1", body.get(0).get("deadline_name").asText());
+        assertEquals(testDeadlines.get(0).getDeadline().toEpochMilli(), body.get(0).get("deadline").asLong());
+    }
+
+    @Test
+    @DisplayName("Should write epoch millis JSON only when it is asked for by name")
+    void shouldWriteEpochMillisJsonOnlyWhenAsked() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(8L);
+        when(deadlinesService.getDeadlinesForUser(eq(userId), any(), any())).thenReturn(testDeadlines);
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .accept(EncodingsConfig.EPOCH_MILLIS_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EncodingsConfig.EPOCH_MILLIS_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"8-ms\""))
+                .andExpect(jsonPath("$[0].deadline").value(testDeadlines.get(0).getDeadline().toEpochMilli()));
+
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].deadline").value(testDeadlines.get(0).getDeadline().toString()));
+    }
+
+    @Test
+    @DisplayName("Should answer 304 to the ETag of another encoding of the same version")
+    void shouldAnswerNotModifiedForEncodedEtag() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(7L);
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"7-cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7-cbor\""));
+        verify(deadlinesService, never()).getDeadlinesForUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should send the list again when the expansion window of an open range has moved")
+    void shouldResendOpenListForNewWindow() throws Exception {
+        // Given
+        when(deadlinesService.getDeadlinesVersion(userId)).thenReturn(7L);
+        when(deadlinesService.getExpansionWindow(null, null)).thenReturn("2026-10-18");
+        when(deadlinesService.getDeadlinesForUser(eq(userId), any(), any())).thenReturn(testDeadlines);
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"7.2026-10-17\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7.2026-10-18\""))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
     @Test
     @DisplayName("Should get deadlines for user with date filters")
     void shouldGetDeadlinesForUserWithDateFilters() throws Exception {
@@ -99,7 +259,7 @@ class DeadlinesControllerTest {
 
         // When & Then
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .param("from", fromDate.toString())
                 .param("to", toDate.toString()))
                 .andExpect(status().isOk())
@@ -116,7 +276,7 @@ class DeadlinesControllerTest {
 
         // When & Then
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString()))
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray())
@@ -127,11 +287,11 @@ class DeadlinesControllerTest {
     @DisplayName("Should create deadline for user successfully")
     void shouldCreateDeadlineForUserSuccessfully() throws Exception {
         // Given
-        when(deadlinesService.createDeadlineForUser(eq(userId), any(DeadlineDto.class))).thenReturn(testDeadlineEntity);
+        when(deadlinesService.createDeadlineForUser(eq(userId), any(DeadlineDto.class), isNull())).thenReturn(testDeadlineEntity);
 
         // When & Then
         mockMvc.perform(post("/deadlines/create_deadline_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .param("deadline", objectMapper.writeValueAsString(testDeadlineDto))
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -141,6 +301,52 @@ class DeadlinesControllerTest {
                 .andExpect(jsonPath("$.deadline_description").value("Test Description"));
     }
 
+    @Test
+    @DisplayName("Should create a recurring deadline and reject a bad rule with 400")
+    void shouldCreateRecurringDeadline() throws Exception {
+        // Given
+        when(deadlinesService.createDeadlineForUser(eq(userId), any(DeadlineDto.class), eq("FREQ=WEEKLY;BYDAY=MO")))
+                .thenReturn(testDeadlineEntity);
+        when(deadlinesService.createDeadlineForUser(eq(userId), any(DeadlineDto.class), eq("FREQ=HOURLY")))
+                .thenThrow(new InvalidRecurrenceException("FREQ=HOURLY is not supported"));
+
+        // When & Then
+        mockMvc.perform(post("/deadlines/create_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("deadline", objectMapper.writeValueAsString(testDeadlineDto))
+                .param("recurrence", "FREQ=WEEKLY;BYDAY=MO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deadline_id").value(1L));
+        mockMvc.perform(post("/deadlines/create_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("deadline", objectMapper.writeValueAsString(testDeadlineDto))
+                .param("recurrence", "FREQ=HOURLY"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Bad recurrence rule: FREQ=HOURLY is not supported"));
+    }
+
+    @Test
+    @DisplayName("Should create deadlines in bulk from a JSON array")
+    void shouldCreateDeadlinesInBulk() throws Exception {
+        // Given
+        BulkCreateResultDto result = new BulkCreateResultDto(1, 1, List.of(
+                new BulkCreateItemDto(0, testDeadlineDto, null),
+                new BulkCreateItemDto(1, null, "Missing deadline_name")));
+        when(deadlinesService.createDeadlinesForUser(eq(userId), any())).thenReturn(result);
+
+        // When & Then
+        mockMvc.perform(post("/deadlines/create_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .content(objectMapper.writeValueAsString(List.of(testDeadlineDto, testDeadlineDto)))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].deadline.deadline_name").value("Test Deadline"))
+                .andExpect(jsonPath("$.items[0].error").doesNotExist())
+                .andExpect(jsonPath("$.items[1].error").value("Missing deadline_name"));
+    }
+
     @Test
     @DisplayName("Should delete deadline for user successfully")
     void shouldDeleteDeadlineForUserSuccessfully() throws Exception {
@@ -150,33 +356,97 @@ class DeadlinesControllerTest {
 
         // When & Then
         mockMvc.perform(post("/deadlines/delete_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .param("deadlineId", deadlineId.toString())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
+        verify(deadlinesService).deleteDeadlineForUser(userId, deadlineId);
     }
 
     @Test
-    @DisplayName("Should handle missing userId parameter")
-    void shouldHandleMissingUserIdParameter() throws Exception {
+    @DisplayName("Should delete deadlines in bulk and return the count")
+    void shouldDeleteDeadlinesInBulk() throws Exception {
+        // Given
+        when(deadlinesService.deleteDeadlinesForUser(userId, List.of(1L, 2L))).thenReturn(2);
+
         // When & Then
-        mockMvc.perform(get("/deadlines/get_deadlines_for_user"))
+        mockMvc.perform(post("/deadlines/delete_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .content("[1, 2]")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+
+    @Test
+    @DisplayName("Should require an upper bound for range deletes")
+    void shouldRequireUpperBoundForRangeDelete() throws Exception {
+        // When & Then
+        mockMvc.perform(post("/deadlines/delete_deadlines_in_range_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN))
                 .andExpect(status().isBadRequest());
+        verifyNoInteractions(deadlinesService);
     }
 
     @Test
-    @DisplayName("Should handle invalid userId parameter")
-    void shouldHandleInvalidUserIdParameter() throws Exception {
+    @DisplayName("Should stream the export in the requested format")
+    void shouldStreamExport() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            invocation.getArgument(1, OutputStream.class).write("1,Test Deadline,,2030-01-01T00:00:00Z\r\n".getBytes());
+            return null;
+        }).when(deadlinesExporter).writeCsv(eq(userId), any());
+
+        // When
+        MvcResult result = mockMvc.perform(get("/deadlines/export_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string("1,Test Deadline,,2030-01-01T00:00:00Z\r\n"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown export formats")
+    void shouldRejectUnknownExportFormat() throws Exception {
         // When & Then
-        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", "invalid"))
+        mockMvc.perform(get("/deadlines/export_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("format", "xml"))
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("Should reject requests without a token")
+    void shouldRejectMissingToken() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(deadlinesService);
+    }
+
+    @Test
+    @DisplayName("Should reject an invalid token and ignore a userId parameter")
+    void shouldRejectInvalidToken() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer forged")
+                .param("userId", userId.toString()))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(deadlinesService);
+    }
+
     @Test
     @DisplayName("Should handle missing deadlineId parameter in delete")
     void shouldHandleMissingDeadlineIdParameter() throws Exception {
         // When & Then
         mockMvc.perform(post("/deadlines/delete_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
     }
@@ -186,6 +456,7 @@ class DeadlinesControllerTest {
     void shouldHandleInvalidDeadlineIdParameter() throws Exception {
         // When & Then
         mockMvc.perform(post("/deadlines/delete_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .param("deadlineId", "invalid")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isBadRequest());
@@ -196,9 +467,86 @@ class DeadlinesControllerTest {
     void shouldHandleInvalidDateFormatInFilters() throws Exception {
         // When & Then
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
                 .param("from", "invalid-date")
                 .param("to", "invalid-date"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("Should return a page with the next cursor header")
+    void shouldReturnPageWithNextCursor() throws Exception {
+        // Given
+        DeadlineCursor next = DeadlineCursor.after(testDeadlines.get(1));
+        when(deadlinesService.getDeadlinesPageForUser(eq(userId), any(), any(), any(), eq(2)))
+                .thenReturn(new DeadlinesPage(testDeadlines, next));
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(DeadlinesController.NEXT_CURSOR_HEADER, next.encode()))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Should omit the next cursor header on the last page")
+    void shouldOmitNextCursorOnLastPage() throws Exception {
+        // Given
+        DeadlineCursor cursor = DeadlineCursor.after(testDeadlines.get(0));
+        when(deadlinesService.getDeadlinesPageForUser(eq(userId), any(), any(), eq(cursor), eq(DeadlinesService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new DeadlinesPage(testDeadlines.subList(1, 2), null));
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(DeadlinesController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed cursor")
+    void shouldRejectMalformedCursor() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Should return the changes since a sync token")
+    void shouldSyncSinceToken() throws Exception {
+        // Given
+        SyncToken since = new SyncToken(3L, 7L, Instant.now());
+        when(deadlinesSync.getChangesForUser(userId, since, DeadlinesService.MAX_PAGE_SIZE))
+                .thenReturn(new SyncResultDto(testDeadlines.subList(0, 1), List.of(8L), "next", false));
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/sync_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("token", since.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.deleted[0]").value(8))
+                .andExpect(jsonPath("$.next_token").value("next"))
+                .andExpect(jsonPath("$.has_more").value(false));
+    }
+
+    @Test
+    @DisplayName("Should answer 410 for an expired sync token")
+    void shouldRejectExpiredSyncToken() throws Exception {
+        // Given
+        when(deadlinesSync.getChangesForUser(eq(userId), any(), eq(DeadlinesService.MAX_PAGE_SIZE)))
+                .thenThrow(new SyncTokenExpiredException());
+
+        // When & Then
+        mockMvc.perform(get("/deadlines/sync_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, BEARER_TOKEN)
+                .param("token", new SyncToken(1L, 1L, Instant.EPOCH).encode()))
+                .andExpect(status().isGone());
+    }
 }
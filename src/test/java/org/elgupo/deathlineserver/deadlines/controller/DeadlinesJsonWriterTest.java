@@ -0,0 +1,92 @@
+package org.elgupo.deathlineserver.deadlines.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeadlinesJsonWriter Tests")
+class DeadlinesJsonWriterTest {
+
+    private ObjectWriter jackson;
+
+    @BeforeEach
+    void setUp() {
+        // The same defaults Spring Boot uses for the HTTP message converters
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        jackson = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, DeadlineDto.class));
+    }
+
+    @Test
+    @DisplayName("Should write the golden output")
+    void shouldWriteGoldenOutput() throws IOException {
+        // Given
+        List<DeadlineDto> deadlines = List.of(
+            new DeadlineDto(1L, "Lab 1", "Submit \"report\"\n", Instant.parse("2025-03-01T09:30:00Z")),
+            new DeadlineDto(2L, null, null, null));
+
+        // When
+        String json = write(deadlines);
+
+        // Then
+        assertEquals("[{\"deadline_id\":1,\"deadline_name\":\"Lab 1\",\"deadline_description\":\"Submit \\\"report\\\"\\n\","
+            + "\"deadline\":\"2025-03-01T09:30:00Z\"},"
+            + "{\"deadline_id\":2,\"deadline_name\":null,\"deadline_description\":null,\"deadline\":null}]", json);
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes as Jackson for escapes, non-ASCII text and instant precisions")
+    void shouldMatchJacksonForEdgeCases() throws IOException {
+        // Given
+        List<DeadlineDto> deadlines = List.of(
+            new DeadlineDto(0L, "", "\u0000\u0001\u001f\u007f\b\t\f\r\\/", Instant.EPOCH),
+            new DeadlineDto(-5L, "\u00dcn\u00efc\u00f6d\u00e9", "\u4e2d\u6587 and \uD83D\uDE00 and a lone \uD800", Instant.parse("2024-02-29T23:59:59.100Z")),
+            new DeadlineDto(Long.MAX_VALUE, "micros", null, Instant.parse("2000-01-01T00:00:00.000001Z")),
+            new DeadlineDto(Long.MIN_VALUE, "nanos", null, Instant.parse("2100-12-31T12:00:00.123456789Z")),
+            new DeadlineDto(null, "before 1970", null, Instant.parse("1969-07-20T20:17:40Z")),
+            new DeadlineDto(7L, "after 9999", null, Instant.parse("+10000-01-01T00:00:00Z")),
+            new DeadlineDto(8L, "last fast", null, Instant.parse("9999-12-31T23:59:59.999Z")));
+
+        // When & Then
+        assertArrayEquals(jackson.writeValueAsBytes(deadlines), writeBytes(deadlines));
+        assertArrayEquals(jackson.writeValueAsBytes(List.of()), writeBytes(List.of()));
+    }
+
+    @Test
+    @DisplayName("Should write the same bytes as Jackson for lists larger than the buffer")
+    void shouldMatchJacksonForLargeLists() throws IOException {
+        // Given
+        SplittableRandom random = new SplittableRandom(42);
+        List<DeadlineDto> deadlines = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            deadlines.add(new DeadlineDto(random.nextLong(), "Deadline " + i, "\u041e\u043f\u0438\u0441\u0430\u043d\u0438\u0435 " + i,
+                Instant.ofEpochSecond(random.nextLong(253402300800L), random.nextInt(1_000_000_000))));
+        }
+
+        // When & Then
+        assertArrayEquals(jackson.writeValueAsBytes(deadlines), writeBytes(deadlines));
+    }
+
+    private String write(List<DeadlineDto> deadlines) throws IOException {
+        return new String(writeBytes(deadlines), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] writeBytes(List<DeadlineDto> deadlines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DeadlinesJsonWriter.write(deadlines, out);
+        return out.toByteArray();
+    }
+}
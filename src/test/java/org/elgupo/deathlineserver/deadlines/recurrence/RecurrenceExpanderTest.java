@@ -0,0 +1,83 @@
+package org.elgupo.deathlineserver.deadlines.recurrence;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecurrenceExpander Tests")
+class RecurrenceExpanderTest {
+
+    private static final Instant START = Instant.parse("2025-01-06T09:00:00Z");
+
+    private RecurrenceExpander expander;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        expander = new RecurrenceExpander(1000, Duration.ofDays(365), 50);
+        meterRegistry = new SimpleMeterRegistry();
+        expander.bindTo(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should expand only the window, with exclusive bounds and without the first occurrence")
+    void shouldExpandWindow() {
+        // When
+        List<Instant> fromStart = expander.occurrences("FREQ=WEEKLY", START, null, null, START.plus(15, ChronoUnit.DAYS), 50);
+        List<Instant> window = expander.occurrences("FREQ=WEEKLY", START,
+            null, START.plus(7, ChronoUnit.DAYS), START.plus(21, ChronoUnit.DAYS), 50);
+
+        // Then
+        assertEquals(List.of(START.plus(7, ChronoUnit.DAYS), START.plus(14, ChronoUnit.DAYS)), fromStart);
+        assertEquals(List.of(START.plus(14, ChronoUnit.DAYS)), window);
+    }
+
+    @Test
+    @DisplayName("Should stop at the end of the series and at the limit")
+    void shouldStopAtEndAndLimit() {
+        // When
+        List<Instant> ended = expander.occurrences("FREQ=DAILY;COUNT=3", START,
+            START.plus(2, ChronoUnit.DAYS), null, START.plus(30, ChronoUnit.DAYS), 50);
+        List<Instant> limited = expander.occurrences("FREQ=DAILY", START, null, null, Instant.parse("9999-01-01T00:00:00Z"), 50);
+
+        // Then - an infinite rule over an unbounded window is still cut short
+        assertEquals(List.of(START.plus(1, ChronoUnit.DAYS), START.plus(2, ChronoUnit.DAYS)), ended);
+        assertEquals(50, limited.size());
+        assertEquals(START.plus(50, ChronoUnit.DAYS), limited.get(49));
+    }
+
+    @Test
+    @DisplayName("Should serve overlapping windows from cached buckets")
+    void shouldCacheBuckets() {
+        // Given
+        Instant from = START.plus(100, ChronoUnit.DAYS);
+        List<Instant> first = expander.occurrences("FREQ=DAILY", START, null, from, from.plus(10, ChronoUnit.DAYS), 50);
+
+        // When - a window slid forward by a minute, as the reminder schedulers do
+        List<Instant> second = expander.occurrences("FREQ=DAILY", START,
+            null, from.plusSeconds(60), from.plus(10, ChronoUnit.DAYS).plusSeconds(60), 50);
+
+        // Then - the same days, and the one the window moved onto
+        assertEquals(first, second.subList(0, first.size()));
+        assertEquals(first.size() + 1, second.size());
+        assertTrue(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Should find the next occurrence, including the first one")
+    void shouldFindNextOccurrence() {
+        // When & Then
+        assertEquals(START, expander.next("FREQ=WEEKLY", START, null, START.minusSeconds(1)));
+        assertEquals(START.plus(7, ChronoUnit.DAYS), expander.next("FREQ=WEEKLY", START, null, START));
+        assertNull(expander.next("FREQ=WEEKLY;COUNT=2", START, START.plus(7, ChronoUnit.DAYS), START.plus(7, ChronoUnit.DAYS)));
+        assertNull(expander.next("not a rule", START, null, START));
+    }
+}
@@ -0,0 +1,80 @@
+package org.elgupo.deathlineserver.deadlines.recurrence;
+
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RecurrenceRule Tests")
+class RecurrenceRuleTest {
+
+    @Test
+    @DisplayName("Should walk weekly rules by day from any point of the series")
+    void shouldWalkWeeklyRulesByDay() throws InvalidRecurrenceException {
+        // Given - every other week on Monday and Wednesday, starting on a Wednesday
+        RecurrenceRule rule = RecurrenceRule.parse("RRULE:freq=weekly;interval=2;byday=we,mo");
+        Instant start = Instant.parse("2025-03-05T09:00:00Z");
+
+        // When
+        List<Instant> fromStart = take(rule.occurrencesAfter(start, start), 3);
+        List<Instant> fromLater = take(rule.occurrencesAfter(start, Instant.parse("2026-03-01T00:00:00Z")), 2);
+
+        // Then
+        assertEquals("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE", rule.toString());
+        assertEquals(List.of(Instant.parse("2025-03-17T09:00:00Z"), Instant.parse("2025-03-19T09:00:00Z"),
+            Instant.parse("2025-03-31T09:00:00Z")), fromStart);
+        assertEquals(List.of(Instant.parse("2026-03-02T09:00:00Z"), Instant.parse("2026-03-04T09:00:00Z")), fromLater);
+    }
+
+    @Test
+    @DisplayName("Should skip dates that do not exist instead of moving them")
+    void shouldSkipMissingDates() throws InvalidRecurrenceException {
+        // When
+        List<Instant> monthly = take(RecurrenceRule.parse("FREQ=MONTHLY")
+            .occurrencesAfter(Instant.parse("2025-01-31T10:00:00Z"), Instant.parse("2025-01-31T10:00:00Z")), 3);
+        List<Instant> leapDays = take(RecurrenceRule.parse("FREQ=YEARLY")
+            .occurrencesAfter(Instant.parse("2024-02-29T10:00:00Z"), Instant.parse("2024-02-29T10:00:00Z")), 2);
+
+        // Then
+        assertEquals(List.of(Instant.parse("2025-03-31T10:00:00Z"), Instant.parse("2025-05-31T10:00:00Z"),
+            Instant.parse("2025-07-31T10:00:00Z")), monthly);
+        assertEquals(List.of(Instant.parse("2028-02-29T10:00:00Z"), Instant.parse("2032-02-29T10:00:00Z")), leapDays);
+    }
+
+    @Test
+    @DisplayName("Should end series at COUNT and UNTIL, and never for infinite rules")
+    void shouldEndSeries() throws InvalidRecurrenceException {
+        // Given
+        Instant friday = Instant.parse("2025-03-07T09:00:00Z");
+
+        // When & Then
+        assertEquals(Instant.parse("2025-03-14T09:00:00Z"), RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,FR;COUNT=3").end(friday));
+        assertEquals(Instant.parse("2025-03-10T23:59:59.999999999Z"), RecurrenceRule.parse("FREQ=DAILY;UNTIL=20250310").end(friday));
+        assertEquals(friday, RecurrenceRule.parse("FREQ=DAILY;UNTIL=20250101T000000Z").end(friday));
+        assertNull(RecurrenceRule.parse("FREQ=DAILY").end(friday));
+    }
+
+    @Test
+    @DisplayName("Should reject rules it cannot expand exactly")
+    void shouldRejectUnsupportedRules() {
+        for (String rule : new String[]{"", "FREQ=HOURLY", "INTERVAL=2", "FREQ=DAILY;COUNT=0", "FREQ=DAILY;FREQ=WEEKLY",
+                "FREQ=DAILY;COUNT=2;UNTIL=20250101", "FREQ=MONTHLY;BYDAY=MO", "FREQ=WEEKLY;BYDAY=1MO",
+                "FREQ=MONTHLY;BYMONTHDAY=-1", "FREQ=DAILY;UNTIL=tomorrow", "FREQ"}) {
+            assertThrows(InvalidRecurrenceException.class, () -> RecurrenceRule.parse(rule), rule);
+        }
+    }
+
+    private static List<Instant> take(Iterator<Instant> occurrences, int count) {
+        List<Instant> taken = new ArrayList<>();
+        while (taken.size() < count && occurrences.hasNext()) {
+            taken.add(occurrences.next());
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,99 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import jakarta.persistence.EntityManager;
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A fetch size below the row count, so that the cursor has to come back for more
+@SpringBootTest(properties = "deadlines.export.fetch-size=2")
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("DeadlineExportRepository Tests")
+class DeadlineExportRepositoryTest {
+
+    @Autowired
+    private DeadlineExportRepository exportRepository;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Long userId = 30L;
+    private final Long otherUserId = 40L;
+    private Instant base;
+
+    @BeforeEach
+    void setUp() {
+        base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // Saved out of order so that ordering has to come from the query
+        for (int day : new int[]{5, 1, 3, 2, 4}) {
+            deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+                userId, "Day " + day, "Description " + day,
+                base.plus(day, ChronoUnit.DAYS), Instant.now(), null));
+        }
+        deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+            otherUserId, "Other user", "Description",
+            base.plus(2, ChronoUnit.DAYS), Instant.now(), null));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should stream every deadline of the user in order across fetches")
+    void shouldStreamDeadlinesInOrder() {
+        // Given
+        List<DeadlineDto> exported = new ArrayList<>();
+
+        // When
+        exportRepository.forEachDeadlineOfUser(userId, exported::add);
+
+        // Then
+        assertEquals(List.of("Day 1", "Day 2", "Day 3", "Day 4", "Day 5"),
+            exported.stream().map(DeadlineDto::getName).toList());
+        assertEquals(deadlinesRepository.findByUserIdOrderByDeadlineAsc(userId), exported);
+        assertEquals(base.plus(1, ChronoUnit.DAYS), exported.get(0).getDeadline());
+    }
+
+    @Test
+    @DisplayName("Should leave out deleted deadlines")
+    void shouldSkipDeletedDeadlines() {
+        // Given
+        deadlinesRepository.deleteByUserIdAndDeadlineBefore(userId, base.plus(3, ChronoUnit.DAYS), 1L, Instant.now());
+        List<DeadlineDto> exported = new ArrayList<>();
+
+        // When
+        exportRepository.forEachDeadlineOfUser(userId, exported::add);
+
+        // Then
+        assertEquals(List.of("Day 3", "Day 4", "Day 5"), exported.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should export nothing for a user without deadlines")
+    void shouldExportNothingForUnknownUser() {
+        // Given
+        List<DeadlineDto> exported = new ArrayList<>();
+
+        // When
+        exportRepository.forEachDeadlineOfUser(999L, exported::add);
+
+        // Then
+        assertTrue(exported.isEmpty());
+    }
+}
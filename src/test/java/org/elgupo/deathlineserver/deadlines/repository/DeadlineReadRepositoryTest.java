@@ -0,0 +1,147 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import jakarta.persistence.EntityManager;
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("DeadlineReadRepository Tests")
+class DeadlineReadRepositoryTest {
+
+    @Autowired
+    private DeadlineReadRepository readRepository;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final Long userId = 10L;
+    private final Long otherUserId = 20L;
+    private Instant base;
+
+    @BeforeEach
+    void setUp() {
+        base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // Saved out of order so that ordering has to come from the query
+        for (int day : new int[]{5, 1, 3, 2, 4}) {
+            deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+                userId, "Day " + day, "Description " + day,
+                base.plus(day, ChronoUnit.DAYS), Instant.now(), null));
+        }
+        deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+            otherUserId, "Other user", "Description",
+            base.plus(2, ChronoUnit.DAYS), Instant.now(), null));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Should return the same deadlines as the JPA queries")
+    void shouldMatchJpaQueries() {
+        // When
+        List<DeadlineDto> all = readRepository.findByUserId(userId);
+        List<DeadlineDto> range = readRepository.findByUserIdBetween(
+            userId, base.plus(1, ChronoUnit.DAYS), base.plus(5, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(deadlinesRepository.findByUserIdOrderByDeadlineAsc(userId), all);
+        assertEquals(deadlinesRepository.findByUserIdAndDeadlineAfterAndDeadlineBeforeOrderByDeadlineAsc(
+            userId, base.plus(1, ChronoUnit.DAYS), base.plus(5, ChronoUnit.DAYS)), range);
+        assertEquals(base.plus(1, ChronoUnit.DAYS), all.get(0).getDeadline());
+    }
+
+    @Test
+    @DisplayName("Should apply either bound alone, both exclusive")
+    void shouldFilterWithOpenBounds() {
+        // When
+        List<DeadlineDto> after = readRepository.findByUserIdBetween(userId, base.plus(3, ChronoUnit.DAYS), null);
+        List<DeadlineDto> before = readRepository.findByUserIdBetween(userId, null, base.plus(3, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(List.of("Day 4", "Day 5"), after.stream().map(DeadlineDto::getName).toList());
+        assertEquals(List.of("Day 1", "Day 2"), before.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should walk all rows with keyset pages, including ties on deadline")
+    void shouldWalkKeysetPages() {
+        // Given - a tie on the deadline so that deadline_id has to break it
+        deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+            userId, "Day 3 bis", "Description", base.plus(3, ChronoUnit.DAYS), Instant.now(), null));
+        entityManager.flush();
+
+        // When
+        List<String> names = new ArrayList<>();
+        List<DeadlineDto> page = readRepository.findPageByUserId(userId, null, null, base.plus(5, ChronoUnit.DAYS), 2);
+        while (!page.isEmpty()) {
+            page.forEach(deadline -> names.add(deadline.getName()));
+            DeadlineDto last = page.get(page.size() - 1);
+            page = readRepository.findPageByUserId(userId, last.getDeadline(), last.getDeadlineId(), base.plus(5, ChronoUnit.DAYS), 2);
+        }
+
+        // Then
+        assertEquals(List.of("Day 1", "Day 2", "Day 3", "Day 3 bis", "Day 4"), names);
+    }
+
+    @Test
+    @DisplayName("Should skip deleted deadlines")
+    void shouldSkipDeletedDeadlines() {
+        // Given
+        deadlinesRepository.deleteByUserIdAndDeadlineBefore(userId, base.plus(3, ChronoUnit.DAYS), 1L, Instant.now());
+
+        // When
+        List<DeadlineDto> all = readRepository.findByUserId(userId);
+        List<DeadlineDto> firstPage = readRepository.findPageByUserId(userId, null, null, null, 10);
+
+        // Then
+        assertEquals(List.of("Day 3", "Day 4", "Day 5"), all.stream().map(DeadlineDto::getName).toList());
+        assertEquals(all, firstPage);
+        assertEquals(1, readRepository.findByUserId(otherUserId).size());
+    }
+
+    @Test
+    @DisplayName("Should find the recurring deadlines that overlap a range")
+    void shouldFindRecurringDeadlines() {
+        // Given - an endless weekly series, and a daily one that ended on day 3
+        DeadlineEntity weekly = TestDataFactory.createDeadlineEntity(
+            userId, "Weekly", "Description", base.minus(30, ChronoUnit.DAYS), Instant.now(), null);
+        weekly.setRecurrence("FREQ=WEEKLY");
+        DeadlineEntity ended = TestDataFactory.createDeadlineEntity(
+            userId, "Ended", "Description", base, Instant.now(), null);
+        ended.setRecurrence("FREQ=DAILY;COUNT=4");
+        ended.setRecurrenceEnd(base.plus(3, ChronoUnit.DAYS));
+        deadlinesRepository.save(weekly);
+        deadlinesRepository.save(ended);
+        entityManager.flush();
+
+        // When
+        List<RecurringDeadline> early = readRepository.findRecurringByUserId(userId, base, base.plus(10, ChronoUnit.DAYS));
+        List<RecurringDeadline> late = readRepository.findRecurringByUserId(
+            userId, base.plus(3, ChronoUnit.DAYS), base.plus(10, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(List.of("Ended", "Weekly"), early.stream().map(recurring -> recurring.first().getName()).sorted().toList());
+        assertEquals(List.of("Weekly"), late.stream().map(recurring -> recurring.first().getName()).toList());
+        assertEquals("FREQ=WEEKLY", late.get(0).recurrence());
+        assertNull(late.get(0).end());
+        assertEquals(base.minus(30, ChronoUnit.DAYS), late.get(0).first().getDeadline());
+    }
+}
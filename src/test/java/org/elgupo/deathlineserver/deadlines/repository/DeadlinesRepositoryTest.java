@@ -0,0 +1,157 @@
+package org.elgupo.deathlineserver.deadlines.repository;
+
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("DeadlinesRepository Tests")
+class DeadlinesRepositoryTest {
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    private final Long userId = 10L;
+    private final Long otherUserId = 20L;
+    private Instant base;
+
+    @BeforeEach
+    void setUp() {
+        base = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // Saved out of order so that ordering has to come from the query
+        for (int day : new int[]{5, 1, 3, 2, 4}) {
+            deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+                userId, "Day " + day, "Description " + day,
+                base.plus(day, ChronoUnit.DAYS), Instant.now(), null));
+        }
+        deadlinesRepository.save(TestDataFactory.createDeadlineEntity(
+            otherUserId, "Other user", "Description",
+            base.plus(2, ChronoUnit.DAYS), Instant.now(), null));
+    }
+
+    @Test
+    @DisplayName("Should return only rows inside the range, ordered by deadline")
+    void shouldFilterByRangeInDatabase() {
+        // When
+        List<DeadlineDto> result = deadlinesRepository.findByUserIdAndDeadlineAfterAndDeadlineBeforeOrderByDeadlineAsc(
+            userId, base.plus(1, ChronoUnit.DAYS), base.plus(5, ChronoUnit.DAYS));
+
+        // Then - both bounds are exclusive
+        assertEquals(List.of("Day 2", "Day 3", "Day 4"), result.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should support an open-ended upper bound")
+    void shouldFilterWithOnlyFrom() {
+        // When
+        List<DeadlineDto> result = deadlinesRepository.findByUserIdAndDeadlineAfterOrderByDeadlineAsc(
+            userId, base.plus(3, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(List.of("Day 4", "Day 5"), result.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should support an open-ended lower bound")
+    void shouldFilterWithOnlyTo() {
+        // When
+        List<DeadlineDto> result = deadlinesRepository.findByUserIdAndDeadlineBeforeOrderByDeadlineAsc(
+            userId, base.plus(3, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(List.of("Day 1", "Day 2"), result.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should return all user's rows ordered by deadline without a range")
+    void shouldOrderWithoutRange() {
+        // When
+        List<DeadlineDto> result = deadlinesRepository.findByUserIdOrderByDeadlineAsc(userId);
+
+        // Then
+        assertEquals(List.of("Day 1", "Day 2", "Day 3", "Day 4", "Day 5"),
+            result.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should read the first keyset page in (deadline, deadline_id) order")
+    void shouldReadFirstPage() {
+        // When
+        List<DeadlineDto> page = deadlinesRepository.findFirstPage(userId, Limit.of(2));
+
+        // Then
+        assertEquals(List.of("Day 1", "Day 2"), page.stream().map(DeadlineDto::getName).toList());
+    }
+
+    @Test
+    @DisplayName("Should delete only the user's deadlines among the given ids")
+    void shouldDeleteByIdsForUser() {
+        // Given
+        List<Long> ids = new ArrayList<>();
+        deadlinesRepository.findAll().forEach(deadline -> ids.add(deadline.getDeadlineId()));
+
+        // When
+        int deleted = deadlinesRepository.deleteByUserIdAndDeadlineIds(userId, ids.toArray(Long[]::new), 1L, Instant.now());
+
+        // Then
+        assertEquals(5, deleted);
+        assertTrue(deadlinesRepository.findByUserId(userId).isEmpty());
+        assertEquals(1, deadlinesRepository.findByUserId(otherUserId).size());
+    }
+
+    @Test
+    @DisplayName("Should delete the user's deadlines inside a range")
+    void shouldDeleteByRangeForUser() {
+        // When
+        int before = deadlinesRepository.deleteByUserIdAndDeadlineBefore(userId, base.plus(2, ChronoUnit.DAYS), 1L, Instant.now());
+        int between = deadlinesRepository.deleteByUserIdAndDeadlineBetween(
+            userId, base.plus(3, ChronoUnit.DAYS), base.plus(5, ChronoUnit.DAYS), 2L, Instant.now());
+
+        // Then - both bounds are exclusive
+        assertEquals(1, before);
+        assertEquals(1, between);
+        assertEquals(List.of("Day 2", "Day 3", "Day 5"),
+            deadlinesRepository.findByUserIdOrderByDeadlineAsc(userId).stream().map(DeadlineDto::getName).toList());
+        assertEquals(1, deadlinesRepository.findByUserId(otherUserId).size());
+    }
+
+    @Test
+    @DisplayName("Should find only the recurring deadlines that may occur in a window")
+    void shouldFindRecurringBetween() {
+        // Given - a live series, one that ended before the window and one that starts after it
+        DeadlineEntity live = TestDataFactory.createDeadlineEntity(userId, "Live", null, base.minus(7, ChronoUnit.DAYS), Instant.now(), null);
+        live.setRecurrence("FREQ=DAILY");
+        DeadlineEntity ended = TestDataFactory.createDeadlineEntity(userId, "Ended", null, base.minus(7, ChronoUnit.DAYS), Instant.now(), null);
+        ended.setRecurrence("FREQ=DAILY;COUNT=2");
+        ended.setRecurrenceEnd(base.minus(6, ChronoUnit.DAYS));
+        DeadlineEntity later = TestDataFactory.createDeadlineEntity(userId, "Later", null, base.plus(7, ChronoUnit.DAYS), Instant.now(), null);
+        later.setRecurrence("FREQ=WEEKLY");
+        deadlinesRepository.saveAll(List.of(live, ended, later));
+
+        // When
+        List<RecurringDeadline> recurring = deadlinesRepository.findRecurringBetween(base, base.plus(1, ChronoUnit.DAYS));
+
+        // Then
+        assertEquals(1, recurring.size());
+        assertEquals(new DeadlineDto(live.getDeadlineId(), "Live", null, live.getDeadline()), recurring.get(0).first());
+        assertEquals("FREQ=DAILY", recurring.get(0).recurrence());
+        assertNull(recurring.get(0).end());
+    }
+}
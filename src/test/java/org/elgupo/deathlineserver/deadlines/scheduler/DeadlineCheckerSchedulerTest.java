@@ -0,0 +1,130 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.deadlines.repository.RecurringDeadline;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.services.NotificationDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeadlineCheckerScheduler Tests")
+class DeadlineCheckerSchedulerTest {
+
+    @Mock
+    private DeadlinesRepository deadlinesRepository;
+
+    @Mock
+    private NotificationDispatcher notificationDispatcher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DeadlineCheckerScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new DeadlineCheckerScheduler(deadlinesRepository, new RecurrenceExpander(100, Duration.ofDays(365), 1000),
+            notificationDispatcher, meterRegistry, "log",
+            Duration.ofMinutes(30), Duration.ofMinutes(10), Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should load only the bounded window of upcoming deadlines")
+    void shouldLoadBoundedWindow() {
+        // Given
+        DeadlineEntity soon = TestDataFactory.createDeadlineEntity(
+            1L, "Soon", "Description", Instant.now().plus(35, ChronoUnit.MINUTES), Instant.now(), 1L);
+        when(deadlinesRepository.findByDeadlineGreaterThanEqualAndDeadlineLessThan(any(), any())).thenReturn(List.of(soon));
+
+        // When
+        scheduler.checkDeadlines();
+
+        // Then
+        assertEquals(1, scheduler.scheduledCount());
+        verify(deadlinesRepository).findByDeadlineGreaterThanEqualAndDeadlineLessThan(
+            argThat(start -> !start.isAfter(Instant.now())),
+            argThat(end -> end.isBefore(Instant.now().plus(41, ChronoUnit.MINUTES))));
+    }
+
+    @Test
+    @DisplayName("Should fire reminders that are already due")
+    void shouldFireDueReminders() {
+        // Given - the reminder time of this deadline has already passed
+        DeadlineEntity due = TestDataFactory.createDeadlineEntity(
+            1L, "Due", "Description", Instant.now().plus(5, ChronoUnit.MINUTES), Instant.now(), 1L);
+        when(deadlinesRepository.findByDeadlineGreaterThanEqualAndDeadlineLessThan(any(), any())).thenReturn(List.of(due));
+        when(deadlinesRepository.findByDeadlineIdIn(List.of(1L))).thenReturn(List.of(due));
+        scheduler.checkDeadlines();
+
+        // When - a past reminder is due on the next tick
+        scheduler.fireDueReminders(Instant.now().plusSeconds(2));
+
+        // Then
+        verify(deadlinesRepository).findByDeadlineIdIn(List.of(1L));
+        verify(notificationDispatcher).enqueue(new Notification("log", 1L, 1L, "Due", due.getDeadline()));
+        assertEquals(0, scheduler.scheduledCount());
+        assertEquals(1, meterRegistry.get("deadlines.reminders.load").timer().count());
+        assertEquals(1, meterRegistry.get("deadlines.reminders.load.rows").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("deadlines.reminders.lag").tag("mode", "wheel").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should track deadlines created and deleted inside the loaded window")
+    void shouldTrackCreatedAndDeletedDeadlines() {
+        // Given
+        when(deadlinesRepository.findByDeadlineGreaterThanEqualAndDeadlineLessThan(any(), any())).thenReturn(Collections.emptyList());
+        scheduler.checkDeadlines();
+        DeadlineEntity inWindow = TestDataFactory.createDeadlineEntity(
+            1L, "In window", "Description", Instant.now().plus(35, ChronoUnit.MINUTES), Instant.now(), 1L);
+        DeadlineEntity later = TestDataFactory.createDeadlineEntity(
+            1L, "Later", "Description", Instant.now().plus(1, ChronoUnit.DAYS), Instant.now(), 2L);
+
+        // When
+        scheduler.onDeadlineCreated(inWindow);
+        scheduler.onDeadlineCreated(later);
+
+        // Then - the later one is picked up by a future window
+        assertEquals(1, scheduler.scheduledCount());
+        scheduler.onDeadlineDeleted(1L);
+        assertEquals(0, scheduler.scheduledCount());
+    }
+
+    @Test
+    @DisplayName("Should fire a recurring deadline for its occurrence in the window")
+    void shouldFireRecurringOccurrence() {
+        // Given - a daily series whose first occurrence was yesterday; today's reminder is already due
+        Instant today = Instant.now().plus(5, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.MILLIS);
+        DeadlineEntity daily = TestDataFactory.createDeadlineEntity(
+            1L, "Daily", "Description", today.minus(1, ChronoUnit.DAYS), Instant.now(), 1L);
+        daily.setRecurrence("FREQ=DAILY");
+        when(deadlinesRepository.findRecurringBetween(any(), any())).thenReturn(List.of(
+            new RecurringDeadline(1L, "Daily", "Description", daily.getDeadline(), "FREQ=DAILY", null)));
+        when(deadlinesRepository.findByDeadlineIdIn(List.of(1L))).thenReturn(List.of(daily));
+        scheduler.checkDeadlines();
+
+        // When
+        scheduler.fireDueReminders(Instant.now().plusSeconds(2));
+
+        // Then - tomorrow's occurrence is left to a later window
+        verify(notificationDispatcher).enqueue(new Notification("log", 1L, 1L, "Daily", today));
+        assertEquals(0, scheduler.scheduledCount());
+    }
+}
@@ -0,0 +1,193 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elgupo.deathlineserver.TestDataFactory;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineClaimsRepository;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.services.NotificationDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+    "deadlines.reminders.mode=claim",
+    // Keep the context's own node out of the way, the test drives its nodes by hand
+    "deadlines.reminders.claim-interval=1h"
+})
+@ActiveProfiles("test")
+@DisplayName("DeadlineClaimScheduler Tests")
+class DeadlineClaimSchedulerTest {
+
+    private static final int DUE_DEADLINES = 500;
+    private static final int NODES = 4;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @Autowired
+    private DeadlineClaimsRepository claimsRepository;
+
+    @Autowired
+    private RecurrenceExpander recurrenceExpander;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private NotificationDispatcher notificationDispatcher;
+
+    private final Map<Long, AtomicInteger> reminders = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        when(notificationDispatcher.enqueue(any())).thenAnswer(invocation -> {
+            Notification notification = invocation.getArgument(0);
+            reminders.computeIfAbsent(notification.deadlineId(), id -> new AtomicInteger()).incrementAndGet();
+            return true;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        deadlinesRepository.deleteAll();
+    }
+
+    private DeadlineClaimScheduler node(String nodeId, int batchSize) {
+        return new DeadlineClaimScheduler(claimsRepository, recurrenceExpander, notificationDispatcher, new SimpleMeterRegistry(), "log",
+            Duration.ofMinutes(30), Duration.ofMinutes(1), batchSize, nodeId);
+    }
+
+    private List<DeadlineEntity> saveDeadlines(int count, Instant deadline) {
+        List<DeadlineEntity> deadlines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            deadlines.add(TestDataFactory.createDeadlineEntity(
+                1L, "Deadline " + i, "Description", deadline.plusMillis(i), Instant.now(), null));
+        }
+        List<DeadlineEntity> saved = new ArrayList<>();
+        deadlinesRepository.saveAll(deadlines).forEach(saved::add);
+        return saved;
+    }
+
+    @Test
+    @DisplayName("Should remind every due deadline exactly once across competing nodes")
+    void shouldShareWorkBetweenNodes() throws Exception {
+        // Given
+        saveDeadlines(DUE_DEADLINES, Instant.now().plus(10, ChronoUnit.MINUTES));
+        saveDeadlines(10, Instant.now().plus(2, ChronoUnit.HOURS)); // not due yet
+
+        // When - several nodes claim small batches concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            DeadlineClaimScheduler node = node("node-" + i, 25);
+            runs.add(executor.submit(node::checkDeadlines));
+        }
+        for (Future<?> run : runs) {
+            run.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(DUE_DEADLINES, reminders.size());
+        assertTrue(reminders.values().stream().allMatch(count -> count.get() == 1));
+        Integer unreminded = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM deadlines WHERE reminded_at IS NULL", Integer.class);
+        assertEquals(10, unreminded);
+    }
+
+    @Test
+    @DisplayName("Should not hand out rows leased by a live node")
+    void shouldSkipLeasedRows() {
+        // Given
+        saveDeadlines(3, Instant.now().plus(10, ChronoUnit.MINUTES));
+        Instant now = Instant.now();
+        List<DeadlineEntity> first = claimsRepository.claimDue("node-a", now, now.plus(30, ChronoUnit.MINUTES),
+            now.plus(1, ChronoUnit.MINUTES), 2);
+
+        // When
+        List<DeadlineEntity> second = claimsRepository.claimDue("node-b", now, now.plus(30, ChronoUnit.MINUTES),
+            now.plus(1, ChronoUnit.MINUTES), 10);
+
+        // Then
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertTrue(first.stream().noneMatch(claimed -> claimed.getDeadlineId().equals(second.get(0).getDeadlineId())));
+    }
+
+    @Test
+    @DisplayName("Should reclaim rows whose lease expired")
+    void shouldReclaimExpiredLeases() {
+        // Given - a node died while holding the lease
+        List<DeadlineEntity> saved = saveDeadlines(1, Instant.now().plus(10, ChronoUnit.MINUTES));
+        jdbcTemplate.update("UPDATE deadlines SET claimed_by = 'dead-node', lease_until = ? WHERE deadline_id = ?",
+            OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(5), saved.get(0).getDeadlineId());
+
+        // When
+        node("node-a", 10).checkDeadlines();
+
+        // Then
+        assertEquals(1, reminders.get(saved.get(0).getDeadlineId()).get());
+        String claimedBy = jdbcTemplate.queryForObject(
+            "SELECT claimed_by FROM deadlines WHERE deadline_id = ?", String.class, saved.get(0).getDeadlineId());
+        assertNull(claimedBy);
+    }
+
+    @Test
+    @DisplayName("Should remind each occurrence of a recurring deadline once and move on to the next")
+    void shouldRemindRecurringOccurrences() {
+        // Given - a daily series that began yesterday, and one whose next occurrence passed while no node ran
+        Instant start = Instant.now().plus(10, ChronoUnit.MINUTES).minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        DeadlineEntity daily = TestDataFactory.createDeadlineEntity(1L, "Daily", "Description", start, Instant.now(), null);
+        daily.setRecurrence("FREQ=DAILY");
+        daily.setNextOccurrence(start.plus(1, ChronoUnit.DAYS));
+        DeadlineEntity missed = TestDataFactory.createDeadlineEntity(1L, "Missed", "Description",
+            start.minus(3, ChronoUnit.DAYS), Instant.now(), null);
+        missed.setRecurrence("FREQ=DAILY");
+        missed.setNextOccurrence(start.minus(2, ChronoUnit.DAYS));
+        deadlinesRepository.save(daily);
+        deadlinesRepository.save(missed);
+        DeadlineClaimScheduler node = node("node-a", 10);
+
+        // When
+        node.checkDeadlines();
+        node.checkDeadlines();
+
+        // Then - the passed occurrences of the second series are skipped, its upcoming one is reminded
+        assertEquals(1, reminders.get(daily.getDeadlineId()).get());
+        assertEquals(1, reminders.get(missed.getDeadlineId()).get());
+        assertEquals(start.plus(2, ChronoUnit.DAYS), nextOccurrence(daily.getDeadlineId()));
+        assertEquals(start.plus(2, ChronoUnit.DAYS), nextOccurrence(missed.getDeadlineId()));
+    }
+
+    private Instant nextOccurrence(Long deadlineId) {
+        return jdbcTemplate.queryForObject("SELECT next_occurrence FROM deadlines WHERE deadline_id = ?",
+            OffsetDateTime.class, deadlineId).toInstant();
+    }
+}
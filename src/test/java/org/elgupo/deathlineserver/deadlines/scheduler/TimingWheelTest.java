@@ -0,0 +1,105 @@
+package org.elgupo.deathlineserver.deadlines.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TimingWheel Tests")
+class TimingWheelTest {
+
+    private static final long START = 1_000L;
+
+    private TimingWheel wheel;
+    private List<Long> expired;
+
+    @BeforeEach
+    void setUp() {
+        // 3 levels of 8 slots: ticks up to 512 ahead fit into the wheel
+        wheel = new TimingWheel(3, 3, START);
+        expired = new ArrayList<>();
+    }
+
+    @Test
+    @DisplayName("Should expire an entry exactly at its tick")
+    void shouldExpireAtTick() {
+        // Given
+        wheel.schedule(1L, START + 5);
+
+        // When
+        wheel.advanceTo(START + 4, expired::add);
+
+        // Then
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(START + 5, expired::add);
+        assertEquals(List.of(1L), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should cascade entries from higher levels without firing early or late")
+    void shouldCascadeFromHigherLevels() {
+        // Given - one entry per level and one in the overflow list
+        long[] ticks = {START + 3, START + 40, START + 300, START + 2_000};
+        for (int i = 0; i < ticks.length; i++) {
+            wheel.schedule(i, ticks[i]);
+        }
+
+        // When & Then
+        for (int i = 0; i < ticks.length; i++) {
+            wheel.advanceTo(ticks[i] - 1, expired::add);
+            assertEquals(i, expired.size());
+            wheel.advanceTo(ticks[i], expired::add);
+            assertEquals((long) i, expired.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should not expire cancelled entries")
+    void shouldNotExpireCancelledEntries() {
+        // Given
+        wheel.schedule(1L, START + 100);
+        wheel.schedule(2L, START + 100);
+
+        // When
+        assertTrue(wheel.cancel(1L));
+        wheel.advanceTo(START + 200, expired::add);
+
+        // Then
+        assertEquals(List.of(2L), expired);
+        assertFalse(wheel.cancel(1L));
+    }
+
+    @Test
+    @DisplayName("Should keep only the latest schedule of an id")
+    void shouldReplacePreviousSchedule() {
+        // Given
+        wheel.schedule(1L, START + 10);
+        wheel.schedule(1L, START + 20);
+
+        // When
+        wheel.advanceTo(START + 15, expired::add);
+
+        // Then
+        assertTrue(expired.isEmpty());
+        wheel.advanceTo(START + 20, expired::add);
+        assertEquals(List.of(1L), expired);
+    }
+
+    @Test
+    @DisplayName("Should expire overdue entries on the next tick")
+    void shouldExpireOverdueEntriesOnNextTick() {
+        // Given
+        wheel.schedule(1L, START - 100);
+
+        // When
+        wheel.advanceTo(START + 1, expired::add);
+
+        // Then
+        assertEquals(List.of(1L), expired);
+    }
+}
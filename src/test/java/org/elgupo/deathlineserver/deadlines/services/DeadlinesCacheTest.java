@@ -0,0 +1,120 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DeadlinesCache Tests")
+class DeadlinesCacheTest {
+
+    private static final Instant BASE = Instant.parse("2030-01-01T00:00:00Z");
+
+    private DeadlinesCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DeadlinesCache(100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Should load once and count hits and misses")
+    void shouldLoadOnce() {
+        // When
+        cache.get(1L, this::load);
+        List<DeadlineDto> result = cache.get(1L, this::load);
+
+        // Then
+        assertEquals(deadlines(3), result);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Should load again after invalidation")
+    void shouldReloadAfterInvalidate() {
+        // Given
+        cache.get(1L, this::load);
+
+        // When
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not store a load that raced an invalidation")
+    void shouldNotStoreStaleLoad() {
+        // When: a write lands while the list is being read from the database
+        List<DeadlineDto> stale = cache.get(1L, userId -> {
+            cache.invalidate(userId);
+            return load(userId);
+        });
+        cache.get(1L, this::load);
+
+        // Then
+        assertEquals(deadlines(3), stale);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should slice ranges with exclusive bounds, or miss when not cached")
+    void shouldSliceRanges() {
+        // Given
+        assertNull(cache.getRangeIfPresent(1L, BASE, null));
+        cache.get(1L, this::load);
+
+        // When
+        List<DeadlineDto> after = cache.getRangeIfPresent(1L, at(0), null);
+        List<DeadlineDto> before = cache.getRangeIfPresent(1L, null, at(2));
+        List<DeadlineDto> between = cache.getRangeIfPresent(1L, at(0), at(1));
+
+        // Then
+        assertEquals(deadlines(3).subList(1, 3), after);
+        assertEquals(deadlines(3).subList(0, 2), before);
+        assertTrue(between.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should evict by the total number of cached deadlines")
+    void shouldEvictByWeight() {
+        // When: 50 users of 3 deadlines weigh 200, twice the bound
+        for (long userId = 1; userId <= 50; userId++) {
+            cache.get(userId, this::load);
+        }
+        cache.cleanUp();
+
+        // Then
+        assertTrue(cache.estimatedSize() <= 25);
+    }
+
+    private List<DeadlineDto> load(Long userId) {
+        loads.incrementAndGet();
+        return deadlines(3);
+    }
+
+    private static List<DeadlineDto> deadlines(int count) {
+        List<DeadlineDto> deadlines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            deadlines.add(new DeadlineDto((long) i, "Deadline " + i, "Description " + i, at(i)));
+        }
+        return deadlines;
+    }
+
+    private static Instant at(int hours) {
+        return BASE.plus(Duration.ofHours(hours));
+    }
+}
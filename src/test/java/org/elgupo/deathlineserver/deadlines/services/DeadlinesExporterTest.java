@@ -0,0 +1,143 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineExportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DeadlinesExporter Tests")
+class DeadlinesExporterTest {
+
+    private static final Long USER_ID = 1L;
+    private static final Instant AT = Instant.parse("2030-01-01T10:15:30Z");
+
+    @Mock
+    private DeadlineExportRepository exportRepository;
+
+    private DeadlinesExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        exporter = new DeadlinesExporter(exportRepository, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteNdjson() throws Exception {
+        // Given
+        rows(List.of(
+            new DeadlineDto(1L, "First", "Description", AT),
+            new DeadlineDto(2L, "Second", null, AT)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exporter.writeNdjson(USER_ID, out);
+
+        // Then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("{\"deadline_id\":1,\"deadline_name\":\"First\",\"deadline_description\":\"Description\",\"deadline\":\"2030-01-01T10:15:30Z\"}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"deadline_id\":2,"));
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    @DisplayName("Should write CSV with a header and quote fields that need it")
+    void shouldWriteCsv() throws Exception {
+        // Given
+        rows(List.of(
+            new DeadlineDto(1L, "Plain", null, AT),
+            new DeadlineDto(2L, "Comma, \"quoted\"", "Two\nlines", AT)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        exporter.writeCsv(USER_ID, out);
+
+        // Then
+        assertEquals(DeadlinesExporter.CSV_HEADER
+                + "1,Plain,,2030-01-01T10:15:30Z\r\n"
+                + "2,\"Comma, \"\"quoted\"\"\",\"Two\nlines\",2030-01-01T10:15:30Z\r\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    // Streams two million rows, so it runs with the other benchmarks: ./gradlew benchmark
+    @Tag("benchmark")
+    @Test
+    @DisplayName("Should keep heap use flat however many rows are exported")
+    void shouldExportInConstantMemory() throws Exception {
+        // Given - two million generated rows, written to a stream that keeps nothing
+        int rows = 2_000_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] heapAfter = new long[2];
+        doAnswer(invocation -> {
+            Consumer<DeadlineDto> action = invocation.getArgument(1);
+            for (int i = 0; i < rows; i++) {
+                action.accept(new DeadlineDto((long) i, "Deadline " + i, "Description " + i, AT.plusSeconds(i)));
+                if (i == rows / 10) {
+                    heapAfter[0] = usedHeapAfterGc(memory);
+                }
+            }
+            heapAfter[1] = usedHeapAfterGc(memory);
+            return null;
+        }).when(exportRepository).forEachDeadlineOfUser(eq(USER_ID), any());
+        CountingOutputStream out = new CountingOutputStream();
+
+        // When
+        exporter.writeNdjson(USER_ID, out);
+
+        // Then - retaining the rows would take hundreds of megabytes
+        assertTrue(out.count > 100L * rows);
+        long growth = heapAfter[1] - heapAfter[0];
+        assertTrue(growth < 16 * 1024 * 1024, "Heap grew by " + growth + " bytes");
+    }
+
+    private void rows(List<DeadlineDto> deadlines) {
+        doAnswer(invocation -> {
+            Consumer<DeadlineDto> action = invocation.getArgument(1);
+            deadlines.forEach(action);
+            return null;
+        }).when(exportRepository).forEachDeadlineOfUser(eq(USER_ID), any());
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
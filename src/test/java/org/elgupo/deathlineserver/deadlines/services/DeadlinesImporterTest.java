@@ -0,0 +1,106 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.ImportResultDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: every batch commits on its own
+@SpringBootTest(properties = "deadlines.import.batch-size=10")
+@ActiveProfiles("test")
+@DisplayName("DeadlinesImporter Tests")
+class DeadlinesImporterTest {
+
+    private static final Long USER_ID = 77L;
+
+    @Autowired
+    private DeadlinesImporter importer;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @AfterEach
+    void tearDown() {
+        deadlinesRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should import events across batches and skip duplicate UIDs and invalid events")
+    void shouldImportAndDeduplicate() throws Exception {
+        // Given - 25 events over three batches, one repeated in a later batch, one without a start
+        StringBuilder calendar = new StringBuilder("BEGIN:VCALENDAR\r\n");
+        for (int i = 0; i < 25; i++) {
+            calendar.append(event("event-" + i, "Event " + i, "203001" + String.format("%02d", i + 1) + "T120000Z"));
+        }
+        calendar.append(event("event-3", "Event 3 again", "20300301T120000Z"));
+        calendar.append("BEGIN:VEVENT\r\nUID:no-start\r\nSUMMARY:No start\r\nEND:VEVENT\r\n");
+        calendar.append("END:VCALENDAR\r\n");
+
+        // When
+        ImportResultDto first = importer.importIcs(USER_ID, stream(calendar));
+        ImportResultDto second = importer.importIcs(USER_ID, stream(calendar));
+
+        // Then
+        assertEquals(new ImportResultDto(25, 1, 1, 0), first);
+        assertEquals(new ImportResultDto(0, 26, 1, 0), second);
+        List<DeadlineDto> imported = deadlinesRepository.findByUserIdOrderByDeadlineAsc(USER_ID);
+        assertEquals(25, imported.size());
+        assertEquals("Event 0", imported.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should truncate long summaries to the deadline_name column and read lower-case names")
+    void shouldTruncateLongSummaries() throws Exception {
+        // Given
+        String calendar = "BEGIN:VCALENDAR\r\n"
+                + event("long", "a".repeat(250), "20300101T120000Z")
+                + "BEGIN:VEVENT\r\nuid:lower\r\nsummary:Lower case\r\ndtstart:20300102T120000Z\r\nEND:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+
+        // When
+        ImportResultDto first = importer.importIcs(USER_ID, stream(calendar));
+        ImportResultDto second = importer.importIcs(USER_ID, stream(calendar));
+
+        // Then
+        assertEquals(new ImportResultDto(2, 0, 0, 1), first);
+        assertEquals(new ImportResultDto(0, 2, 0, 0), second);
+        List<DeadlineDto> imported = deadlinesRepository.findByUserIdOrderByDeadlineAsc(USER_ID);
+        assertEquals(DeadlinesService.MAX_NAME_LENGTH, imported.get(0).getName().length());
+        assertEquals("Lower case", imported.get(1).getName());
+    }
+
+    @Test
+    @DisplayName("Should import long descriptions in full")
+    void shouldKeepLongDescriptions() throws Exception {
+        // Given
+        String description = "b".repeat(1_000);
+        String calendar = "BEGIN:VCALENDAR\r\nBEGIN:VEVENT\r\nUID:described\r\nSUMMARY:Described\r\n"
+                + "DESCRIPTION:" + description + "\r\nDTSTART:20300101T120000Z\r\nEND:VEVENT\r\nEND:VCALENDAR\r\n";
+
+        // When
+        ImportResultDto result = importer.importIcs(USER_ID, stream(calendar));
+
+        // Then
+        assertEquals(new ImportResultDto(1, 0, 0, 0), result);
+        assertEquals(description, deadlinesRepository.findByUserIdOrderByDeadlineAsc(USER_ID).get(0).getDescription());
+    }
+
+    private static String event(String uid, String summary, String start) {
+        return "BEGIN:VEVENT\r\nUID:" + uid + "\r\nSUMMARY:" + summary + "\r\nDTSTART:" + start + "\r\nEND:VEVENT\r\n";
+    }
+
+    private static ByteArrayInputStream stream(CharSequence calendar) {
+        return new ByteArrayInputStream(calendar.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
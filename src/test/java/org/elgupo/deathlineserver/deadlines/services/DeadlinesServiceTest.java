@@ -1,16 +1,26 @@
 package org.elgupo.deathlineserver.deadlines.services;
 
+import org.elgupo.deathlineserver.deadlines.InvalidRecurrenceException;
+import org.elgupo.deathlineserver.deadlines.TooManyDeadlinesException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.BulkCreateResultDto;
 import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.recurrence.RecurrenceExpander;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlineEntity;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineReadRepository;
 import org.elgupo.deathlineserver.deadlines.repository.DeadlinesRepository;
+import org.elgupo.deathlineserver.deadlines.repository.RecurringDeadline;
+import org.elgupo.deathlineserver.deadlines.scheduler.ReminderScheduler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
@@ -19,7 +29,13 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +45,24 @@ class DeadlinesServiceTest {
     @Mock
     private DeadlinesRepository deadlinesRepository;
 
+    @Mock
+    private DeadlineReadRepository readRepository;
+
+    @Mock
+    private ReminderScheduler reminderScheduler;
+
+    @Mock
+    private DeadlinesVersions deadlinesVersions;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private DeadlinesCache deadlinesCache = new DeadlinesCache(1000, Duration.ofMinutes(1));
+
+    @Spy
+    private RecurrenceExpander recurrenceExpander = new RecurrenceExpander(100, Duration.ofDays(365), 1000);
+
     @InjectMocks
     private DeadlinesService deadlinesService;
 
@@ -68,7 +102,7 @@ class DeadlinesServiceTest {
     @DisplayName("Should get all deadlines for user when no date filters provided")
     void shouldGetAllDeadlinesForUserWithoutFilters() {
         // Given
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        when(readRepository.findByUserId(userId)).thenReturn(testDeadlines);
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, null, null);
@@ -77,7 +111,7 @@ class DeadlinesServiceTest {
         assertNotNull(result);
         assertEquals(3, result.size());
         assertEquals(testDeadlines, result);
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1)).findByUserId(userId);
     }
 
     @Test
@@ -85,7 +119,7 @@ class DeadlinesServiceTest {
     void shouldFilterDeadlinesByFromDate() {
         // Given
         Instant fromDate = Instant.now().plus(1, ChronoUnit.HOURS);
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        when(readRepository.findByUserIdBetween(userId, fromDate, null)).thenReturn(testDeadlines);
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, fromDate, null);
@@ -93,7 +127,8 @@ class DeadlinesServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(3, result.size()); // All deadlines are after fromDate
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1)).findByUserIdBetween(userId, fromDate, null);
+        verify(readRepository, never()).findByUserId(any());
     }
 
     @Test
@@ -101,7 +136,7 @@ class DeadlinesServiceTest {
     void shouldFilterDeadlinesByToDate() {
         // Given
         Instant toDate = Instant.now().plus(1, ChronoUnit.HOURS);
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        when(readRepository.findByUserIdBetween(userId, null, toDate)).thenReturn(Collections.emptyList());
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, null, toDate);
@@ -109,7 +144,8 @@ class DeadlinesServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(0, result.size()); // No deadlines are before toDate
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1)).findByUserIdBetween(userId, null, toDate);
+        verify(readRepository, never()).findByUserId(any());
     }
 
     @Test
@@ -118,7 +154,8 @@ class DeadlinesServiceTest {
         // Given
         Instant fromDate = Instant.now().plus(1, ChronoUnit.HOURS);
         Instant toDate = Instant.now().plus(2, ChronoUnit.DAYS);
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        when(readRepository.findByUserIdBetween(userId, fromDate, toDate))
+                .thenReturn(testDeadlines.subList(0, 2));
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, fromDate, toDate);
@@ -126,14 +163,16 @@ class DeadlinesServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(2, result.size()); // Only deadlines 1 and 2 are in range
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1))
+                .findByUserIdBetween(userId, fromDate, toDate);
+        verify(readRepository, never()).findByUserId(any());
     }
 
     @Test
     @DisplayName("Should return empty list when user has no deadlines")
     void shouldReturnEmptyListWhenNoDeadlines() {
         // Given
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+        when(readRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, null, null);
@@ -141,13 +180,14 @@ class DeadlinesServiceTest {
         // Then
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1)).findByUserId(userId);
     }
 
     @Test
     @DisplayName("Should successfully create deadline for user")
     void shouldCreateDeadlineForUser() {
         // Given
+        when(deadlinesVersions.lockNext(userId)).thenReturn(5L);
         when(deadlinesRepository.save(any(DeadlineEntity.class))).thenReturn(testDeadlineEntity);
 
         // When
@@ -160,7 +200,78 @@ class DeadlinesServiceTest {
         assertEquals(testDeadlineDto.getName(), result.getName());
         assertEquals(testDeadlineDto.getDescription(), result.getDescription());
         assertEquals(testDeadlineDto.getDeadline(), result.getDeadline());
-        verify(deadlinesRepository, times(1)).save(any(DeadlineEntity.class));
+        verify(deadlinesRepository, times(1)).save(argThat((DeadlineEntity entity) -> entity.getChangeSeq() == 5L));
+        verify(reminderScheduler, times(1)).onDeadlineCreated(testDeadlineEntity);
+        verify(deadlinesVersions, times(1)).advance(userId, 5L);
+        verify(eventPublisher, times(1)).publishEvent(new DeadlinesChangedEvent(userId, 5L,
+                List.of(new DeadlineDto(1L, testDeadlineEntity.getName(), testDeadlineEntity.getDescription(), testDeadlineEntity.getDeadline())), null));
+    }
+
+    @Test
+    @DisplayName("Should create valid deadlines in one batch and report invalid ones by index")
+    void shouldCreateDeadlinesInBulk() throws TooManyDeadlinesException {
+        // Given
+        Instant at = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<DeadlineDto> deadlines = Arrays.asList(
+            new DeadlineDto(null, "First", "Description", at),
+            new DeadlineDto(null, " ", "Description", at),
+            null,
+            new DeadlineDto(null, "Fourth", null, at),
+            new DeadlineDto(null, "Fifth", "Description", null)
+        );
+        when(deadlinesRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<DeadlineEntity> entities = invocation.getArgument(0);
+            for (int i = 0; i < entities.size(); i++) {
+                entities.get(i).setDeadlineId(100L + i);
+            }
+            return entities;
+        });
+
+        // When
+        BulkCreateResultDto result = deadlinesService.createDeadlinesForUser(userId, deadlines);
+
+        // Then
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(100L, result.getItems().get(0).getDeadline().getDeadlineId());
+        assertEquals("Missing deadline_name", result.getItems().get(1).getError());
+        assertEquals("Missing deadline", result.getItems().get(2).getError());
+        assertEquals(101L, result.getItems().get(3).getDeadline().getDeadlineId());
+        assertEquals(4, result.getItems().get(4).getIndex());
+        assertNull(result.getItems().get(4).getDeadline());
+        verify(deadlinesRepository, times(1)).saveAll(anyList());
+        verify(reminderScheduler, times(2)).onDeadlineCreated(any(DeadlineEntity.class));
+        verify(deadlinesCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Should report names longer than the deadline_name column per item")
+    void shouldRejectTooLongNames() throws TooManyDeadlinesException {
+        // Given
+        Instant at = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<DeadlineDto> deadlines = List.of(
+            new DeadlineDto(null, "a".repeat(DeadlinesService.MAX_NAME_LENGTH), null, at),
+            new DeadlineDto(null, "a".repeat(DeadlinesService.MAX_NAME_LENGTH + 1), null, at)
+        );
+        when(deadlinesRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        BulkCreateResultDto result = deadlinesService.createDeadlinesForUser(userId, deadlines);
+
+        // Then
+        assertEquals(1, result.getCreated());
+        assertEquals("deadline_name is longer than 200 characters", result.getItems().get(1).getError());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk creates over the limit")
+    void shouldRejectTooManyDeadlines() {
+        // Given
+        List<DeadlineDto> deadlines = Collections.nCopies(DeadlinesService.MAX_BULK_SIZE + 1, testDeadlineDto);
+
+        // When & Then
+        assertThrows(TooManyDeadlinesException.class, () -> deadlinesService.createDeadlinesForUser(userId, deadlines));
+        verifyNoInteractions(deadlinesRepository);
     }
 
     @Test
@@ -168,13 +279,77 @@ class DeadlinesServiceTest {
     void shouldDeleteDeadlineForUser() {
         // Given
         Long deadlineId = 1L;
-        doNothing().when(deadlinesRepository).deleteByDeadlineId(deadlineId);
+        when(deadlinesRepository.deleteByUserIdAndDeadlineIds(eq(userId), aryEq(new Long[]{deadlineId}), anyLong(), any())).thenReturn(1);
+
+        // When
+        deadlinesService.deleteDeadlineForUser(userId, deadlineId);
+
+        // Then
+        verify(deadlinesRepository, times(1)).deleteByUserIdAndDeadlineIds(eq(userId), aryEq(new Long[]{deadlineId}), anyLong(), any());
+        verify(reminderScheduler, times(1)).onDeadlineDeleted(deadlineId);
+        verify(deadlinesCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Should leave deadlines of other users alone")
+    void shouldNotDeleteDeadlineOfAnotherUser() {
+        // Given
+        Long deadlineId = 1L;
+        when(deadlinesRepository.deleteByUserIdAndDeadlineIds(eq(2L), aryEq(new Long[]{deadlineId}), anyLong(), any())).thenReturn(0);
+
+        // When
+        deadlinesService.deleteDeadlineForUser(2L, deadlineId);
+
+        // Then
+        verify(reminderScheduler, never()).onDeadlineDeleted(any());
+        verify(deadlinesCache, never()).invalidate(any());
+        verify(deadlinesVersions, never()).advance(any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should delete deadlines by id in one statement")
+    void shouldDeleteDeadlinesInBulk() throws TooManyDeadlinesException {
+        // Given
+        when(deadlinesRepository.deleteByUserIdAndDeadlineIds(eq(userId), aryEq(new Long[]{1L, 2L, 3L}), anyLong(), any())).thenReturn(3);
+
+        // When
+        int deleted = deadlinesService.deleteDeadlinesForUser(userId, Arrays.asList(1L, 2L, 2L, null, 3L));
+
+        // Then
+        assertEquals(3, deleted);
+        verify(deadlinesRepository, times(1)).deleteByUserIdAndDeadlineIds(eq(userId), aryEq(new Long[]{1L, 2L, 3L}), anyLong(), any());
+        verify(reminderScheduler, times(3)).onDeadlineDeleted(any());
+        verify(deadlinesCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Should not cancel reminders when some ids were not the user's")
+    void shouldNotCancelRemindersOnPartialBulkDelete() throws TooManyDeadlinesException {
+        // Given
+        when(deadlinesRepository.deleteByUserIdAndDeadlineIds(eq(userId), aryEq(new Long[]{1L, 2L}), anyLong(), any())).thenReturn(1);
+
+        // When
+        int deleted = deadlinesService.deleteDeadlinesForUser(userId, List.of(1L, 2L));
+
+        // Then
+        assertEquals(1, deleted);
+        verify(reminderScheduler, never()).onDeadlineDeleted(any());
+        verify(deadlinesCache, times(1)).invalidate(userId);
+    }
+
+    @Test
+    @DisplayName("Should delete deadlines before an instant in one statement")
+    void shouldDeleteDeadlinesBefore() {
+        // Given
+        Instant to = Instant.now();
+        when(deadlinesRepository.deleteByUserIdAndDeadlineBefore(eq(userId), eq(to), anyLong(), any())).thenReturn(0);
 
         // When
-        deadlinesService.deleteDeadlineForUser(deadlineId);
+        int deleted = deadlinesService.deleteDeadlinesInRangeForUser(userId, null, to);
 
         // Then
-        verify(deadlinesRepository, times(1)).deleteByDeadlineId(deadlineId);
+        assertEquals(0, deleted);
+        verify(deadlinesCache, never()).invalidate(any());
     }
 
     @Test
@@ -242,11 +417,12 @@ class DeadlinesServiceTest {
     void shouldHandleExactDateBoundaries() {
         // Given
         Instant exactTime = Instant.now().plus(1, ChronoUnit.DAYS);
-        List<DeadlineDto> deadlinesWithExactTime = Arrays.asList(
-            new DeadlineDto(1L, "Deadline 1", "Description 1", exactTime),
+        List<DeadlineDto> deadlinesAfterExactTime = List.of(
             new DeadlineDto(2L, "Deadline 2", "Description 2", exactTime.plus(1, ChronoUnit.SECONDS))
         );
-        when(deadlinesRepository.findByUserId(userId)).thenReturn(deadlinesWithExactTime);
+        // 'from' is exclusive, so the strict "After" query must be used
+        when(readRepository.findByUserIdBetween(userId, exactTime, null))
+                .thenReturn(deadlinesAfterExactTime);
 
         // When
         List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, exactTime, null);
@@ -254,6 +430,186 @@ class DeadlinesServiceTest {
         // Then
         assertNotNull(result);
         assertEquals(1, result.size()); // Only deadline 2 is after exactTime
-        verify(deadlinesRepository, times(1)).findByUserId(userId);
+        verify(readRepository, times(1)).findByUserIdBetween(userId, exactTime, null);
+    }
+
+    @Test
+    @DisplayName("Should return a cursor when more rows follow the page")
+    void shouldReturnNextCursorWhenPageIsFull() {
+        // Given - one extra row is fetched to detect the next page
+        when(readRepository.findPageByUserId(userId, null, null, null, 3)).thenReturn(testDeadlines);
+
+        // When
+        DeadlinesPage page = deadlinesService.getDeadlinesPageForUser(userId, null, null, null, 2);
+
+        // Then
+        assertEquals(2, page.deadlines().size());
+        assertEquals(DeadlineCursor.after(testDeadlines.get(1)), page.next());
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor and stop on the last page")
+    void shouldContinueAfterCursor() {
+        // Given
+        DeadlineCursor cursor = DeadlineCursor.after(testDeadlines.get(1));
+        when(readRepository.findPageByUserId(userId, cursor.deadline(), cursor.deadlineId(), null, 3))
+                .thenReturn(testDeadlines.subList(2, 3));
+
+        // When
+        DeadlinesPage page = deadlinesService.getDeadlinesPageForUser(userId, null, null, cursor, 2);
+
+        // Then
+        assertEquals(1, page.deadlines().size());
+        assertNull(page.next());
+    }
+
+    @Test
+    @DisplayName("Should not let a cursor move the page before 'from'")
+    void shouldClampCursorToFrom() {
+        // Given
+        Instant fromDate = Instant.now().plus(10, ChronoUnit.DAYS);
+        DeadlineCursor staleCursor = DeadlineCursor.after(testDeadlines.get(0));
+        when(readRepository.findPageByUserId(eq(userId), eq(fromDate), eq(Long.MAX_VALUE), isNull(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        DeadlinesPage page = deadlinesService.getDeadlinesPageForUser(userId, fromDate, null, staleCursor, 10);
+
+        // Then
+        assertTrue(page.deadlines().isEmpty());
+        verify(readRepository).findPageByUserId(eq(userId), eq(fromDate), eq(Long.MAX_VALUE), isNull(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should serve repeated reads and ranges from the cache")
+    void shouldServeRepeatedReadsFromCache() {
+        // Given
+        when(readRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        Instant from = testDeadlines.get(0).getDeadline();
+
+        // When
+        deadlinesService.getDeadlinesForUser(userId, null, null);
+        List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, null, null);
+        List<DeadlineDto> range = deadlinesService.getDeadlinesForUser(userId, from, null);
+
+        // Then
+        assertEquals(testDeadlines, result);
+        assertEquals(testDeadlines.subList(1, 3), range);
+        verify(readRepository, times(1)).findByUserId(userId);
+        verify(readRepository, never()).findByUserIdBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should reload deadlines after a deadline is created")
+    void shouldReloadAfterCreate() {
+        // Given
+        when(readRepository.findByUserId(userId)).thenReturn(testDeadlines);
+        when(deadlinesRepository.save(any(DeadlineEntity.class))).thenReturn(testDeadlineEntity);
+        deadlinesService.getDeadlinesForUser(userId, null, null);
+
+        // When
+        deadlinesService.createDeadlineForUser(userId, testDeadlineDto);
+        deadlinesService.getDeadlinesForUser(userId, null, null);
+
+        // Then
+        verify(readRepository, times(2)).findByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("Should expand recurring deadlines only within the requested range")
+    void shouldExpandRecurringDeadlinesWithinRange() {
+        // Given - a weekly series from a Monday, and a one-off deadline in between
+        Instant monday = Instant.parse("2030-01-07T09:00:00Z");
+        Instant from = monday.plus(1, ChronoUnit.DAYS);
+        Instant to = monday.plus(22, ChronoUnit.DAYS);
+        DeadlineDto oneOff = new DeadlineDto(2L, "One-off", null, monday.plus(9, ChronoUnit.DAYS));
+        DeadlineDto lab = new DeadlineDto(1L, "Lab", "Weekly", monday);
+        when(readRepository.findByUserIdBetween(userId, from, to)).thenReturn(List.of(oneOff));
+        when(readRepository.findRecurringByUserId(userId, from, to))
+                .thenReturn(List.of(new RecurringDeadline(lab, "FREQ=WEEKLY", null)));
+
+        // When
+        List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, from, to);
+
+        // Then
+        assertEquals(List.of(
+                new DeadlineDto(1L, "Lab", "Weekly", monday.plus(7, ChronoUnit.DAYS)),
+                oneOff,
+                new DeadlineDto(1L, "Lab", "Weekly", monday.plus(14, ChronoUnit.DAYS)),
+                new DeadlineDto(1L, "Lab", "Weekly", monday.plus(21, ChronoUnit.DAYS))), result);
+    }
+
+    @Test
+    @DisplayName("Should bound infinite series by the horizon in full lists")
+    void shouldBoundInfiniteSeriesByHorizon() {
+        // Given
+        DeadlineDto daily = new DeadlineDto(1L, "Daily", null, Instant.now().minus(10, ChronoUnit.DAYS));
+        when(readRepository.findByUserId(userId)).thenReturn(List.of(daily));
+        when(readRepository.findRecurringByUserId(eq(userId), any(), any()))
+                .thenReturn(List.of(new RecurringDeadline(daily, "FREQ=DAILY", null)));
+
+        // When
+        List<DeadlineDto> result = deadlinesService.getDeadlinesForUser(userId, null, null);
+
+        // Then - the first occurrence, and the upcoming ones up to a year after today
+        Instant today = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        assertEquals(daily, result.get(0));
+        assertEquals(1 + 365, result.size(), 1);
+        assertFalse(result.get(1).getDeadline().isBefore(today));
+        assertTrue(result.get(result.size() - 1).getDeadline().isBefore(today.plus(365, ChronoUnit.DAYS)));
+    }
+
+    @Test
+    @DisplayName("Should name the expansion window only for open ranges")
+    void shouldNameExpansionWindowOfOpenRanges() {
+        // Given
+        Instant now = Instant.now();
+        String today = now.truncatedTo(ChronoUnit.DAYS).toString().substring(0, 10);
+
+        // When & Then
+        assertEquals(today, deadlinesService.getExpansionWindow(null, null));
+        assertEquals(today, deadlinesService.getExpansionWindow(now, null));
+        assertEquals(today, deadlinesService.getExpansionWindow(null, now));
+        assertNull(deadlinesService.getExpansionWindow(now, now.plus(1, ChronoUnit.DAYS)));
+    }
+
+    @Test
+    @DisplayName("Should merge occurrences into keyset pages")
+    void shouldMergeOccurrencesIntoPages() {
+        // Given - the row after the cursor comes after two occurrences of the series
+        Instant start = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        DeadlineDto daily = new DeadlineDto(1L, "Daily", null, start);
+        DeadlineDto later = new DeadlineDto(2L, "Later", null, start.plus(3, ChronoUnit.DAYS).plusSeconds(1));
+        DeadlineCursor cursor = DeadlineCursor.after(daily);
+        when(readRepository.findPageByUserId(userId, start, 1L, null, 3)).thenReturn(List.of(later));
+        when(readRepository.findRecurringByUserId(eq(userId), any(), any()))
+                .thenReturn(List.of(new RecurringDeadline(daily, "FREQ=DAILY;COUNT=10", start.plus(9, ChronoUnit.DAYS))));
+
+        // When
+        DeadlinesPage page = deadlinesService.getDeadlinesPageForUser(userId, null, null, cursor, 2);
+
+        // Then
+        assertEquals(List.of(start.plus(1, ChronoUnit.DAYS), start.plus(2, ChronoUnit.DAYS)),
+                page.deadlines().stream().map(DeadlineDto::getDeadline).toList());
+        assertEquals(DeadlineCursor.after(page.deadlines().get(1)), page.next());
+    }
+
+    @Test
+    @DisplayName("Should store the recurrence once with its end and next occurrence")
+    void shouldCreateRecurringDeadline() throws InvalidRecurrenceException {
+        // Given
+        when(deadlinesVersions.lockNext(userId)).thenReturn(5L);
+        when(deadlinesRepository.save(any(DeadlineEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        DeadlineEntity result = deadlinesService.createDeadlineForUser(userId, testDeadlineDto, "rrule:freq=weekly;count=3");
+
+        // Then
+        assertEquals("FREQ=WEEKLY;COUNT=3", result.getRecurrence());
+        assertEquals(testDeadlineDto.getDeadline().plus(14, ChronoUnit.DAYS), result.getRecurrenceEnd());
+        assertEquals(testDeadlineDto.getDeadline().plus(7, ChronoUnit.DAYS), result.getNextOccurrence());
+        verify(reminderScheduler).onDeadlineCreated(result);
+        assertThrows(InvalidRecurrenceException.class,
+                () -> deadlinesService.createDeadlineForUser(userId, testDeadlineDto, "FREQ=HOURLY"));
     }
 }
@@ -0,0 +1,117 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import jakarta.persistence.EntityManager;
+import org.elgupo.deathlineserver.deadlines.SyncTokenExpiredException;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.controller.dto.SyncResultDto;
+import org.elgupo.deathlineserver.deadlines.repository.DeadlineSyncRepository;
+import org.elgupo.deathlineserver.users.repositories.UserEntity;
+import org.elgupo.deathlineserver.users.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+@DisplayName("DeadlinesSync Tests")
+class DeadlinesSyncTest {
+
+    @Autowired
+    private DeadlinesService deadlinesService;
+
+    @Autowired
+    private DeadlinesSync deadlinesSync;
+
+    @Autowired
+    private DeadlineSyncRepository syncRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long userId;
+    private Instant at;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(new UserEntity("sync@example.com", "password")).getId();
+        at = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Should page through creates and then return only the deletes made since the token")
+    void shouldReturnChangesSinceToken() throws Exception {
+        // Given - two writes, the first of three rows
+        deadlinesService.createDeadlinesForUser(userId, List.of(deadline("First"), deadline("Second"), deadline("Third")));
+        Long fourthId = deadlinesService.createDeadlineForUser(userId, deadline("Fourth")).getDeadlineId();
+        entityManager.flush();
+
+        // When - an initial sync in pages of two
+        SyncResultDto first = deadlinesSync.getChangesForUser(userId, null, 2);
+        SyncResultDto second = deadlinesSync.getChangesForUser(userId, SyncToken.decode(first.getNextToken()), 2);
+
+        // Then
+        assertEquals(List.of("First", "Second"), first.getChanged().stream().map(DeadlineDto::getName).toList());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("Third", "Fourth"), second.getChanged().stream().map(DeadlineDto::getName).toList());
+        assertFalse(second.isHasMore());
+
+        // When - one delete after the sync
+        deadlinesService.deleteDeadlineForUser(userId, fourthId);
+        SyncResultDto third = deadlinesSync.getChangesForUser(userId, SyncToken.decode(second.getNextToken()), 2);
+
+        // Then
+        assertTrue(third.getChanged().isEmpty());
+        assertEquals(List.of(fourthId), third.getDeleted());
+        assertEquals(3L, deadlinesService.getDeadlinesVersion(userId));
+        assertEquals(3, deadlinesService.getDeadlinesForUser(userId, null, null).size());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens older than the tombstone retention")
+    void shouldRejectExpiredToken() {
+        // When & Then
+        assertThrows(SyncTokenExpiredException.class,
+                () -> deadlinesSync.getChangesForUser(userId, new SyncToken(1L, 1L, Instant.EPOCH), 10));
+    }
+
+    @Test
+    @DisplayName("Should compact tombstones in bounded batches")
+    void shouldCompactTombstonesInBatches() throws Exception {
+        // Given - two tombstones and a live row
+        deadlinesService.createDeadlinesForUser(userId, List.of(deadline("First"), deadline("Second"), deadline("Third")));
+        entityManager.flush();
+        List<Long> ids = deadlinesSync.getChangesForUser(userId, null, 10).getChanged().stream()
+                .map(DeadlineDto::getDeadlineId).toList();
+        deadlinesService.deleteDeadlinesForUser(userId, ids.subList(0, 2));
+
+        // When
+        Instant before = Instant.now().plus(1, ChronoUnit.MINUTES);
+        int firstBatch = syncRepository.deleteTombstones(before, 1);
+        int secondBatch = syncRepository.deleteTombstones(before, 1);
+        int thirdBatch = syncRepository.deleteTombstones(before, 1);
+
+        // Then
+        assertEquals(List.of(1, 1, 0), List.of(firstBatch, secondBatch, thirdBatch));
+        SyncResultDto changes = deadlinesSync.getChangesForUser(userId, null, 10);
+        assertEquals(1, changes.getChanged().size());
+        assertTrue(changes.getDeleted().isEmpty());
+    }
+
+    private DeadlineDto deadline(String name) {
+        return new DeadlineDto(null, name, "Description", at);
+    }
+}
@@ -0,0 +1,76 @@
+package org.elgupo.deathlineserver.deadlines.services;
+
+import org.elgupo.deathlineserver.deadlines.InvalidCalendarException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IcsEventReader Tests")
+class IcsEventReaderTest {
+
+    @Test
+    @DisplayName("Should read events with folded lines, escapes and nested components")
+    void shouldReadEvents() throws Exception {
+        // Given
+        IcsEventReader reader = new IcsEventReader(new StringReader(String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "BEGIN:VEVENT",
+            "UID:exam-1@university.example",
+            "SUMMARY:Final exam\\, algorithms",
+            "DESCRIPTION:Room 101\\nBring a pen",
+            " cil",
+            "DTSTART:20300115T090000Z",
+            "BEGIN:VALARM",
+            "DESCRIPTION:Alarm text",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "UID:lecture-1",
+            "SUMMARY:Lecture",
+            "DTSTART;TZID=\"Europe/Berlin\":20300701T100000",
+            "END:VEVENT",
+            "END:VCALENDAR",
+            "")));
+
+        // When
+        IcsEventReader.IcsEvent first = reader.next();
+        IcsEventReader.IcsEvent second = reader.next();
+        IcsEventReader.IcsEvent end = reader.next();
+
+        // Then
+        assertEquals("exam-1@university.example", first.uid());
+        assertEquals("Final exam, algorithms", first.summary());
+        assertEquals("Room 101\nBring a pencil", first.description());
+        assertEquals(Instant.parse("2030-01-15T09:00:00Z"), first.start());
+        assertEquals("Lecture", second.summary());
+        assertEquals(Instant.parse("2030-07-01T08:00:00Z"), second.start());
+        assertNull(end);
+    }
+
+    @Test
+    @DisplayName("Should parse dates, floating times and reject unknown time zones")
+    void shouldParseDateTimes() {
+        // When & Then
+        assertEquals(Instant.parse("2030-03-01T00:00:00Z"), IcsEventReader.parseDateTime(";VALUE=DATE", "20300301"));
+        assertEquals(Instant.parse("2030-03-01T12:30:00Z"), IcsEventReader.parseDateTime("", "20300301T123000"));
+        assertNull(IcsEventReader.parseDateTime(";TZID=Nowhere/Special", "20300301T123000"));
+        assertNull(IcsEventReader.parseDateTime("", "tomorrow"));
+    }
+
+    @Test
+    @DisplayName("Should reject truncated files and oversized lines")
+    void shouldRejectMalformedCalendars() {
+        // Given
+        IcsEventReader truncated = new IcsEventReader(new StringReader("BEGIN:VEVENT\nSUMMARY:Cut off\n"));
+        IcsEventReader oversized = new IcsEventReader(new StringReader("X:" + "a".repeat(IcsEventReader.MAX_LINE_LENGTH)));
+
+        // When & Then
+        assertThrows(InvalidCalendarException.class, truncated::next);
+        assertThrows(InvalidCalendarException.class, oversized::next);
+    }
+}
@@ -9,12 +9,14 @@ import org.elgupo.deathlineserver.users.models.AuthRequest;
 import org.elgupo.deathlineserver.users.models.AuthResponse;
 import org.elgupo.deathlineserver.users.repositories.UserRepository;
 import org.elgupo.deathlineserver.users.repositories.UserEntity;
+import org.elgupo.deathlineserver.users.services.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,9 +26,12 @@ import org.springframework.web.context.WebApplicationContext;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -49,13 +54,16 @@ class DeadlinesIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TokenService tokenService;
+
     private MockMvc mockMvc;
     private UserEntity testUser;
     private Long userId;
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).apply(springSecurity()).build();
         
         // Create test user
         testUser = TestDataFactory.createValidUserEntity();
@@ -71,7 +79,7 @@ class DeadlinesIntegrationTest {
 
         // When - Create deadline
         mockMvc.perform(post("/deadlines/create_deadline_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
                 .param("deadline", objectMapper.writeValueAsString(deadlineDto))
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -80,7 +88,7 @@ class DeadlinesIntegrationTest {
 
         // When - Retrieve deadlines
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString()))
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(1))
@@ -92,6 +100,35 @@ class DeadlinesIntegrationTest {
         assertEquals(deadlineDto.getName(), savedDeadlines.get(0).getName());
     }
 
+    @Test
+    @DisplayName("Should answer 304 for an unchanged list and a new ETag after a change")
+    void shouldRevalidateDeadlinesWithEtag() throws Exception {
+        // Given
+        String etag = mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When & Then - unchanged
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // When & Then - changed
+        mockMvc.perform(post("/deadlines/create_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .content(objectMapper.writeValueAsString(List.of(TestDataFactory.createValidDeadlineDto())))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/deadlines/get_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     @Test
     @DisplayName("Should filter deadlines by date range")
     void shouldFilterDeadlinesByDateRange() throws Exception {
@@ -118,7 +155,7 @@ class DeadlinesIntegrationTest {
         Instant toDate = Instant.now().plus(5, ChronoUnit.DAYS);
 
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
                 .param("from", fromDate.toString())
                 .param("to", toDate.toString()))
                 .andExpect(status().isOk())
@@ -141,6 +178,7 @@ class DeadlinesIntegrationTest {
 
         // When - Delete deadline
         mockMvc.perform(post("/deadlines/delete_deadline_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
                 .param("deadlineId", deadlineId.toString())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -153,8 +191,9 @@ class DeadlinesIntegrationTest {
     @Test
     @DisplayName("Should handle user registration and authentication flow")
     void shouldHandleUserRegistrationAndAuthenticationFlow() throws Exception {
-        // Given
+        // Given - setUp already registered the default email
         AuthRequest authRequest = TestDataFactory.createValidAuthRequest();
+        authRequest.email = "new-user@example.com";
 
         // When - Register user
         mockMvc.perform(post("/register")
@@ -170,7 +209,48 @@ class DeadlinesIntegrationTest {
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("OK"))
-                .andExpect(jsonPath("$.id").exists());
+                .andExpect(jsonPath("$.id").exists())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.expires_at").exists());
+    }
+
+    @Test
+    @DisplayName("Should create deadlines in bulk and skip invalid ones")
+    void shouldCreateDeadlinesInBulk() throws Exception {
+        // Given
+        Instant at = Instant.now().plus(1, ChronoUnit.DAYS);
+        List<DeadlineDto> deadlines = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            deadlines.add(new DeadlineDto(null, "Deadline " + i, "Description " + i, at.plusSeconds(i)));
+        }
+        deadlines.add(new DeadlineDto(null, null, "No name", at));
+
+        // When
+        mockMvc.perform(post("/deadlines/create_deadlines_for_user")
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
+                .content(objectMapper.writeValueAsString(deadlines))
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(120))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[119].deadline.deadline_id").exists())
+                .andExpect(jsonPath("$.items[120].error").value("Missing deadline_name"));
+
+        // Then
+        assertEquals(120, deadlinesRepository.findByUserId(userId).size());
+    }
+
+    @Test
+    @DisplayName("Should reject registering an email twice")
+    void shouldRejectDuplicateRegistration() throws Exception {
+        // Given
+        AuthRequest authRequest = TestDataFactory.createValidAuthRequest();
+
+        // When & Then
+        mockMvc.perform(post("/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isConflict());
     }
 
     @Test
@@ -194,7 +274,7 @@ class DeadlinesIntegrationTest {
 
         // When - Get deadlines for first user
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", userId.toString()))
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(1))
@@ -202,7 +282,7 @@ class DeadlinesIntegrationTest {
 
         // When - Get deadlines for second user
         mockMvc.perform(get("/deadlines/get_deadlines_for_user")
-                .param("userId", secondUserId.toString()))
+                .header(HttpHeaders.AUTHORIZATION, bearer(secondUserId)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(1))
@@ -217,7 +297,7 @@ class DeadlinesIntegrationTest {
 
         // When - Create deadline with null description
         mockMvc.perform(post("/deadlines/create_deadline_for_user")
-                .param("userId", userId.toString())
+                .header(HttpHeaders.AUTHORIZATION, bearer(userId))
                 .param("deadline", objectMapper.writeValueAsString(deadlineWithNullDescription))
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -227,4 +307,8 @@ class DeadlinesIntegrationTest {
         assertEquals(1, deadlines.size());
         assertNull(deadlines.get(0).getDescription());
     }
+
+    private String bearer(Long userId) {
+        return "Bearer " + tokenService.issue(userId).token();
+    }
 }
@@ -0,0 +1,84 @@
+package org.elgupo.deathlineserver.notifications.services;
+
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.repository.DeadLettersRepository;
+import org.elgupo.deathlineserver.notifications.senders.LogNotificationSender;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Pushes notifications through the dispatcher into the file-backed log channel and publishes
+ * throughput and queue depth as test report entries. Every notification has to be delivered once,
+ * none dead-lettered, and the queue never deeper than its capacity. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("NotificationDispatcher benchmark")
+class NotificationDispatcherBenchmarkTest {
+
+    private static final int NOTIFICATIONS = 500_000;
+    private static final int QUEUE_CAPACITY = 10_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Throughput of the log channel")
+    void measureThroughput(TestReporter reporter) throws Exception {
+        Path file = tempDir.resolve("notifications.tsv");
+        DeadLettersRepository deadLetters = mock(DeadLettersRepository.class);
+        NotificationDispatcher dispatcher = new NotificationDispatcher(
+            List.of(new LogNotificationSender(file.toString())), deadLetters, new MockEnvironment(),
+            QUEUE_CAPACITY, 500, 64, 8, 3, Duration.ofMillis(10), Duration.ofSeconds(1));
+        dispatcher.start();
+
+        Instant deadline = Instant.now();
+        long started = System.nanoTime();
+        long rejected = 0;
+        for (long id = 0; id < NOTIFICATIONS; id++) {
+            // Producer backs off instead of dead-lettering so every notification is measured
+            while (!tryEnqueue(dispatcher, new Notification(LogNotificationSender.CHANNEL, id % 1000, id, "Deadline", deadline))) {
+                rejected++;
+                Thread.onSpinWait();
+            }
+        }
+        while (dispatcher.deliveredCount() < NOTIFICATIONS) {
+            Thread.sleep(1);
+        }
+        long elapsed = System.nanoTime() - started;
+        dispatcher.stop();
+
+        Map<String, String> report = new LinkedHashMap<>();
+        report.put("notifications", String.valueOf(NOTIFICATIONS));
+        report.put("elapsed ms", String.format("%.1f", elapsed / 1e6));
+        report.put("notifications/sec", String.format("%.0f", NOTIFICATIONS / (elapsed / 1e9)));
+        report.put("max queue depth", String.valueOf(dispatcher.maxQueueDepth()));
+        report.put("producer spins on a full queue", String.valueOf(rejected));
+        reporter.publishEntry(report);
+
+        assertEquals(NOTIFICATIONS, dispatcher.deliveredCount());
+        assertEquals(NOTIFICATIONS, Files.readAllLines(file).size());
+        assertTrue(dispatcher.maxQueueDepth() <= QUEUE_CAPACITY, "max queue depth " + dispatcher.maxQueueDepth());
+        verifyNoInteractions(deadLetters);
+    }
+
+    private static boolean tryEnqueue(NotificationDispatcher dispatcher, Notification notification) {
+        return dispatcher.queueDepth() < QUEUE_CAPACITY && dispatcher.enqueue(notification);
+    }
+}
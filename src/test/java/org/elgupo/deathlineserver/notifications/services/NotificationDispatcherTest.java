@@ -0,0 +1,269 @@
+package org.elgupo.deathlineserver.notifications.services;
+
+import org.elgupo.deathlineserver.notifications.Notification;
+import org.elgupo.deathlineserver.notifications.NotificationSender;
+import org.elgupo.deathlineserver.notifications.repository.DeadLetterEntity;
+import org.elgupo.deathlineserver.notifications.repository.DeadLettersRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationDispatcher Tests")
+class NotificationDispatcherTest {
+
+    @Mock
+    private DeadLettersRepository deadLettersRepository;
+
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    private NotificationDispatcher startDispatcher(MockEnvironment environment, int queueCapacity, int maxAttempts,
+                                                   NotificationSender... senders) {
+        dispatcher = new NotificationDispatcher(List.of(senders), deadLettersRepository, environment,
+            queueCapacity, 10, 16, 4, maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5));
+        dispatcher.start();
+        return dispatcher;
+    }
+
+    private static Notification notification(String channel, long deadlineId) {
+        return new Notification(channel, 1L, deadlineId, "Deadline " + deadlineId, Instant.now());
+    }
+
+    @Test
+    @DisplayName("Should deliver every queued notification to its channel")
+    void shouldDeliverToChannel() throws InterruptedException {
+        // Given
+        RecordingSender sender = new RecordingSender("log", 100);
+        startDispatcher(new MockEnvironment(), 1000, 3, sender);
+
+        // When
+        for (long id = 0; id < 100; id++) {
+            assertTrue(dispatcher.enqueue(notification("log", id)));
+        }
+
+        // Then
+        assertTrue(sender.done.await(5, TimeUnit.SECONDS));
+        assertEquals(100, sender.received.size());
+        assertTrue(sender.largestBatch.get() <= 10);
+    }
+
+    @Test
+    @DisplayName("Should retry failed batches before delivering them")
+    void shouldRetryFailedBatches() throws InterruptedException {
+        // Given - the first two attempts fail
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch delivered = new CountDownLatch(1);
+        NotificationSender flaky = sender("flaky", batch -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("unavailable");
+            }
+            delivered.countDown();
+        });
+        startDispatcher(new MockEnvironment(), 10, 5, flaky);
+
+        // When
+        dispatcher.enqueue(notification("flaky", 1L));
+
+        // Then
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        verifyNoInteractions(deadLettersRepository);
+    }
+
+    @Test
+    @DisplayName("Should dead-letter a batch after the last attempt")
+    void shouldDeadLetterAfterMaxAttempts() {
+        // Given
+        NotificationSender broken = sender("broken", batch -> {
+            throw new IllegalStateException("down");
+        });
+        startDispatcher(new MockEnvironment(), 10, 2, broken);
+
+        // When
+        dispatcher.enqueue(notification("broken", 1L));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeadLetterEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deadLettersRepository, timeout(5_000)).saveAll(captor.capture());
+        DeadLetterEntity deadLetter = captor.getValue().get(0);
+        assertEquals("broken", deadLetter.getChannel());
+        assertEquals(2, deadLetter.getAttempts());
+        assertEquals("down", deadLetter.getError());
+    }
+
+    @Test
+    @DisplayName("Should dead-letter notifications for unknown channels")
+    void shouldDeadLetterUnknownChannel() {
+        // Given
+        startDispatcher(new MockEnvironment(), 10, 2);
+
+        // When
+        dispatcher.enqueue(notification("sms", 1L));
+
+        // Then
+        verify(deadLettersRepository, timeout(5_000)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should reject notifications when the queue is full")
+    void shouldRejectWhenQueueIsFull() throws InterruptedException {
+        // Given - a channel that never finishes holds the only delivery permit
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationSender stuck = sender("stuck", batch -> release.await());
+        MockEnvironment environment = new MockEnvironment().withProperty("notifications.channels.stuck.concurrency", "1");
+        startDispatcher(environment, 1, 1, stuck);
+
+        // When - fill the in-flight batches and then the queue
+        boolean rejected = false;
+        for (long id = 0; id < 1_000 && !rejected; id++) {
+            rejected = !dispatcher.enqueue(notification("stuck", id));
+        }
+
+        // Then - dead-lettered by the dispatcher, not by the caller
+        assertTrue(rejected);
+        verify(deadLettersRepository, timeout(5_000).atLeastOnce()).saveAll(anyList());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should keep delivering other channels while one channel is stuck")
+    void shouldIsolateStuckChannel() throws InterruptedException {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        NotificationSender stuck = sender("stuck", batch -> release.await());
+        RecordingSender log = new RecordingSender("log", 50);
+        MockEnvironment environment = new MockEnvironment().withProperty("notifications.channels.stuck.concurrency", "1");
+        startDispatcher(environment, 100, 1, stuck, log);
+
+        // When - the stuck channel takes all of its in-flight batches and fills its queue
+        for (long id = 0; id < 1_000; id++) {
+            dispatcher.enqueue(notification("stuck", id));
+        }
+        for (long id = 0; id < 50; id++) {
+            assertTrue(dispatcher.enqueue(notification("log", id)));
+        }
+
+        // Then
+        assertTrue(log.done.await(5, TimeUnit.SECONDS));
+        verify(deadLettersRepository, timeout(5_000).atLeastOnce()).saveAll(anyList());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should dead-letter notifications still queued on shutdown")
+    void shouldDeadLetterQueuedOnShutdown() throws InterruptedException {
+        // Given - one batch of one in flight at a time, the rest wait in the queue
+        NotificationSender slow = sender("slow", batch -> Thread.sleep(200));
+        dispatcher = new NotificationDispatcher(List.of(slow), deadLettersRepository, new MockEnvironment(),
+            5, 1, 1, 1, 1, Duration.ofMillis(1), Duration.ofMillis(5));
+        dispatcher.start();
+        for (long id = 0; id < 5; id++) {
+            assertTrue(dispatcher.enqueue(notification("slow", id)));
+        }
+
+        // When
+        dispatcher.stop();
+        dispatcher = null;
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DeadLetterEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(deadLettersRepository, atLeastOnce()).saveAll(captor.capture());
+        assertTrue(captor.getAllValues().stream().flatMap(List::stream)
+            .anyMatch(deadLetter -> "shutdown".equals(deadLetter.getError())));
+    }
+
+    @Test
+    @DisplayName("Should not exceed the per-channel concurrency limit")
+    void shouldLimitChannelConcurrency() throws InterruptedException {
+        // Given
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        NotificationSender slow = sender("slow", batch -> {
+            peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            current.decrementAndGet();
+            batch.forEach(notification -> done.countDown());
+        });
+        MockEnvironment environment = new MockEnvironment().withProperty("notifications.channels.slow.concurrency", "2");
+        startDispatcher(environment, 1000, 1, slow);
+
+        // When
+        for (long id = 0; id < 50; id++) {
+            dispatcher.enqueue(notification("slow", id));
+            Thread.sleep(1);
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 2, "peak concurrency " + peak.get());
+    }
+
+    private interface Delivery {
+        void accept(List<Notification> batch) throws Exception;
+    }
+
+    private static NotificationSender sender(String channel, Delivery delivery) {
+        return new NotificationSender() {
+            @Override
+            public String channel() {
+                return channel;
+            }
+
+            @Override
+            public void send(List<Notification> batch) throws Exception {
+                delivery.accept(batch);
+            }
+        };
+    }
+
+    private static class RecordingSender implements NotificationSender {
+        private final String channel;
+        private final List<Notification> received = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger largestBatch = new AtomicInteger();
+        private final CountDownLatch done;
+
+        RecordingSender(String channel, int expected) {
+            this.channel = channel;
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public String channel() {
+            return channel;
+        }
+
+        @Override
+        public void send(List<Notification> batch) {
+            received.addAll(batch);
+            largestBatch.accumulateAndGet(batch.size(), Math::max);
+            batch.forEach(notification -> done.countDown());
+        }
+    }
+}
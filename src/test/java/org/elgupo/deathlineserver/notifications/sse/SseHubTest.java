@@ -0,0 +1,193 @@
+package org.elgupo.deathlineserver.notifications.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.elgupo.deathlineserver.deadlines.controller.dto.DeadlineDto;
+import org.elgupo.deathlineserver.deadlines.services.DeadlinesChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SseHub Tests")
+class SseHubTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private SseHub hub(int maxConnections, int bufferBytes, Duration heartbeat) {
+        return new SseHub(objectMapper, maxConnections, 2, bufferBytes, heartbeat, Duration.ofMinutes(15), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should send events to every stream of the user and to nobody else")
+    void shouldSendToUserStreams() throws IOException {
+        // Given
+        SseHub hub = hub(10, 65536, Duration.ofSeconds(15));
+        Stream first = Stream.open(hub, 1L);
+        Stream second = Stream.open(hub, 1L);
+        Stream other = Stream.open(hub, 2L);
+
+        // When
+        int sent = hub.send(1L, SseHub.REMINDER_EVENT, null,
+            new DeadlineDto(5L, "Report", null, Instant.parse("2030-01-01T12:00:00Z")));
+
+        // Then
+        assertEquals(2, sent);
+        String expected = "retry: 5000\n\nevent: reminder\ndata: {\"deadline_id\":5,\"deadline_name\":\"Report\","
+            + "\"deadline_description\":null,\"deadline\":\"2030-01-01T12:00:00Z\"}\n\n";
+        assertEquals(expected, first.written());
+        assertEquals(expected, second.written());
+        assertEquals("retry: 5000\n\n", other.written());
+    }
+
+    @Test
+    @DisplayName("Should hold frames while the socket is not writable and write them once it is")
+    void shouldResumeWhenWritable() throws IOException {
+        // Given
+        SseHub hub = hub(10, 65536, Duration.ofSeconds(15));
+        Stream stream = Stream.open(hub, 1L);
+        stream.out.ready = false;
+
+        // When
+        hub.onDeadlinesChanged(new DeadlinesChangedEvent(1L, 7L, null, List.of(3L)));
+
+        // Then
+        assertEquals("retry: 5000\n\n", stream.written());
+
+        // When
+        stream.out.ready = true;
+        stream.out.listener.onWritePossible();
+
+        // Then
+        assertEquals("retry: 5000\n\nevent: deadlines\nid: 7\ndata: {\"version\":7,\"deleted\":[3]}\n\n", stream.written());
+    }
+
+    @Test
+    @DisplayName("Should disconnect a client that falls behind its buffer")
+    void shouldDropSlowConsumer() throws IOException {
+        // Given
+        SseHub hub = hub(10, 200, Duration.ofSeconds(15));
+        Stream stream = Stream.open(hub, 1L);
+        stream.out.ready = false;
+
+        // When
+        int sent = 0;
+        for (int i = 0; i < 5; i++) {
+            sent += hub.send(1L, SseHub.REMINDER_EVENT, null, new DeadlineDto((long) i, "Deadline", null, Instant.EPOCH));
+        }
+
+        // Then
+        assertEquals(1, sent);
+        verify(stream.asyncContext).complete();
+        assertEquals(0, hub.connectionCount());
+    }
+
+    @Test
+    @DisplayName("Should only send heartbeats to streams that were idle since the last sweep")
+    void shouldCoalesceHeartbeats() throws IOException {
+        // Given - the retry frame counts as traffic
+        SseHub busyHub = hub(10, 65536, Duration.ofHours(1));
+        Stream busy = Stream.open(busyHub, 1L);
+        SseHub idleHub = hub(10, 65536, Duration.ZERO);
+        Stream idle = Stream.open(idleHub, 1L);
+
+        // When
+        busyHub.sendHeartbeats();
+        idleHub.sendHeartbeats();
+
+        // Then
+        assertEquals("retry: 5000\n\n", busy.written());
+        assertEquals("retry: 5000\n\n:\n\n", idle.written());
+    }
+
+    @Test
+    @DisplayName("Should close the oldest stream of a user over the limit and refuse streams over capacity")
+    void shouldLimitStreams() throws IOException {
+        // Given
+        SseHub hub = hub(3, 65536, Duration.ofSeconds(15));
+        Stream oldest = Stream.open(hub, 1L);
+        Stream.open(hub, 1L);
+
+        // When
+        Stream.open(hub, 1L);
+        Stream.open(hub, 2L);
+
+        // Then
+        verify(oldest.asyncContext).complete();
+        assertEquals(3, hub.connectionCount());
+        assertFalse(hub.open(3L, mock(HttpServletRequest.class), mock(HttpServletResponse.class)));
+    }
+
+    @Test
+    @DisplayName("Should announce large changes by version only")
+    void shouldAnnounceLargeChangesByVersion() throws IOException {
+        // Given
+        SseHub hub = hub(10, 65536, Duration.ofSeconds(15));
+        Stream stream = Stream.open(hub, 1L);
+        List<DeadlineDto> created = Collections.nCopies(SseHub.MAX_EVENT_DEADLINES + 1,
+            new DeadlineDto(1L, "Deadline", null, Instant.EPOCH));
+
+        // When
+        hub.onDeadlinesChanged(new DeadlinesChangedEvent(1L, 9L, created, null));
+
+        // Then
+        assertTrue(stream.written().endsWith("event: deadlines\nid: 9\ndata: {\"version\":9}\n\n"));
+    }
+
+    private record Stream(AsyncContext asyncContext, RecordingOutputStream out) {
+
+        static Stream open(SseHub hub, Long userId) throws IOException {
+            HttpServletRequest request = mock(HttpServletRequest.class);
+            HttpServletResponse response = mock(HttpServletResponse.class);
+            AsyncContext asyncContext = mock(AsyncContext.class);
+            RecordingOutputStream out = new RecordingOutputStream();
+            when(request.startAsync()).thenReturn(asyncContext);
+            when(response.getOutputStream()).thenReturn(out);
+            assertTrue(hub.open(userId, request, response));
+            return new Stream(asyncContext, out);
+        }
+
+        String written() {
+            return out.bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class RecordingOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private volatile boolean ready = true;
+        private WriteListener listener;
+
+        // Like Tomcat, which only allows isReady() in non-blocking mode
+        @Override
+        public boolean isReady() {
+            if (listener == null) {
+                throw new IllegalStateException("Not in non-blocking mode");
+            }
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+    }
+}
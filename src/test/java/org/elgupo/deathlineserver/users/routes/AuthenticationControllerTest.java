@@ -1,26 +1,37 @@
 package org.elgupo.deathlineserver.users.routes;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elgupo.deathlineserver.config.SecurityConfig;
+import org.elgupo.deathlineserver.users.RateLimitedException;
 import org.elgupo.deathlineserver.users.models.AuthRequest;
 import org.elgupo.deathlineserver.users.models.AuthResponse;
 import org.elgupo.deathlineserver.users.repositories.UserEntity;
 import org.elgupo.deathlineserver.users.repositories.UserRepository;
+import org.elgupo.deathlineserver.users.services.AuthRateLimiter;
 import org.elgupo.deathlineserver.users.services.AuthenticationService;
+import org.elgupo.deathlineserver.users.services.TokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthenticationController.class)
+@Import(SecurityConfig.class)
 @DisplayName("AuthenticationController Integration Tests")
 class AuthenticationControllerTest {
 
@@ -30,6 +41,12 @@ class AuthenticationControllerTest {
     @MockBean
     private AuthenticationService authenticationService;
 
+    @MockBean
+    private TokenService tokenService;
+
+    @MockBean
+    private AuthRateLimiter authRateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -77,6 +94,22 @@ class AuthenticationControllerTest {
                 .andExpect(jsonPath("$.message").value("OK"));
     }
 
+    @Test
+    @DisplayName("Should reject rate limited login before calling the service")
+    void shouldRejectRateLimitedLogin() throws Exception {
+        // Given
+        doThrow(new RateLimitedException(12)).when(authRateLimiter).acquire(anyString(), eq("test@example.com"));
+
+        // When & Then
+        mockMvc.perform(post("/auth")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validAuthRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+
+        verify(authenticationService, never()).login(any(AuthRequest.class));
+    }
+
     @Test
     @DisplayName("Should handle invalid JSON in registration request")
     void shouldHandleInvalidJsonInRegistration() throws Exception {
@@ -1,6 +1,10 @@
 package org.elgupo.deathlineserver.users.services;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.elgupo.deathlineserver.users.AuthBusyException;
 import org.elgupo.deathlineserver.users.AuthException;
+import org.elgupo.deathlineserver.users.EmailTakenException;
 import org.elgupo.deathlineserver.users.models.AuthRequest;
 import org.elgupo.deathlineserver.users.models.AuthResponse;
 import org.elgupo.deathlineserver.users.repositories.UserEntity;
@@ -9,10 +13,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -24,6 +33,18 @@ class AuthenticationServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher(4, 2, 10, Duration.ofSeconds(5));
+
+    @Spy
+    private TokenService tokenService = new TokenService("", "", Duration.ofMinutes(15), 1000);
+
+    @Spy
+    private EmailFilter emailFilter = new EmailFilter(1000, 0.01);
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -42,7 +63,7 @@ class AuthenticationServiceTest {
 
     @Test
     @DisplayName("Should successfully register a new user")
-    void shouldRegisterNewUser() {
+    void shouldRegisterNewUser() throws AuthBusyException, EmailTakenException {
         // Given
         when(userRepository.save(any(UserEntity.class))).thenReturn(mockUser);
 
@@ -58,7 +79,7 @@ class AuthenticationServiceTest {
 
     @Test
     @DisplayName("Should successfully login with valid credentials")
-    void shouldLoginWithValidCredentials() throws AuthException {
+    void shouldLoginWithValidCredentials() throws AuthException, AuthBusyException {
         // Given
         when(userRepository.findByEmail(validAuthRequest.email)).thenReturn(mockUser);
 
@@ -70,6 +91,8 @@ class AuthenticationServiceTest {
         assertEquals(1L, response.id);
         assertEquals("OK", response.message);
         verify(userRepository, times(1)).findByEmail(validAuthRequest.email);
+        assertEquals(1L, tokenService.verify(response.token).orElseThrow().userId());
+        assertEquals(1, meterRegistry.get("auth.logins").tag("result", "success").counter().count());
     }
 
     @Test
@@ -81,6 +104,7 @@ class AuthenticationServiceTest {
         // When & Then
         assertThrows(AuthException.class, () -> authenticationService.login(validAuthRequest));
         verify(userRepository, times(1)).findByEmail(validAuthRequest.email);
+        assertEquals(1, meterRegistry.get("auth.logins").tag("result", "failure").counter().count());
     }
 
     @Test
@@ -126,7 +150,7 @@ class AuthenticationServiceTest {
 
     @Test
     @DisplayName("Should handle empty email in registration")
-    void shouldHandleEmptyEmailInRegistration() {
+    void shouldHandleEmptyEmailInRegistration() throws AuthBusyException, EmailTakenException {
         // Given
         AuthRequest requestWithEmptyEmail = new AuthRequest();
         requestWithEmptyEmail.email = "";
@@ -145,7 +169,7 @@ class AuthenticationServiceTest {
 
     @Test
     @DisplayName("Should handle empty password in registration")
-    void shouldHandleEmptyPasswordInRegistration() {
+    void shouldHandleEmptyPasswordInRegistration() throws AuthBusyException, EmailTakenException {
         // Given
         AuthRequest requestWithEmptyPassword = new AuthRequest();
         requestWithEmptyPassword.email = "test@example.com";
@@ -161,4 +185,113 @@ class AuthenticationServiceTest {
         assertEquals(1L, response.id);
         verify(userRepository, times(1)).save(any(UserEntity.class));
     }
+
+    @Test
+    @DisplayName("Should store a bcrypt hash instead of the password")
+    void shouldHashPasswordOnRegister() throws AuthBusyException, EmailTakenException {
+        // Given
+        ArgumentCaptor<UserEntity> saved = ArgumentCaptor.forClass(UserEntity.class);
+        when(userRepository.save(saved.capture())).thenReturn(mockUser);
+
+        // When
+        authenticationService.register(validAuthRequest);
+
+        // Then
+        assertTrue(saved.getValue().getPassword().startsWith("{bcrypt}$2a$04$"));
+        assertFalse(passwordHasher.needsRehash(saved.getValue().getPassword()));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown emails on login without querying the database")
+    void shouldRejectUnknownEmailWithoutQuery() {
+        // Given
+        emailFilter.load(Stream.of("someone@example.com"));
+
+        // When & Then
+        assertThrows(AuthException.class, () -> authenticationService.login(validAuthRequest));
+        verify(userRepository, never()).findByEmail(any());
+        assertEquals(1, meterRegistry.get("auth.logins").tag("result", "failure").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should log in a user registered after the email filter was loaded")
+    void shouldLoginUserRegisteredAfterFilterLoad() throws Exception {
+        // Given
+        emailFilter.load(Stream.empty());
+        when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> {
+            UserEntity saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        authenticationService.register(validAuthRequest);
+        ArgumentCaptor<UserEntity> saved = ArgumentCaptor.forClass(UserEntity.class);
+        verify(userRepository).save(saved.capture());
+        when(userRepository.findByEmail(validAuthRequest.email)).thenReturn(saved.getValue());
+
+        // When
+        AuthResponse response = authenticationService.login(validAuthRequest);
+
+        // Then
+        assertEquals(1L, response.id);
+        verify(userRepository, never()).existsByEmail(any());
+    }
+
+    @Test
+    @DisplayName("Should reject registering an email that is already taken")
+    void shouldRejectTakenEmailOnRegister() {
+        // Given
+        emailFilter.load(Stream.of(validAuthRequest.email));
+        when(userRepository.existsByEmail(validAuthRequest.email)).thenReturn(true);
+
+        // When & Then
+        assertThrows(EmailTakenException.class, () -> authenticationService.register(validAuthRequest));
+        verify(userRepository, never()).save(any(UserEntity.class));
+    }
+
+    @Test
+    @DisplayName("Should rehash an outdated password after a successful login")
+    void shouldRehashOutdatedPasswordOnLogin() throws AuthException, AuthBusyException {
+        // Given - a hash made with a lower cost than the current one
+        PasswordHasher cheaperHasher = new PasswordHasher(4, 1, 1, Duration.ofSeconds(5));
+        UserEntity user = new UserEntity("test@example.com", cheaperHasher.hash("password123"));
+        user.setId(1L);
+        cheaperHasher.stop();
+        passwordHasher = new PasswordHasher(5, 2, 10, Duration.ofSeconds(5));
+        authenticationService = new AuthenticationService(userRepository, passwordHasher, tokenService, emailFilter, meterRegistry);
+        when(userRepository.findByEmail(validAuthRequest.email)).thenReturn(user);
+
+        // When
+        authenticationService.login(validAuthRequest);
+
+        // Then
+        verify(userRepository, times(1)).save(user);
+        assertTrue(user.getPassword().startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordHasher.matches("password123", user.getPassword()));
+    }
+
+    @Test
+    @DisplayName("Should reject hashing beyond the queue instead of waiting")
+    void shouldRejectWhenHashingQueueIsFull() throws Exception {
+        // Given - one thread and a one-slot queue, both taken by slow hashes
+        PasswordHasher busyHasher = new PasswordHasher(14, 1, 1, Duration.ofSeconds(30));
+        Thread first = Thread.ofVirtual().start(() -> hashQuietly(busyHasher));
+        Thread second = Thread.ofVirtual().start(() -> hashQuietly(busyHasher));
+        while (busyHasher.queuedHashes() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When & Then
+        assertThrows(AuthBusyException.class, () -> busyHasher.hash("password123"));
+        busyHasher.stop();
+        first.join();
+        second.join();
+    }
+
+    private static void hashQuietly(PasswordHasher hasher) {
+        try {
+            hasher.hash("password123");
+        } catch (Exception ignored) {
+            // Cancelled on stop
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package org.elgupo.deathlineserver.users.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EmailFilter Tests")
+class EmailFilterTest {
+
+    @Test
+    @DisplayName("Should treat every email as possibly registered until loaded")
+    void shouldContainEverythingUntilLoaded() {
+        // Given
+        EmailFilter emailFilter = new EmailFilter(1000, 0.01);
+
+        // When & Then
+        assertTrue(emailFilter.mightContain("nobody@example.com"));
+        emailFilter.load(Stream.empty());
+        assertFalse(emailFilter.mightContain("nobody@example.com"));
+        assertFalse(emailFilter.mightContain(null));
+    }
+
+    @Test
+    @DisplayName("Should never miss an added email and stay near the configured false positive rate")
+    void shouldHaveNoFalseNegatives() {
+        // Given
+        EmailFilter emailFilter = new EmailFilter(10_000, 0.01);
+
+        // When
+        emailFilter.load(IntStream.range(0, 10_000).mapToObj(i -> "user" + i + "@example.com"));
+        emailFilter.add("late@example.com");
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(emailFilter.mightContain("user" + i + "@example.com"));
+        }
+        assertTrue(emailFilter.mightContain("late@example.com"));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> emailFilter.mightContain("other" + i + "@example.com"))
+                .count();
+        assertTrue(falsePositives < 200, "False positives: " + falsePositives);
+        assertEquals(0.01, emailFilter.expectedFalsePositiveRate(), 0.002);
+        assertTrue(emailFilter.sizeInBytes() < 16 * 1024);
+    }
+}
@@ -0,0 +1,107 @@
+package org.elgupo.deathlineserver.users.services;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBuckets Tests")
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Should allow a burst of capacity and then refill over time")
+    void shouldAllowBurstAndRefill() {
+        // Given
+        AtomicLong clock = new AtomicLong(1_000 * SECOND);
+        TokenBuckets buckets = new TokenBuckets(64, 3, 1, clock::get);
+
+        // When & Then
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertEquals(SECOND, buckets.tryAcquire("user@example.com"));
+        assertEquals(0, buckets.tryAcquire("other@example.com"));
+
+        clock.addAndGet(SECOND);
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertTrue(buckets.tryAcquire("user@example.com") > 0);
+
+        clock.addAndGet(10 * SECOND);
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertEquals(0, buckets.tryAcquire("user@example.com"));
+        assertTrue(buckets.tryAcquire("user@example.com") > 0);
+    }
+
+    @Test
+    @DisplayName("Should treat keys case-insensitively")
+    void shouldIgnoreKeyCase() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(64, 1, 1, () -> 0L);
+
+        // When
+        long first = buckets.tryAcquire("User@Example.com");
+        long second = buckets.tryAcquire("user@example.com");
+
+        // Then
+        assertEquals(0, first);
+        assertTrue(second > 0);
+    }
+
+    @Test
+    @DisplayName("Should stay bounded by evicting full buckets first")
+    void shouldStayBounded() {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(64, 3, 1, () -> 0L);
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("limited@example.com");
+        }
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            buckets.tryAcquire("user" + i + "@example.com");
+        }
+
+        // Then
+        assertEquals(64, buckets.size());
+        assertTrue(buckets.tryAcquire("limited@example.com") > 0);
+    }
+
+    @Test
+    @DisplayName("Should let exactly capacity concurrent callers through for one key")
+    void shouldBeExactUnderContention() throws InterruptedException {
+        // Given
+        TokenBuckets buckets = new TokenBuckets(64, 100, 0.001, () -> 0L);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                    if (buckets.tryAcquire("10.0.0.1") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        // Then
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(100, allowed.get());
+    }
+}
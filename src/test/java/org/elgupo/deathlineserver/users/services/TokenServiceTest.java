@@ -0,0 +1,117 @@
+package org.elgupo.deathlineserver.users.services;
+
+import org.elgupo.deathlineserver.users.models.AuthenticatedUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenService Tests")
+class TokenServiceTest {
+
+    private static final String OLD_KEY = "old:" + Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String NEW_KEY = "new:" + Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+
+    @Test
+    @DisplayName("Should verify the tokens it issues")
+    void shouldVerifyIssuedToken() {
+        // Given
+        TokenService tokenService = new TokenService(NEW_KEY, "new", Duration.ofMinutes(15), 100);
+
+        // When
+        TokenService.IssuedToken token = tokenService.issue(42L);
+
+        // Then
+        assertEquals(Optional.of(new AuthenticatedUser(42L)), tokenService.verify(token.token()));
+        assertEquals(Optional.of(new AuthenticatedUser(42L)), tokenService.verify(token.token()));
+    }
+
+    @Test
+    @DisplayName("Should reject tampered and malformed tokens")
+    void shouldRejectTamperedTokens() {
+        // Given
+        TokenService tokenService = new TokenService(NEW_KEY, "new", Duration.ofMinutes(15), 100);
+        String token = tokenService.issue(42L).token();
+
+        // When & Then
+        assertTrue(tokenService.verify(token.replace(".42.", ".43.")).isEmpty());
+        assertTrue(tokenService.verify(token.substring(0, token.length() - 2)).isEmpty());
+        assertTrue(tokenService.verify("v1.new.42").isEmpty());
+        assertTrue(tokenService.verify("").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredTokens() {
+        // Given - verified once, so that the second check is answered from the cache
+        MovableClock clock = new MovableClock(Instant.parse("2030-01-01T10:00:00Z"));
+        TokenService tokenService = new TokenService(NEW_KEY, "new", Duration.ofMinutes(15), 100, clock);
+        String token = tokenService.issue(42L).token();
+        assertTrue(tokenService.verify(token).isPresent());
+
+        // When
+        clock.advance(Duration.ofMinutes(15));
+
+        // Then
+        assertTrue(tokenService.verify(token).isEmpty());
+        assertTrue(new TokenService(NEW_KEY, "new", Duration.ofMinutes(15), 100, clock).verify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should accept tokens of a rotated-out key until the key is dropped")
+    void shouldRotateKeys() {
+        // Given
+        String token = new TokenService(OLD_KEY, "old", Duration.ofMinutes(15), 100).issue(42L).token();
+
+        // When
+        TokenService rotated = new TokenService(OLD_KEY + "," + NEW_KEY, "new", Duration.ofMinutes(15), 100);
+        TokenService dropped = new TokenService(NEW_KEY, "new", Duration.ofMinutes(15), 100);
+
+        // Then
+        assertTrue(rotated.verify(token).isPresent());
+        assertTrue(rotated.issue(42L).token().startsWith("v1.new."));
+        assertTrue(dropped.verify(token).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should refuse keys that are too short")
+    void shouldRefuseShortKeys() {
+        assertThrows(IllegalArgumentException.class, () ->
+            new TokenService("weak:" + Base64.getEncoder().encodeToString(new byte[8]), "weak", Duration.ofMinutes(15), 100));
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant now;
+
+        MovableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}